@@ -1,6 +1,7 @@
 plugins {
     scala
     java
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.dici"
@@ -72,3 +73,14 @@ tasks.test {
     useJUnitPlatform()
 }
 
+
+// ./gradlew jmh runs every benchmark, -PjmhIncludes=<regex> restricts them (e.g. -PjmhIncludes=SortBenchmark). Results are written as JSON
+// along with the allocation rate and GC counts reported by the gc profiler, so that two runs can be compared with any JMH result viewer.
+jmh {
+    jmhVersion.set("1.37")
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    humanOutputFile.set(layout.buildDirectory.file("results/jmh/human.txt"))
+}
@@ -0,0 +1,53 @@
+package com.dici.aws.kinesis;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/// Per-item cost of [KinesisFirehoseRecordAccumulator#put], including the records and batch requests it builds along the way. Items are already
+/// serialized so that only the accumulator itself is measured, and flushed batches are only counted instead of being sent.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KinesisFirehoseRecordAccumulatorBenchmark {
+    private static final int ITEMS = 100_000;
+
+    @Param({ "100", "10000" })
+    private int itemByteSize;
+
+    @Param({ "500", "2147483647" })
+    private int maxItemsPerRecord;
+
+    private byte[] item;
+    private long   flushedRecords;
+
+    @Setup
+    public void setUp() { item = new byte[itemByteSize]; }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public long put() {
+        KinesisFirehoseLimits limits = KinesisFirehoseLimits.builder().maxItemsPerRecord(maxItemsPerRecord).build();
+        var accumulator = new KinesisFirehoseRecordAccumulator<byte[]>("benchmark", Function.identity(),
+                request -> flushedRecords += request.records().size(), limits);
+
+        for (int i = 0; i < ITEMS; i++) accumulator.put(item);
+        accumulator.flush();
+        return flushedRecords;
+    }
+}
@@ -0,0 +1,77 @@
+package com.dici.collection;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dici.collection.BoundedBuffer.SizeExceededPolicy;
+
+/// Per-element cost of the [BoundedBuffer] operations used as a FIFO window: filling it up, sliding it by one element once full, and iterating
+/// over its content
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoundedBufferBenchmark {
+    private static final int OPERATIONS = 10_000;
+
+    @Param({ "16", "1024" })
+    private int capacity;
+
+    private BoundedBuffer<Integer> full;
+    private Integer[]              elements;
+
+    @Setup
+    public void setUp() {
+        elements = new Integer[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) elements[i] = i;
+
+        full = new BoundedBuffer<>(capacity, SizeExceededPolicy.IGNORE);
+        for (int i = 0; i < capacity; i++) full.add(elements[i]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public int fillAndDrain() {
+        BoundedBuffer<Integer> buffer = new BoundedBuffer<>(capacity, SizeExceededPolicy.IGNORE);
+        int sum = 0;
+        for (Integer i : elements) {
+            if (!buffer.offerLast(i)) {
+                while (!buffer.isEmpty()) sum += buffer.pollFirst();
+                buffer.offerLast(i);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public int slide() {
+        int sum = 0;
+        for (Integer i : elements) {
+            sum += full.pollFirst();
+            full.offerLast(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int iterate() {
+        int sum = 0;
+        for (Integer i : full) sum += i;
+        return sum;
+    }
+}
@@ -0,0 +1,151 @@
+package com.dici.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dici.collection.BoundedBuffer.SizeExceededPolicy;
+
+/// Throughput of a hand-off between `producers` threads and the benchmark thread, which consumes every element, through the concurrent queues
+/// versus an [ArrayBlockingQueue] and a [BoundedBuffer] guarded by `synchronized`. All the queues are used through their blocking operations.
+/// [Spsc] compares the queues with a single producer, which is the only case [SpscBoundedQueue] supports.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentBoundedQueueBenchmark {
+    private static final int ITEMS    = 1 << 18;
+    private static final int MAX_SIZE = 1024;
+
+    @Param({ "1", "2", "4", "8" })
+    private int producers;
+
+    @Param({ "MPMC", "ArrayBlockingQueue", "SynchronizedBoundedBuffer" })
+    private String queue;
+
+    private ExecutorService executor;
+    private Channel         channel;
+
+    @Setup
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(producers);
+        channel  = channel(queue);
+    }
+
+    @TearDown
+    public void tearDown() { executor.shutdownNow(); }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public long handOff() throws Exception { return handOff(executor, channel, producers); }
+
+    @State(Scope.Benchmark)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public static class Spsc {
+        @Param({ "SPSC", "MPMC", "ArrayBlockingQueue" })
+        private String queue;
+
+        private ExecutorService executor;
+        private Channel         channel;
+
+        @Setup
+        public void setUp() {
+            executor = Executors.newSingleThreadExecutor();
+            channel  = channel(queue);
+        }
+
+        @TearDown
+        public void tearDown() { executor.shutdownNow(); }
+
+        @Benchmark
+        @OperationsPerInvocation(ITEMS)
+        public long handOff() throws Exception { return ConcurrentBoundedQueueBenchmark.handOff(executor, channel, 1); }
+    }
+
+    private static long handOff(ExecutorService executor, Channel channel, int producers) throws Exception {
+        List<Future<?>> futures = new ArrayList<>(producers);
+        for (int p = 0; p < producers; p++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < ITEMS / producers; i++) channel.put(i);
+                return null;
+            }));
+        }
+
+        long sum = 0;
+        for (int i = 0; i < ITEMS / producers * producers; i++) sum += channel.take();
+        for (Future<?> future : futures) future.get();
+        return sum;
+    }
+
+    private static Channel channel(String queue) {
+        return switch (queue) {
+            case "SPSC"                      -> of(new SpscBoundedQueue<>(MAX_SIZE, SizeExceededPolicy.ERROR));
+            case "MPMC"                      -> of(new MpmcBoundedQueue<>(MAX_SIZE, SizeExceededPolicy.ERROR));
+            case "ArrayBlockingQueue"        -> of(new ArrayBlockingQueue<>(MAX_SIZE));
+            case "SynchronizedBoundedBuffer" -> new SynchronizedBoundedBuffer();
+            default                          -> throw new IllegalArgumentException("Unknown queue: " + queue);
+        };
+    }
+
+    private interface Channel {
+        void    put (Integer i) throws InterruptedException;
+        Integer take()          throws InterruptedException;
+    }
+
+    private static Channel of(ConcurrentBoundedQueue<Integer> queue) {
+        return new Channel() {
+            @Override public void    put (Integer i) throws InterruptedException { queue.put(i)       ; }
+            @Override public Integer take()          throws InterruptedException { return queue.take(); }
+        };
+    }
+
+    private static Channel of(BlockingQueue<Integer> queue) {
+        return new Channel() {
+            @Override public void    put (Integer i) throws InterruptedException { queue.put(i)       ; }
+            @Override public Integer take()          throws InterruptedException { return queue.take(); }
+        };
+    }
+
+    private static final class SynchronizedBoundedBuffer implements Channel {
+        private final BoundedBuffer<Integer> buffer = new BoundedBuffer<>(MAX_SIZE, SizeExceededPolicy.ERROR);
+
+        @Override
+        public synchronized void put(Integer i) throws InterruptedException {
+            while (buffer.isFull()) wait();
+            buffer.addLast(i);
+            notifyAll();
+        }
+
+        @Override
+        public synchronized Integer take() throws InterruptedException {
+            while (buffer.isEmpty()) wait();
+            notifyAll();
+            return buffer.pollFirst();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.dici.collection;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/// Cost of building, traversing and randomly accessing a [DoublyLinkedList] of `size` elements
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoublyLinkedListBenchmark {
+    @Param({ "1000", "100000" })
+    private int size;
+
+    private List<Integer>             source;
+    private DoublyLinkedList<Integer> list;
+
+    @Setup
+    public void setUp() {
+        source = IntStream.range(0, size).boxed().toList();
+        list   = new DoublyLinkedList<>(source);
+    }
+
+    @Benchmark
+    public DoublyLinkedList<Integer> build() {
+        DoublyLinkedList<Integer> res = new DoublyLinkedList<>(source.subList(0, 1));
+        for (int i = 1; i < size; i++) res.add(source.get(i));
+        return res;
+    }
+
+    @Benchmark
+    public long iterate() {
+        long sum = 0;
+        for (Integer i : list) sum += i;
+        return sum;
+    }
+
+    @Benchmark
+    public Integer getMiddle() { return list.get(size / 2); }
+
+    @Benchmark
+    public int indexOfLast() { return list.indexOf(size - 1); }
+}
@@ -0,0 +1,67 @@
+package com.dici.collection;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/// Positional accesses and updates at random indices of a list of `size` elements, and full iterations, for [IndexedDoublyLinkedList] against
+/// [DoublyLinkedList], [ArrayList] and [LinkedList]. `insertAndRemove` adds an element and removes another one so that the size stays constant.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionalListBenchmark {
+    @Param({ "1000", "100000" })
+    private int size;
+
+    @Param({ "IndexedDoublyLinkedList", "DoublyLinkedList", "ArrayList", "LinkedList" })
+    private String implementation;
+
+    private final SplittableRandom random = new SplittableRandom(0);
+    private List<Integer>          list;
+
+    @Setup
+    public void setUp() {
+        List<Integer> source = IntStream.range(0, size).boxed().toList();
+        list = switch (implementation) {
+            case "IndexedDoublyLinkedList" -> new IndexedDoublyLinkedList<>(source);
+            case "DoublyLinkedList"        -> new DoublyLinkedList<>(source);
+            case "ArrayList"               -> new ArrayList<>(source);
+            case "LinkedList"              -> new LinkedList<>(source);
+            default                        -> throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        };
+    }
+
+    @Benchmark
+    public Integer get() { return list.get(random.nextInt(size)); }
+
+    @Benchmark
+    public Integer insertAndRemove() {
+        list.add(random.nextInt(size + 1), size);
+        return list.remove(random.nextInt(size + 1));
+    }
+
+    @Benchmark
+    public long iterate() {
+        long sum = 0;
+        for (Integer i : list) sum += i;
+        return sum;
+    }
+}
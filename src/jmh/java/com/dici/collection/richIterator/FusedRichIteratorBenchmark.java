@@ -0,0 +1,96 @@
+package com.dici.collection.richIterator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dici.exceptions.ExceptionUtils.ThrowingFunction;
+import com.dici.exceptions.ExceptionUtils.ThrowingPredicate;
+
+/// Per-element cost of a map/filter pipeline depending on its depth, with fused stages versus one decorator per stage (as `map` and `filter`
+/// used to be implemented)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FusedRichIteratorBenchmark {
+    private static final int SIZE = 100_000;
+
+    @Param({ "1", "2", "4", "8" })
+    private int depth;
+
+    private Integer[] source;
+
+    @Setup
+    public void setUp() {
+        source = new Integer[SIZE];
+        for (int i = 0; i < SIZE; i++) source[i] = i;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public long fused() {
+        RichIterator<Integer> it = RichIterators.of(source);
+        for (int i = 0; i < depth; i++) it = i % 2 == 0 ? it.map(x -> x + 1) : it.filter(x -> x >= 0);
+        return consume(it);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public long unfused() {
+        RichIterator<Integer> it = RichIterators.of(source);
+        for (int i = 0; i < depth; i++) it = i % 2 == 0 ? new UnfusedMap<>(it, x -> x + 1) : new UnfusedFilter<>(it, x -> x >= 0);
+        return consume(it);
+    }
+
+    private static long consume(RichIterator<Integer> it) {
+        long sum = 0;
+        while (it.hasNext()) sum += it.next();
+        return sum;
+    }
+
+    private static final class UnfusedMap<X, Y> extends ClassicRichIteratorDecorator<X, Y> {
+        private final ThrowingFunction<X, Y> mapper;
+
+        UnfusedMap(RichIterator<X> it, ThrowingFunction<X, Y> mapper) {
+            super(it);
+            this.mapper = mapper;
+        }
+
+        @Override protected boolean hasNextInternal() { return it.hasNext(); }
+        @Override protected Y       nextInternal   () throws Exception { return mapper.apply(it.next()); }
+    }
+
+    private static final class UnfusedFilter<X> extends RichIteratorDecorator<X, X, LookAheadRichIterator<X>> {
+        private final ThrowingPredicate<X> predicate;
+
+        UnfusedFilter(RichIterator<X> it, ThrowingPredicate<X> predicate) {
+            super(new LookAheadRichIterator<>(it));
+            this.predicate = predicate;
+        }
+
+        @Override
+        protected boolean hasNextInternal() throws Exception {
+            while (it.peek() != null) {
+                if (predicate.test(it.peek())) return true;
+                it.next();
+            }
+            return false;
+        }
+
+        @Override protected X nextInternal() { return it.next(); }
+    }
+}
@@ -0,0 +1,64 @@
+package com.dici.collection.richIterator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/// Compares the primitive iterators with the boxed pipelines they replace. The boxed variants are built exactly like the former
+/// `RichIntIterator.range`, i.e. a boxed counter followed by `takeWhile(i -> i < to)`.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveRichIteratorBenchmark {
+    @Param({ "1000", "1000000" })
+    private int size;
+
+    @Benchmark
+    public long sum_boxed() {
+        return boxedRange(size).map(i -> i * 3).filter(i -> i % 2 == 0).fold(0L, (i, acc) -> acc + i);
+    }
+
+    @Benchmark
+    public long sum_primitive() {
+        return RichIntIterator.range(0, size).map(i -> i * 3).filter(i -> i % 2 == 0).sum();
+    }
+
+    @Benchmark
+    public Object toArray_boxed() {
+        return boxedRange(size).map(i -> i + 1).toList();
+    }
+
+    @Benchmark
+    public int[] toArray_primitive() {
+        return RichIntIterator.range(0, size).map(i -> i + 1).toArray();
+    }
+
+    @Benchmark
+    public long zipWithIndex_boxed() {
+        return boxedRange(size).map(i -> i * 2).zipWithIndex().fold(0L, (pair, acc) -> acc + pair.getKey() * pair.getValue());
+    }
+
+    @Benchmark
+    public long zipWithIndex_primitive() {
+        RichIntIterator.Indexed it = RichIntIterator.range(0, size).map(i -> i * 2).zipWithIndex();
+        long acc = 0;
+        while (it.hasNext()) acc += it.nextInt() * it.index();
+        return acc;
+    }
+
+    private static RichIterator<Integer> boxedRange(int to) {
+        return RichIterator.iterate(0, i -> i + 1).takeWhile(i -> i < to);
+    }
+}
@@ -0,0 +1,74 @@
+package com.dici.collection.richIterator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/// Cost of the most common end-to-end [RichIterator] pipelines over `size` boxed integers, from the source to the terminal operation. Unlike
+/// [FusedRichIteratorBenchmark] and [PrimitiveRichIteratorBenchmark], which isolate one optimization, these are meant to catch regressions
+/// anywhere in the decorators they go through.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RichIteratorPipelineBenchmark {
+    @Param({ "1000", "100000" })
+    private int size;
+
+    private Integer[] source;
+
+    @Setup
+    public void setUp() {
+        source = new Integer[size];
+        // a multiplicative hash spreads the values without sorting them, and produces duplicates for distinct()
+        for (int i = 0; i < size; i++) source[i] = (int) ((i * 0x9E3779B9L) & 0xFFFF);
+    }
+
+    @Benchmark
+    public List<Integer> mapFilterToList() {
+        return RichIterators.of(source).map(x -> x + 1).filter(x -> x % 3 != 0).toList();
+    }
+
+    @Benchmark
+    public long flatMapCount() {
+        return RichIterators.of(source).flatMap(x -> List.of(x, x)).count();
+    }
+
+    @Benchmark
+    public long groupedFold() {
+        return RichIterators.of(source).grouped(64).fold(0L, (group, acc) -> acc + group.count());
+    }
+
+    @Benchmark
+    public long zipWithIndexFold() {
+        return RichIterators.of(source).zipWithIndex().fold(0L, (pair, acc) -> acc + (pair.getKey() ^ pair.getValue()));
+    }
+
+    @Benchmark
+    public long distinctCount() {
+        return RichIterators.of(source).distinct().count();
+    }
+
+    @Benchmark
+    public List<Integer> sortedToList() {
+        return RichIterators.of(source).sorted().toList();
+    }
+
+    @Benchmark
+    public long streamSum() {
+        return RichIterators.of(source).stream().mapToLong(Integer::longValue).sum();
+    }
+}
@@ -0,0 +1,85 @@
+package com.dici.collection.toolbox;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dici.collection.toolbox.CompareSortedIterators.DeepValidator;
+import com.dici.io.RecordCodec;
+
+/// Diff of two unsorted lists of `size` records, about 1% of which differ, either by sorting both sides and using [CompareSortedIterators] or
+/// with [CompareUnsortedIterators] in memory, sequentially or with 4 threads
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiffBenchmark {
+    private static final Comparator<Long> BY_KEY = Comparator.comparingLong(DiffBenchmark::key);
+
+    @Param({ "1000000" })
+    private int size;
+
+    private List<Long> actual;
+    private List<Long> expected;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(0);
+        actual   = new ArrayList<>(size);
+        expected = new ArrayList<>(size);
+        for (long key = 0; key < size; key++) {
+            long value = random.nextInt(1000);
+            actual  .add(key << 32 | value);
+            expected.add(key << 32 | (random.nextInt(100) == 0 ? value + 1 : value));
+        }
+        Collections.shuffle(actual  , random);
+        Collections.shuffle(expected, random);
+    }
+
+    @Benchmark
+    public int sortThenCompare() {
+        List<Long> sortedActual   = new ArrayList<>(actual  );
+        List<Long> sortedExpected = new ArrayList<>(expected);
+        sortedActual  .sort(BY_KEY);
+        sortedExpected.sort(BY_KEY);
+        return new CompareSortedIterators<>(BY_KEY, DeepValidator.<Long>noDeepValidation())
+                .compareFully(sortedActual.iterator(), sortedExpected.iterator(), new DiffReport<>(100))
+                .size();
+    }
+
+    @Benchmark
+    public int hashDiff() { return hashDiff(1); }
+
+    @Benchmark
+    public int hashDiffParallel() { return hashDiff(4); }
+
+    private int hashDiff(int parallelism) {
+        HashDiffOptions<Long> options = HashDiffOptions.<Long>builder()
+                .codec(RecordCodec.longs())
+                .maxElementsInMemory(4L * size)
+                .parallelism(parallelism)
+                .build();
+        return new CompareUnsortedIterators<>(DiffBenchmark::key, DeepValidator.<Long>noDeepValidation(), options)
+                .compareFully(actual.iterator(), expected.iterator(), new DiffReport<>(100))
+                .size();
+    }
+
+    private static long key(Long record) { return record >>> 32; }
+}
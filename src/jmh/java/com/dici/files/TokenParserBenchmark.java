@@ -0,0 +1,42 @@
+package com.dici.files;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/// Time to split a string of `tokens` tokens of about 20 characters with [TokenParser], for a one-character and a multi-character delimiter
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenParserBenchmark {
+    @Param({ "1000", "10000" })
+    private int tokens;
+
+    @Param({ ";", "<|>" })
+    private String delimiter;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < tokens; i++) sb.append("token-number-").append(i).append(delimiter);
+        text = sb.toString();
+    }
+
+    @Benchmark
+    public long parse() { return TokenParser.parse(text, delimiter).count(); }
+}
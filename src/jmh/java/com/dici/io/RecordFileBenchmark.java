@@ -0,0 +1,70 @@
+package com.dici.io;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dici.collection.richIterator.RichIterators;
+import com.dici.io.RecordFileWriter.Compression;
+
+/// Time to write then read back `records` longs with Java serialization (as [RichIterators#fromSerializedRecords] expects) versus the record file
+/// format, with and without compression
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class RecordFileBenchmark {
+    @Param({ "10000000" })
+    private int records;
+
+    @Param({ "SERIALIZATION", "NONE", "DEFLATE" })
+    private String format;
+
+    private File file;
+
+    @Setup
+    public void setUp() throws IOException { file = File.createTempFile("records", null); }
+
+    @TearDown
+    public void tearDown() { file.delete(); }
+
+    @Benchmark
+    public long writeThenRead() throws IOException {
+        if (format.equals("SERIALIZATION")) {
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+                for (long i = 0; i < records; i++) out.writeObject(i);
+            }
+            return sum(RichIterators.fromSerializedRecords(file, Long.class));
+        }
+
+        try (RecordFileWriter<Long> writer = new RecordFileWriter<>(file, RecordCodec.longs(), Compression.valueOf(format))) {
+            for (long i = 0; i < records; i++) writer.write(i);
+        }
+        return sum(RichIterators.fromRecordFile(file, RecordCodec.longs()));
+    }
+
+    private static long sum(Iterator<Long> it) {
+        long sum = 0;
+        while (it.hasNext()) sum += it.next();
+        return sum;
+    }
+}
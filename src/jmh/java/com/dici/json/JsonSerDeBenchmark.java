@@ -0,0 +1,52 @@
+package com.dici.json;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/// Round trips of a small object through [Json#DEFAULT], which goes through a thread-local object mapper on every call. The benchmarks run on
+/// 4 threads so that the thread-local lookup is measured in the conditions it was introduced for.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JsonSerDeBenchmark {
+    public record Event(String id, long sequence, Instant timestamp, Optional<String> user, List<String> tags) { }
+
+    private Event  event;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        event = new Event("3f2a9c1e-7b4d-4e8a-9f0b-1c2d3e4f5a6b", 42, Instant.parse("2026-01-01T00:00:00Z"), Optional.of("dici"),
+                List.of("benchmark", "json", "serde"));
+        json  = Json.DEFAULT.toJsonString(event);
+    }
+
+    @Benchmark
+    public String serialize() { return Json.DEFAULT.toJsonString(event); }
+
+    @Benchmark
+    public Event deserialize() { return Json.DEFAULT.readObject(json, Event.class); }
+
+    @Benchmark
+    public JsonNode readTree() { return Json.DEFAULT.readJsonTree(json); }
+}
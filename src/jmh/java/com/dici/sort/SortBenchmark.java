@@ -0,0 +1,90 @@
+package com.dici.sort;
+
+import static com.dici.math.MathUtils.lowerOrEqual;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/// Time to sort `size` random integers with each [SortAlgorithm] of this package, against [Arrays#sort] and [Arrays#parallelSort]. The quadratic
+/// sorts (`SelectionSort` and `InsertionSort`) are not run by default because they would take minutes at this size, but can be selected with
+/// `-p algorithm=SelectionSort,InsertionSort -p size=10000`. Each invocation sorts a fresh copy of the same input, and the result is checked
+/// after each iteration so that a broken algorithm cannot report a good time.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark {
+    @Param({ "100000" })
+    private int size;
+
+    @Param({ "QuickSort", "MergeSort", "HeapSort", "ParallelMergeSort", "ParallelDualPivotQuickSort", "RadixSort", "Arrays.sort", "Arrays.parallelSort" })
+    private String algorithm;
+
+    private SortAlgorithm<Integer> sort;
+    private Integer[]              source;
+    private Integer[]              arr;
+
+    @Setup
+    public void setUp() {
+        sort   = algorithm(algorithm);
+        source = new Random(0).ints(size, 0, size).boxed().toArray(Integer[]::new);
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() { arr = Arrays.copyOf(source, size); }
+
+    @TearDown(Level.Iteration)
+    public void checkSorted() {
+        for (int i = 1; i < arr.length; i++) {
+            if (!lowerOrEqual(arr[i - 1], arr[i]))
+                throw new AssertionError(String.format("Array not well sorted by %s: %d > %d at index %d", sort.getName(), arr[i - 1], arr[i], i));
+        }
+    }
+
+    @Benchmark
+    public Integer[] sort() {
+        sort.sort(arr);
+        return arr;
+    }
+
+    private static SortAlgorithm<Integer> algorithm(String name) {
+        return switch (name) {
+            case "SelectionSort"              -> new SelectionSort<>();
+            case "InsertionSort"              -> new InsertionSort<>();
+            case "QuickSort"                  -> new QuickSort<>();
+            case "MergeSort"                  -> new MergeSort<>();
+            case "HeapSort"                   -> new HeapSort<>();
+            case "ParallelMergeSort"          -> new ParallelMergeSort<>();
+            case "ParallelDualPivotQuickSort" -> new ParallelDualPivotQuickSort<>();
+            case "RadixSort"                  -> new RadixSort<>(Integer::longValue);
+            case "Arrays.sort"                -> adapter(name, Arrays::sort);
+            case "Arrays.parallelSort"        -> adapter(name, Arrays::parallelSort);
+            default                           -> throw new IllegalArgumentException("Unknown algorithm: " + name);
+        };
+    }
+
+    private static SortAlgorithm<Integer> adapter(String name, Consumer<Integer[]> sort) {
+        return new SortAlgorithm<>() {
+            @Override public void   sort   (Integer[] arr) { sort.accept(arr); }
+            @Override public String getName()              { return name; }
+        };
+    }
+}
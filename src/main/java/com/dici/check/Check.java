@@ -42,11 +42,11 @@ public final class Check {
 	public static int isPositive(int n) { return isPositive(n, SHOULD_BE_POSITIVE); } 
 	public static int isPositive(int n, String msg) { check(n > 0, msg); return n; } 
 	
-	public static int notNegative(int n) { return notNegative(n, SHOULD_NOT_BE_NEGATIVE(n)); } 
+	public static int notNegative(int n) { return n >= 0 ? n : notNegative(n, SHOULD_NOT_BE_NEGATIVE(n)); } 
     public static int notNegative(int n, String msg) { check(n >= 0, msg); return n; } 
 	
-    public static long notNegative(long n) { return notNegative(n, SHOULD_NOT_BE_NEGATIVE(n)); } 
-    public static long notNegative(long n, String msg) { check(n < 0, msg); return n; } 
+    public static long notNegative(long n) { return n >= 0 ? n : notNegative(n, SHOULD_NOT_BE_NEGATIVE(n)); } 
+    public static long notNegative(long n, String msg) { check(n >= 0, msg); return n; } 
     
 	public static void isGreaterThan(long a, long b) { isGreaterThan(a,b,SHOULD_BE_GREATER); }
 	public static void isGreaterThan(long a, long b, String msg) { check(a > b, msg); }
@@ -54,25 +54,25 @@ public final class Check {
 	public static long isGreaterOrEqual(long reference, long expected) { return isGreaterOrEqual(reference, expected, SHOULD_BE_GREATER_OR_EQUAL); }
 	public static long isGreaterOrEqual(long reference, long expected, String msg) { check(reference >= expected, msg); return reference; }
 	public static int  isGreaterOrEqual(int reference, int expected) { return isGreaterOrEqual(reference, expected, SHOULD_BE_GREATER_OR_EQUAL); }
-	public static int  isGreaterOrEqual(int reference, int expected, String msg) { return isGreaterOrEqual(reference, expected, defaultException(msg)); }
+	public static int  isGreaterOrEqual(int reference, int expected, String msg) { check(reference >= expected, msg); return reference; }
 	public static int  isGreaterOrEqual(int reference, int expected, RuntimeException e) { check(reference >= expected, e); return reference; }
 	public static byte isGreaterOrEqual(byte reference, byte expected) { return isGreaterOrEqual(reference, expected, SHOULD_BE_GREATER_OR_EQUAL); }
 	public static byte isGreaterOrEqual(byte reference, byte expected, String msg) { check(reference >= expected, msg); return reference; }
 	
-	public static void isBetween(int low, int mid, int high) { isBetween(low, mid, high, SHOULD_BE_BETWEEN(low, high)); }
-	public static void isBetween(int low, int mid, int high, String msg) { isBetween(low, mid, high, defaultException(msg)); }
+	public static void isBetween(int low, int mid, int high) { if (low > mid || mid >= high) isBetween(low, mid, high, SHOULD_BE_BETWEEN(low, high)); }
+	public static void isBetween(int low, int mid, int high, String msg) { check(low <= mid && mid < high, msg); }
 	public static void isBetween(int low, int mid, int high, RuntimeException e) { check(low <= mid && mid < high, e); }
 	
-	public static void areEqual(Object o1, Object o2) { areEqual(o1, o2, SHOULD_BE_EQUAL(o1, o2)); }
+	public static void areEqual(Object o1, Object o2) { if (!o1.equals(o2)) areEqual(o1, o2, SHOULD_BE_EQUAL(o1, o2)); }
 	public static void areEqual(Object o1, Object o2, String msg) { check(o1.equals(o2), msg); }
-	public static void areEqual(long i, long j) { areEqual(i, j, SHOULD_BE_EQUAL(i, j)); }
+	public static void areEqual(long i, long j) { if (i != j) areEqual(i, j, SHOULD_BE_EQUAL(i, j)); }
 	public static void areEqual(long i, long j, String msg) { check(i == j, msg); }
-	public static void areEqual(int i, int j) { areEqual(i, j, SHOULD_BE_EQUAL(i, j)); }
+	public static void areEqual(int i, int j) { if (i != j) areEqual(i, j, SHOULD_BE_EQUAL(i, j)); }
 	public static void areEqual(int i, int j, String msg) { check(i == j, msg); }
-	public static void areEqual(byte b1, byte b2) { areEqual(b1, b2, SHOULD_BE_EQUAL(b1, b2)); }
+	public static void areEqual(byte b1, byte b2) { if (b1 != b2) areEqual(b1, b2, SHOULD_BE_EQUAL(b1, b2)); }
 	public static void areEqual(byte b1, byte b2, String msg) { check(b1 == b2, msg); }
 	
-	public static void notEqual(int i, int j) { notEqual(i, j, SHOULD_BE_DIFFERENT(i, j)); }
+	public static void notEqual(int i, int j) { if (i == j) notEqual(i, j, SHOULD_BE_DIFFERENT(i, j)); }
 	public static void notEqual(int i, int j, String msg) { check(i != j, msg); }
 	
 	public static void notEqual(Object o1, Object o2) { notEqual(o1,o2,SHOULD_NOT_BE_EQUAL); }
@@ -84,7 +84,8 @@ public final class Check {
 		return s;
 	}
 
-	private static void check(boolean test, String msg) { check(test, defaultException(msg)); }
+	// the exception is only created on failure, filling its stack trace would otherwise make every check cost about a microsecond
+	private static void check(boolean test, String msg) { if (!test) throw defaultException(msg); }
 	private static void check(boolean test, RuntimeException e) { if (!test) throw e; }
 	private static IllegalArgumentException defaultException(String msg) { return new IllegalArgumentException(msg); }
 }
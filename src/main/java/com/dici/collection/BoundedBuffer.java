@@ -3,38 +3,59 @@ package com.dici.collection;
 import static com.dici.check.Check.notNull;
 import static com.dici.exceptions.UnknownEnumValueException.unknownEnumValue;
 
+import java.util.AbstractCollection;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 
 import com.dici.check.Check;
 
-public class BoundedBuffer<T> implements Deque<T> {
+/**
+ * A {@link Deque} holding at most {@code maxSize} elements, backed by a circular array. Adding or removing an element at either end is O(1)
+ * and does not allocate, except when the array grows. The array is allocated lazily and grows by doubling up to {@code maxSize}, so that
+ * very large bounds (such as {@link Integer#MAX_VALUE} for an unbounded buffer) do not reserve memory upfront. Null elements are allowed.
+ * <p>
+ * What happens when an insertion would exceed {@code maxSize} is defined by a {@link SizeExceededPolicy}: {@link SizeExceededPolicy#ERROR}
+ * throws a {@link SizeExceededException} while {@link SizeExceededPolicy#IGNORE} drops the new elements.
+ * @param <T> type of the data
+ */
+public class BoundedBuffer<T> extends AbstractCollection<T> implements Deque<T> {
 	public enum SizeExceededPolicy { ERROR, IGNORE }
-	
+
+	private static final int      INITIAL_CAPACITY = 16;
+	private static final Object[] EMPTY            = {};
+
 	private final int					maxSize;
-	private final Deque<T>				buffer;
 	private final SizeExceededPolicy	sizeExceededPolicy;
-	
+
+	private Object[]	elements = EMPTY;
+	private int			head     = 0;
+	private int			size     = 0;
+
 	public BoundedBuffer(int maxSize, SizeExceededPolicy sizeExceededPolicy) {
 		this.maxSize            = Check.isPositive(maxSize);
-		this.buffer             = new LinkedList<>();
 		this.sizeExceededPolicy = sizeExceededPolicy;
 	}
-	
+
 	public BoundedBuffer(int maxSize, Collection<T> buffer, SizeExceededPolicy sizeExceededPolicy) {
 		this(maxSize, sizeExceededPolicy);
 		addAll(notNull(buffer));
 	}
 
-	public boolean isFull      ()    { return maxSize == buffer.size(); }
+	public int     maxSize     ()    { return maxSize                 ; }
+	public boolean isFull      ()    { return size == maxSize         ; }
 	public boolean addIfNotFull(T t) { return !isFull() && add(t)     ; }
-	
-	@Override public boolean addAll(Collection<? extends T> c) { 
+
+	@Override public boolean addAll(Collection<? extends T> c) {
 		switch (sizeExceededPolicy) {
-			case ERROR : return ensureHasCpacity(c.size()) && buffer.addAll(c); 
-			case IGNORE: 
+			case ERROR :
+				if (!ensureHasCapacity(c.size())) return false;
+				for (T t : c) addLastUnchecked(t);
+				return !c.isEmpty();
+			case IGNORE:
 				boolean added = !isFull() || c.size() == 0;
 				Iterator<? extends T> it = c.iterator();
 				while (!isFull() && it.hasNext()) added = add(it.next()) || added;
@@ -42,14 +63,15 @@ public class BoundedBuffer<T> implements Deque<T> {
 			default: throw unknownEnumValue(SizeExceededPolicy.class, sizeExceededPolicy);
 		}
 	}
-	
-	@Override public boolean add       (T t) { return ensureHasCpacity(1) && buffer.add(t)       ; }
-	@Override public boolean offerFirst(T t) { return ensureHasCpacity(1) && buffer.offerFirst(t); }
-	@Override public boolean offerLast (T t) { return ensureHasCpacity(1) && buffer.offerLast(t) ; }
-	@Override public void    addFirst  (T t) { if (ensureHasCpacity(1))      buffer.addFirst(t)  ; }
 
-	private boolean ensureHasCpacity(int toAdd) { 
-		if (toAdd + buffer.size() > maxSize)
+	@Override public boolean add       (T t) { return offerLast(t)                                                    ; }
+	@Override public boolean offerFirst(T t) { if (!ensureHasCapacity(1)) return false; addFirstUnchecked(t); return true; }
+	@Override public boolean offerLast (T t) { if (!ensureHasCapacity(1)) return false; addLastUnchecked (t); return true; }
+	@Override public void    addFirst  (T t) { offerFirst(t)                                                          ; }
+	@Override public void    addLast   (T t) { offerLast (t)                                                          ; }
+
+	private boolean ensureHasCapacity(int toAdd) {
+		if (toAdd > maxSize - size)
 			switch (sizeExceededPolicy) {
 				case IGNORE: return false;
 				case ERROR : throw new SizeExceededException();
@@ -57,38 +79,169 @@ public class BoundedBuffer<T> implements Deque<T> {
 			}
 		return true;
 	}
-	
-	@Override public void        clear()                         {        buffer.clear()                 ; }
-	@Override public boolean     containsAll(Collection<?> c)    { return buffer.containsAll(c)          ; }
-	@Override public boolean     isEmpty()                       { return buffer.isEmpty()               ; }
-	@Override public boolean     removeAll(Collection<?> c)      { return buffer.removeAll(c)            ; }
-	@Override public boolean     retainAll(Collection<?> c)      { return buffer.retainAll(c)            ; }
-	@Override public Object[]    toArray()                       { return buffer.toArray()               ; }
-	@Override public <X> X[]     toArray(X[] a)                  { return buffer.toArray(a)              ; }
-	@Override public boolean     contains(Object o)              { return buffer.contains(o)             ; }
-	@Override public Iterator<T> descendingIterator()            { return buffer.descendingIterator()    ; }
-	@Override public T           element()                       { return buffer.element()               ; }
-	@Override public T           getFirst()                      { return buffer.getFirst()              ; }
-	@Override public T           getLast()                       { return buffer.getLast()               ; }
-	@Override public Iterator<T> iterator()                      { return buffer.iterator()              ; }
-	@Override public T           peek()                          { return buffer.peek()                  ; }
-	@Override public T           peekFirst()                     { return buffer.peekFirst()             ; }
-	@Override public T           peekLast()                      { return buffer.peekLast()              ; }
-	@Override public T           pollFirst()                     { return buffer.pollFirst()             ; }
-    @Override public T           pollLast()                      { return buffer.pollLast()              ; }
-	@Override public boolean     remove(Object o)                { return buffer.remove(o)               ; }
-	@Override public T           removeFirst()                   { return buffer.removeFirst()           ; }
-	@Override public T           removeLast()                    { return buffer.removeLast()            ; }
-	@Override public boolean     removeLastOccurrence(Object o)  { return buffer.removeLastOccurrence(o) ; }
-	@Override public int         size()                          { return buffer.size()                  ; }
-	@Override public boolean     removeFirstOccurrence(Object o) { return buffer.removeFirstOccurrence(o); }
-	@Override public T           remove()                        { return buffer.remove()                ; }
-	@Override public T           pop()                           { return buffer.pop()                   ; }
-	@Override public T           poll()                          { return buffer.poll()                  ; }
-	@Override public String      toString()                      { return buffer.toString()              ; }
-	@Override public boolean     offer(T t)                      { return offerLast(t)                   ; }
-	@Override public void        addLast(T t)                    {        offerLast(t)                   ; }
-	@Override public void        push(T t)                       {        addFirst(t)                    ; }
-	
+
+	private void addFirstUnchecked(T t) {
+		growIfNecessary();
+		head = head == 0 ? elements.length - 1 : head - 1;
+		elements[head] = t;
+		size++;
+	}
+
+	private void addLastUnchecked(T t) {
+		growIfNecessary();
+		elements[physicalIndex(size)] = t;
+		size++;
+	}
+
+	private void growIfNecessary() {
+		if (size < elements.length) return;
+
+		int      capacity = (int) Math.min(maxSize, Math.max(INITIAL_CAPACITY, 2L * elements.length));
+		Object[] grown    = new Object[capacity];
+		copyTo(grown);
+		elements = grown;
+		head     = 0;
+	}
+
+	/** Copies the elements in order to the beginning of the destination array */
+	private void copyTo(Object[] dest) {
+		int firstPart = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, dest, 0        , firstPart       );
+		System.arraycopy(elements, 0   , dest, firstPart, size - firstPart);
+	}
+
+	/** Maps an index relative to the head of the buffer to an index in the array, without overflowing when the array is very large */
+	private int physicalIndex(int index) {
+		int i = head - elements.length + index;
+		return i < 0 ? i + elements.length : i;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T elementAt(int index) { return (T) elements[physicalIndex(index)]; }
+
+	@Override
+	public T pollFirst() {
+		if (size == 0) return null;
+		T t = elementAt(0);
+		elements[head] = null;
+		head = head == elements.length - 1 ? 0 : head + 1;
+		size--;
+		return t;
+	}
+
+	@Override
+	public T pollLast() {
+		if (size == 0) return null;
+		int last = physicalIndex(size - 1);
+		@SuppressWarnings("unchecked")
+		T t = (T) elements[last];
+		elements[last] = null;
+		size--;
+		return t;
+	}
+
+	/** Removes the element at the given index (relative to the head) by shifting the shortest side of the buffer over it */
+	private void removeAt(int index) {
+		if (index < size / 2) {
+			for (int i = index; i > 0; i--) elements[physicalIndex(i)] = elements[physicalIndex(i - 1)];
+			pollFirst();
+		} else {
+			for (int i = index; i < size - 1; i++) elements[physicalIndex(i)] = elements[physicalIndex(i + 1)];
+			pollLast();
+		}
+	}
+
+	private int indexOf(Object o) {
+		for (int i = 0; i < size; i++)
+			if (Objects.equals(o, elementAt(i))) return i;
+		return -1;
+	}
+
+	private int lastIndexOf(Object o) {
+		for (int i = size - 1; i >= 0; i--)
+			if (Objects.equals(o, elementAt(i))) return i;
+		return -1;
+	}
+
+	@Override
+	public boolean removeFirstOccurrence(Object o) {
+		int index = indexOf(o);
+		if (index >= 0) removeAt(index);
+		return index >= 0;
+	}
+
+	@Override
+	public boolean removeLastOccurrence(Object o) {
+		int index = lastIndexOf(o);
+		if (index >= 0) removeAt(index);
+		return index >= 0;
+	}
+
+	@Override
+	public void clear() {
+		if (size == 0) return;
+		int firstPart = Math.min(size, elements.length - head);
+		Arrays.fill(elements, head, head + firstPart, null);
+		Arrays.fill(elements, 0, size - firstPart, null);
+		head = size = 0;
+	}
+
+	@Override
+	public Object[] toArray() {
+		Object[] res = new Object[size];
+		copyTo(res);
+		return res;
+	}
+
+	@Override public T           getFirst()                      { if (size == 0) throw new NoSuchElementException(); return elementAt(0)       ; }
+	@Override public T           getLast()                       { if (size == 0) throw new NoSuchElementException(); return elementAt(size - 1); }
+	@Override public T           removeFirst()                   { if (size == 0) throw new NoSuchElementException(); return pollFirst()        ; }
+	@Override public T           removeLast()                    { if (size == 0) throw new NoSuchElementException(); return pollLast()         ; }
+	@Override public T           peekFirst()                     { return size == 0 ? null : elementAt(0)       ; }
+	@Override public T           peekLast()                      { return size == 0 ? null : elementAt(size - 1); }
+	@Override public boolean     isEmpty()                       { return size == 0                             ; }
+	@Override public int         size()                          { return size                                  ; }
+	@Override public boolean     contains(Object o)              { return indexOf(o) >= 0                       ; }
+	@Override public boolean     remove(Object o)                { return removeFirstOccurrence(o)              ; }
+	@Override public Iterator<T> iterator()                      { return new Itr(false)                        ; }
+	@Override public Iterator<T> descendingIterator()            { return new Itr(true)                         ; }
+	@Override public T           element()                       { return getFirst()                            ; }
+	@Override public T           peek()                          { return peekFirst()                           ; }
+	@Override public T           remove()                        { return removeFirst()                         ; }
+	@Override public T           pop()                           { return removeFirst()                         ; }
+	@Override public T           poll()                          { return pollFirst()                           ; }
+	@Override public boolean     offer(T t)                      { return offerLast(t)                          ; }
+	@Override public void        push(T t)                       {        addFirst(t)                           ; }
+
+	private class Itr implements Iterator<T> {
+		private final boolean descending;
+		private int next;
+		private int lastReturned = -1;
+
+		Itr(boolean descending) {
+			this.descending = descending;
+			this.next       = descending ? size - 1 : 0;
+		}
+
+		@Override public boolean hasNext() { return descending ? next >= 0 : next < size; }
+
+		@Override
+		public T next() {
+			if (!hasNext()) throw new NoSuchElementException();
+			lastReturned = next;
+			next        += descending ? -1 : 1;
+			return elementAt(lastReturned);
+		}
+
+		@Override
+		public void remove() {
+			if (lastReturned < 0) throw new IllegalStateException();
+			removeAt(lastReturned);
+			// the elements after the removed one have shifted towards the head
+			if (!descending) next--;
+			lastReturned = -1;
+		}
+	}
+
 	public static class SizeExceededException extends RuntimeException { private static final long	serialVersionUID = 1L; }
 }
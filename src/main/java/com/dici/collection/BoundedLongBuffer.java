@@ -0,0 +1,138 @@
+package com.dici.collection;
+
+import static com.dici.exceptions.UnknownEnumValueException.unknownEnumValue;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import com.dici.check.Check;
+import com.dici.collection.BoundedBuffer.SizeExceededException;
+import com.dici.collection.BoundedBuffer.SizeExceededPolicy;
+import com.dici.collection.richIterator.RichLongIterator;
+
+/// A `long` specialization of [BoundedBuffer] which stores its elements in a circular `long[]`, typically used as a sliding window over a numeric
+/// series. It is a double-ended queue without boxing, with the same growth strategy and [SizeExceededPolicy] semantics as [BoundedBuffer].
+/// Since there is no `null` to return for a missing element, all the accessors throw a [NoSuchElementException] when the buffer is empty.
+public class BoundedLongBuffer {
+    private static final int    INITIAL_CAPACITY = 16;
+    private static final long[] EMPTY           = {};
+
+    private final int                maxSize;
+    private final SizeExceededPolicy sizeExceededPolicy;
+
+    private long[] elements = EMPTY;
+    private int    head     = 0;
+    private int    size     = 0;
+
+    public BoundedLongBuffer(int maxSize, SizeExceededPolicy sizeExceededPolicy) {
+        this.maxSize            = Check.isPositive(maxSize);
+        this.sizeExceededPolicy = sizeExceededPolicy;
+    }
+
+    public int     maxSize() { return maxSize        ; }
+    public int     size   () { return size           ; }
+    public boolean isEmpty() { return size == 0      ; }
+    public boolean isFull () { return size == maxSize; }
+
+    /// @return false if the buffer is full and the policy is [SizeExceededPolicy#IGNORE]
+    public boolean offerFirst(long value) {
+        if (!ensureHasCapacity()) return false;
+        growIfNecessary();
+        head = head == 0 ? elements.length - 1 : head - 1;
+        elements[head] = value;
+        size++;
+        return true;
+    }
+
+    /// @return false if the buffer is full and the policy is [SizeExceededPolicy#IGNORE]
+    public boolean offerLast(long value) {
+        if (!ensureHasCapacity()) return false;
+        growIfNecessary();
+        elements[physicalIndex(size)] = value;
+        size++;
+        return true;
+    }
+
+    public void addFirst(long value) { offerFirst(value); }
+    public void addLast (long value) { offerLast (value); }
+
+    /// Appends a value to a full buffer by first evicting its oldest value, which is returned, or simply appends it if the buffer is not full,
+    /// in which case nothing is evicted and `defaultValue` is returned
+    public long slide(long value, long defaultValue) {
+        long evicted = isFull() ? removeFirst() : defaultValue;
+        addLast(value);
+        return evicted;
+    }
+
+    private boolean ensureHasCapacity() {
+        if (size < maxSize) return true;
+        switch (sizeExceededPolicy) {
+            case IGNORE: return false;
+            case ERROR : throw new SizeExceededException();
+            default    : throw unknownEnumValue(SizeExceededPolicy.class, sizeExceededPolicy);
+        }
+    }
+
+    private void growIfNecessary() {
+        if (size < elements.length) return;
+
+        long[] grown = new long[(int) Math.min(maxSize, Math.max(INITIAL_CAPACITY, 2L * elements.length))];
+        copyTo(grown);
+        elements = grown;
+        head     = 0;
+    }
+
+    private void copyTo(long[] dest) {
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, dest, 0        , firstPart       );
+        System.arraycopy(elements, 0   , dest, firstPart, size - firstPart);
+    }
+
+    private int physicalIndex(int index) {
+        int i = head - elements.length + index;
+        return i < 0 ? i + elements.length : i;
+    }
+
+    public long removeFirst() {
+        long value = getFirst();
+        head = head == elements.length - 1 ? 0 : head + 1;
+        size--;
+        return value;
+    }
+
+    public long removeLast() {
+        long value = getLast();
+        size--;
+        return value;
+    }
+
+    public long getFirst() { return get(0)       ; }
+    public long getLast () { return get(size - 1); }
+
+    /// @param index the position of the element relative to the first one
+    public long get(int index) {
+        if (size == 0) throw new NoSuchElementException();
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index out of bounds: " + index + " (size = " + size + ")");
+        return elements[physicalIndex(index)];
+    }
+
+    public void clear() { head = size = 0; }
+
+    public long[] toArray() {
+        long[] res = new long[size];
+        copyTo(res);
+        return res;
+    }
+
+    /// @return an iterator from the first to the last element. The buffer should not be modified while it is being iterated.
+    public RichLongIterator iterator() {
+        return new RichLongIterator() {
+            private int i = 0;
+
+            @Override protected boolean hasNextInternal () { return i < size                    ; }
+            @Override protected long    nextLongInternal() { return elements[physicalIndex(i++)]; }
+        };
+    }
+
+    @Override public String toString() { return Arrays.toString(toArray()); }
+}
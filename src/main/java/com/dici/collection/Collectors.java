@@ -1,8 +1,8 @@
 package com.dici.collection;
 
-import java.util.ArrayList;
+import static com.dici.check.Check.notNull;
+
 import java.util.EnumSet;
-import java.util.List;
 import java.util.Set;
 import java.util.function.*;
 import java.util.stream.Collector;
@@ -12,35 +12,54 @@ public class Collectors {
     /// Collects a [Stream] to a collection of elements computed from two consecutive elements in the [Stream]. Example:
     /// {@code Stream.of(1, 2, 5).collect(scan((prev, next) -> String.valueOf(next - prev)), toUnmodifiableLis())} will
     /// yield a list with value {@code ["1", "3"]}
-    public static <T, O, R> Collector<T, List<T>, R> scan(BiFunction<T, T, O> op, Collector<O, ?, R> collector) {
+    ///
+    /// The operator is applied on the fly and only the previous element is retained, so nothing is buffered besides the downstream container.
+    /// In a parallel stream, each segment also remembers its first element, which is combined with the last element of the previous segment
+    /// when the two segments are merged.
+    public static <T, O, R> Collector<T, ?, R> scan(BiFunction<T, T, O> op, Collector<O, ?, R> collector) {
+        notNull(op);
+        return scanning(op, notNull(collector));
+    }
+
+    private static <T, O, A, R> Collector<T, ScanState<T, A>, R> scanning(BiFunction<T, T, O> op, Collector<O, A, R> collector) {
+        Supplier<A>       downstreamSupplier    = collector.supplier();
+        BiConsumer<A, O>  downstreamAccumulator = collector.accumulator();
+        BinaryOperator<A> downstreamCombiner    = collector.combiner();
+        Function<A, R>    downstreamFinisher    = collector.finisher();
+
         return new Collector<>() {
             @Override
-            public Supplier<List<T>> supplier() {
-                return ArrayList::new;
+            public Supplier<ScanState<T, A>> supplier() {
+                return () -> new ScanState<>(downstreamSupplier.get());
             }
 
             @Override
-            public BiConsumer<List<T>, T> accumulator() {
-                return List::add;
+            public BiConsumer<ScanState<T, A>, T> accumulator() {
+                return (state, t) -> {
+                    if (state.isEmpty) state.first = t;
+                    else               downstreamAccumulator.accept(state.container, op.apply(state.last, t));
+                    state.last    = t;
+                    state.isEmpty = false;
+                };
             }
 
             @Override
-            public BinaryOperator<List<T>> combiner() {
+            public BinaryOperator<ScanState<T, A>> combiner() {
                 return (left, right) -> {
-                    left.addAll(right);
+                    if (right.isEmpty) return left;
+                    if (left .isEmpty) return right;
+
+                    // the pair spanning the two segments comes after all the pairs of the left segment and before those of the right one
+                    downstreamAccumulator.accept(left.container, op.apply(left.last, right.first));
+                    left.container = downstreamCombiner.apply(left.container, right.container);
+                    left.last      = right.last;
                     return left;
                 };
             }
 
             @Override
-            public Function<List<T>, R> finisher() {
-                return list -> {
-                    var output = Stream.<O>builder();
-                    for (int i = 0; i < list.size() - 1; i++) {
-                        output.add(op.apply(list.get(i), list.get(i + 1)));
-                    }
-                    return output.build().collect(collector);
-                };
+            public Function<ScanState<T, A>, R> finisher() {
+                return state -> downstreamFinisher.apply(state.container);
             }
 
             @Override
@@ -49,4 +68,14 @@ public class Collectors {
             }
         };
     }
+
+    /// Accumulation state of [#scan] for one segment of the stream
+    private static final class ScanState<T, A> {
+        private A       container;
+        private T       first;
+        private T       last;
+        private boolean isEmpty = true;
+
+        private ScanState(A container) { this.container = container; }
+    }
 }
@@ -0,0 +1,194 @@
+package com.dici.collection;
+
+import static com.dici.check.Check.notNull;
+import static com.dici.exceptions.UnknownEnumValueException.unknownEnumValue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import com.dici.check.Check;
+import com.dici.collection.BoundedBuffer.SizeExceededException;
+import com.dici.collection.BoundedBuffer.SizeExceededPolicy;
+
+/// Lock-free bounded queue meant as a hand-off between threads, holding at most `maxSize` non-null elements. As with [BoundedBuffer], the
+/// non-blocking insertions ([#offer(Object)] and [#add(Object)]) apply a [SizeExceededPolicy] when the queue is full, while [#put(Object)] and
+/// [#take()] wait for space or for an element. Waiting threads spin and yield for a short while, then block on a condition. The lock is only
+/// taken by blocked threads and by the threads waking them up, so that a busy queue never needs a lock or a signal while an idle one does not
+/// burn a core.
+///
+/// The producer and consumer positions are stored in a `long[]` [#counters], 128 bytes apart from each other and from the array boundaries, so
+/// that producers and consumers do not invalidate each other's cache lines (false sharing). Implementations store the values only read or
+/// written by one side next to that side's position.
+///
+/// @param <T> type of the data
+/// @see SpscBoundedQueue
+/// @see MpmcBoundedQueue
+public abstract class ConcurrentBoundedQueue<T> {
+    static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /// Number of longs between two padded counters, i.e. 128 bytes, which covers the pair of cache lines fetched together by x86 CPUs
+    private static final int PAD = 16;
+
+    static final int PRODUCER = PAD;
+    static final int CONSUMER = 2 * PAD;
+
+    /// Number of threads blocked in [#put] (resp. [#take]) or their timed equivalents. They are only written when a thread starts or stops
+    /// waiting, so they share a cache line which is otherwise only read.
+    private static final int WAITING_PRODUCERS = 3 * PAD;
+    private static final int WAITING_CONSUMERS = 3 * PAD + 1;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /// Spinning can only help if the thread we are waiting for is running at the same time
+    private static final int SPINS  = Runtime.getRuntime().availableProcessors() > 1 ? 100 : 0;
+    private static final int YIELDS = 10;
+
+    private final int                maxSize;
+    private final SizeExceededPolicy sizeExceededPolicy;
+
+    final Object[] elements;
+    final int      mask;
+    final long[]   counters = new long[4 * PAD];
+
+    private final ReentrantLock lock     = new ReentrantLock();
+    private final Condition     notEmpty = lock.newCondition();
+    private final Condition     notFull  = lock.newCondition();
+
+    protected ConcurrentBoundedQueue(int maxSize, SizeExceededPolicy sizeExceededPolicy) {
+        Check.isBetween(1, maxSize, MAX_CAPACITY + 1);
+        this.maxSize            = maxSize;
+        this.sizeExceededPolicy = notNull(sizeExceededPolicy);
+        this.elements           = new Object[capacity(maxSize)];
+        this.mask               = elements.length - 1;
+    }
+
+    /// @return the smallest power of two greater or equal to `maxSize`, so that positions can be mapped to indices with a mask. It is at least 2
+    ///         because a single slot cannot tell whether it was written in the current lap or in the previous one in [MpmcBoundedQueue].
+    static int capacity(int maxSize) { return maxSize <= 2 ? 2 : Integer.highestOneBit(maxSize - 1) << 1; }
+
+    /// Inserts the element if the queue is not full
+    /// @return false if it failed
+    protected abstract boolean tryOffer(T t);
+
+    /// @return the head of the queue, or null if the queue is empty
+    protected abstract T tryPoll();
+
+    public final int maxSize() { return maxSize; }
+
+    /// @return an estimate of the number of elements in the queue, which may already be stale if other threads are using it
+    public final int size() {
+        long consumer = (long) LONGS.getVolatile(counters, CONSUMER);
+        long producer = (long) LONGS.getVolatile(counters, PRODUCER);
+        return (int) Math.max(0, Math.min(maxSize, producer - consumer));
+    }
+
+    public final boolean isEmpty() { return size() == 0      ; }
+    public final boolean isFull () { return size() == maxSize; }
+
+    /// @return false if the queue is full and the policy is [SizeExceededPolicy#IGNORE]
+    /// @throws SizeExceededException if the queue is full and the policy is [SizeExceededPolicy#ERROR]
+    public final boolean offer(T t) {
+        notNull(t);
+        if (tryOffer(t)) {
+            signal(WAITING_CONSUMERS, notEmpty);
+            return true;
+        }
+        switch (sizeExceededPolicy) {
+            case IGNORE: return false;
+            case ERROR : throw new SizeExceededException();
+            default    : throw unknownEnumValue(SizeExceededPolicy.class, sizeExceededPolicy);
+        }
+    }
+
+    public final boolean add(T t) { return offer(t); }
+
+    /// Inserts the element, waiting for space to become available if necessary
+    public final void put(T t) throws InterruptedException { offer(t, Long.MAX_VALUE, TimeUnit.NANOSECONDS); }
+
+    /// Inserts the element, waiting up to the given time for space to become available if necessary
+    /// @return false if the timeout elapsed before space was available
+    public final boolean offer(T t, long timeout, TimeUnit unit) throws InterruptedException {
+        notNull(t);
+        boolean offered = tryOffer(t);
+        for (int attempt = 0; !offered && attempt < SPINS + YIELDS; attempt++) {
+            backOff(attempt);
+            offered = tryOffer(t);
+        }
+        if (!offered && !await(() -> tryOffer(t) ? t : null, WAITING_PRODUCERS, notFull, unit.toNanos(timeout))) return false;
+
+        signal(WAITING_CONSUMERS, notEmpty);
+        return true;
+    }
+
+    /// @return the head of the queue, or null if the queue is empty
+    public final T poll() {
+        T t = tryPoll();
+        if (t != null) signal(WAITING_PRODUCERS, notFull);
+        return t;
+    }
+
+    /// Retrieves and removes the head of the queue, waiting for an element to become available if necessary
+    public final T take() throws InterruptedException { return poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS); }
+
+    /// Retrieves and removes the head of the queue, waiting up to the given time for an element to become available if necessary
+    /// @return the head of the queue, or null if the timeout elapsed before an element was available
+    @SuppressWarnings("unchecked")
+    public final T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        T t = tryPoll();
+        for (int attempt = 0; t == null && attempt < SPINS + YIELDS; attempt++) {
+            backOff(attempt);
+            t = tryPoll();
+        }
+        if (t == null) {
+            Object[] polled = new Object[1];
+            if (!await(() -> polled[0] = tryPoll(), WAITING_CONSUMERS, notEmpty, unit.toNanos(timeout))) return null;
+            t = (T) polled[0];
+        }
+
+        signal(WAITING_PRODUCERS, notFull);
+        return t;
+    }
+
+    private static void backOff(int attempt) {
+        if (attempt < SPINS) Thread.onSpinWait();
+        else                 Thread.yield();
+    }
+
+    /// Waits on the given condition until the attempt succeeds (i.e. returns a non-null value). The waiting thread is counted in
+    /// `counters[waiters]` before trying again, so that a thread which makes the attempt possible either sees it and signals the condition, or
+    /// made the attempt possible before the last try.
+    /// @return false if the timeout elapsed
+    private boolean await(Supplier<Object> attempt, int waiters, Condition condition, long nanos) throws InterruptedException {
+        lock.lockInterruptibly();
+        LONGS.getAndAdd(counters, waiters, 1L);
+        try {
+            while (attempt.get() == null) {
+                if (nanos == Long.MAX_VALUE) condition.await();
+                else if (nanos <= 0) return false;
+                else nanos = condition.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            LONGS.getAndAdd(counters, waiters, -1L);
+            lock.unlock();
+        }
+    }
+
+    /// Wakes up the threads waiting on the given condition, if any. The full fence orders the operation which just succeeded with the read of the
+    /// number of waiters, which is what guarantees that no wake-up is missed (see [#await]).
+    private void signal(int waiters, Condition condition) {
+        VarHandle.fullFence();
+        if ((long) LONGS.getOpaque(counters, waiters) == 0) return;
+
+        lock.lock();
+        try {
+            condition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -99,9 +99,7 @@ public class DoublyLinkedList<T> implements List<T> {
             this.index   = index;
             this.current = list.closestEnd(index);
             Way way = this.current == list.first ? Way.FORWARD : Way.BACKWARD;
-            System.err.println(way + " " + list.closestIndex(index));
             for (int i = list.closestIndex(index); i > 0; i--) current = next(way);
-            System.err.println("------------------- end " + current + "-----------------------------");
         }
         
         @Override
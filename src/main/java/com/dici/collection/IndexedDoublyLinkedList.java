@@ -0,0 +1,290 @@
+package com.dici.collection;
+
+import static com.dici.check.Check.notNull;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.dici.collection.DoublyLinkedList.ListNode;
+
+/// A list of [ListNode]s, like [DoublyLinkedList], indexed by a skip list so that [#get], [#set], [#add(int, Object)] and [#remove(int)] take
+/// O(log n) expected time instead of walking the list from its closest end. Iterating, or inserting and removing through a [Cursor], costs the
+/// same as with a plain linked list, plus O(log n) per modification to keep the index up to date.
+///
+/// Each level of the index is a singly linked list of entries which skip on average 4 times more elements than the entries of the level below,
+/// and which record how many elements they skip. The bottom level points to one element out of 4, and positional accesses end with a walk of a
+/// few nodes in the list itself.
+///
+/// The nodes are exposed by [#getNode], [#firstNode()], [#lastNode()] and [Cursor#currentNode()], and their data can be freely updated.
+/// Their links however must not be modified, since the index would not know about it.
+/// @param <T> type of the data
+public class IndexedDoublyLinkedList<T> extends AbstractList<T> {
+    private static final int MAX_LEVELS = 16;
+
+    private static final class Index<T> {
+        /// Null for the entries on the left of the list, which point before the first element
+        final ListNode<T> node;
+        final Index<T>    down;
+        Index<T>          right;
+        /// Distance between the element of this entry and the element of the right one, or the end of the list if there is none
+        int               width;
+
+        Index(ListNode<T> node, Index<T> down, int width) {
+            this.node  = node;
+            this.down  = down;
+            this.width = width;
+        }
+    }
+
+    private Index<T>    head;
+    private int         levels;
+    private ListNode<T> first;
+    private ListNode<T> last;
+    private int         size;
+
+    /// Last entry before the position being modified on each level, and the position of its element. Reused by all modifications.
+    @SuppressWarnings("unchecked")
+    private final Index<T>[] path          = (Index<T>[]) new Index<?>[MAX_LEVELS];
+    private final int[]      pathPositions = new int[MAX_LEVELS];
+
+    public IndexedDoublyLinkedList() { reset(); }
+
+    public IndexedDoublyLinkedList(Collection<? extends T> collection) {
+        this();
+        addAll(notNull(collection));
+    }
+
+    public ListNode<T> firstNode() { return first; }
+    public ListNode<T> lastNode () { return last ; }
+
+    public ListNode<T> getNode(int index) {
+        checkIndex(index, size);
+        return nodeAt(index);
+    }
+
+    @Override public int size(        ) { return size               ; }
+    @Override public T   get(int index) { return getNode(index).data; }
+
+    @Override
+    public T set(int index, T t) {
+        ListNode<T> node = getNode(index);
+        T previous = node.data;
+        node.data = t;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, T t) {
+        checkIndex(index, size + 1);
+        int height = randomHeight();
+        for (; levels < height; levels++) head = new Index<>(null, head, size + 1);
+        findPath(index);
+
+        ListNode<T> prev = index == 0 ? null : walk(path[0], pathPositions[0], index - 1);
+        ListNode<T> next = prev == null ? first : prev.next;
+        ListNode<T> node = new ListNode<>(t, prev, next);
+        if (prev == null) first = node;
+        if (next == null) last  = node;
+
+        Index<T> down = null;
+        for (int level = 0; level < levels; level++) {
+            Index<T> pred = path[level];
+            if (level < height) {
+                Index<T> entry = new Index<>(node, down, pathPositions[level] + pred.width + 1 - index);
+                entry.right = pred.right;
+                pred.right  = entry;
+                pred.width  = index - pathPositions[level];
+                down        = entry;
+            } else {
+                pred.width++;
+            }
+        }
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public T remove(int index) {
+        checkIndex(index, size);
+        findPath(index);
+
+        ListNode<T> node = walk(path[0], pathPositions[0], index);
+        for (int level = 0; level < levels; level++) {
+            Index<T> pred = path[level];
+            if (pred.right != null && pred.right.node == node) {
+                pred.width += pred.right.width - 1;
+                pred.right  = pred.right.right;
+            } else {
+                pred.width--;
+            }
+        }
+        for (; levels > 1 && head.right == null; levels--) head = head.down;
+
+        if (node.prev == null) first = node.next; else node.prev.next = node.next;
+        if (node.next == null) last  = node.prev; else node.next.prev = node.prev;
+        node.prev = node.next = null;
+        size--;
+        modCount++;
+        return node.data;
+    }
+
+    @Override
+    public void clear() {
+        reset();
+        modCount++;
+    }
+
+    // not overridable, unlike clear(), so that the constructor can call it
+    private void reset() {
+        head   = new Index<>(null, null, 1);
+        levels = 1;
+        first  = last = null;
+        size   = 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        int index = 0;
+        for (ListNode<T> node = first; node != null; node = node.next, index++)
+            if (Objects.equals(o, node.data)) return index;
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        int index = size - 1;
+        for (ListNode<T> node = last; node != null; node = node.prev, index--)
+            if (Objects.equals(o, node.data)) return index;
+        return -1;
+    }
+
+    @Override public Cursor<T> iterator    (         ) { return listIterator(0)        ; }
+    @Override public Cursor<T> listIterator(         ) { return listIterator(0)        ; }
+    @Override public Cursor<T> listIterator(int index) { return new Cursor<>(this, index); }
+
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) throw new IndexOutOfBoundsException("Index out of bounds: " + index + " (bound = " + bound + ")");
+    }
+
+    /// @return a height for the index of a new element, i.e. the number of levels pointing to it, which is at least k with probability 4^-k
+    private static int randomHeight() {
+        return Math.min(MAX_LEVELS, Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt()) / 2);
+    }
+
+    private ListNode<T> nodeAt(int index) {
+        Index<T> entry = head;
+        int      pos   = -1;
+        for (;;) {
+            while (entry.right != null && pos + entry.width <= index) {
+                pos  += entry.width;
+                entry = entry.right;
+            }
+            if (entry.down == null) return walk(entry, pos, index);
+            entry = entry.down;
+        }
+    }
+
+    /// Stores in [#path] the last entry of each level whose element is strictly before `index`
+    private void findPath(int index) {
+        Index<T> entry = head;
+        int      pos   = -1;
+        for (int level = levels - 1; ; level--) {
+            while (entry.right != null && pos + entry.width < index) {
+                pos  += entry.width;
+                entry = entry.right;
+            }
+            path         [level] = entry;
+            pathPositions[level] = pos;
+            if (level == 0) return;
+            entry = entry.down;
+        }
+    }
+
+    /// @return the node at `index`, starting from the element of a bottom-level entry located at `pos`
+    private ListNode<T> walk(Index<T> entry, int pos, int index) {
+        ListNode<T> node = entry.node == null ? first : entry.node;
+        for (int i = Math.max(pos, 0); i < index; i++) node = node.next;
+        return node;
+    }
+
+    /// A [ListIterator] which exposes the node it is positioned on. Removing or adding elements through the cursor is O(log n), and it fails
+    /// fast if the list is modified by any other means.
+    public static final class Cursor<T> implements ListIterator<T> {
+        private final IndexedDoublyLinkedList<T> list;
+
+        private ListNode<T> next;
+        private ListNode<T> lastReturned;
+        private int         nextIndex;
+        private int         expectedModCount;
+
+        private Cursor(IndexedDoublyLinkedList<T> list, int index) {
+            checkIndex(index, list.size + 1);
+            this.list             = list;
+            this.next             = index == list.size ? null : list.nodeAt(index);
+            this.nextIndex        = index;
+            this.expectedModCount = list.modCount;
+        }
+
+        /// @return the node of the element which would be returned by [#next()], or null if the cursor is at the end of the list
+        public ListNode<T> currentNode() { return next; }
+
+        @Override public boolean hasNext      () { return nextIndex < list.size; }
+        @Override public boolean hasPrevious  () { return nextIndex > 0        ; }
+        @Override public int     nextIndex    () { return nextIndex            ; }
+        @Override public int     previousIndex() { return nextIndex - 1        ; }
+
+        @Override
+        public T next() {
+            checkForComodification();
+            if (!hasNext()) throw new NoSuchElementException();
+            lastReturned = next;
+            next         = next.next;
+            nextIndex++;
+            return lastReturned.data;
+        }
+
+        @Override
+        public T previous() {
+            checkForComodification();
+            if (!hasPrevious()) throw new NoSuchElementException();
+            lastReturned = next = next == null ? list.last : next.prev;
+            nextIndex--;
+            return lastReturned.data;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) throw new IllegalStateException();
+            checkForComodification();
+            if (lastReturned == next) next = next.next;
+            else                      nextIndex--;
+            list.remove(nextIndex);
+            lastReturned     = null;
+            expectedModCount = list.modCount;
+        }
+
+        @Override
+        public void set(T t) {
+            if (lastReturned == null) throw new IllegalStateException();
+            checkForComodification();
+            lastReturned.data = t;
+        }
+
+        @Override
+        public void add(T t) {
+            checkForComodification();
+            list.add(nextIndex++, t);
+            lastReturned     = null;
+            expectedModCount = list.modCount;
+        }
+
+        private void checkForComodification() {
+            if (list.modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.dici.collection;
+
+import com.dici.collection.BoundedBuffer.SizeExceededPolicy;
+
+/// [ConcurrentBoundedQueue] for any number of producer and consumer threads, based on Dmitry Vyukov's bounded MPMC queue. Each slot of the array
+/// has a sequence number telling whether it is ready to be written at a given position (`sequence == position`) or read (`sequence ==
+/// position + 1`). Producers and consumers claim a position with a CAS on their own padded counter, then publish the slot by updating its
+/// sequence, so that they only contend with threads on the same side and never wait for each other unless the queue is full or empty.
+///
+/// A consumer may see the queue as empty while a producer has claimed a position but not published its element yet, in which case [#poll()]
+/// returns null. [#take()] simply tries again.
+///
+/// @param <T> type of the data
+public class MpmcBoundedQueue<T> extends ConcurrentBoundedQueue<T> {
+    private static final int ENQUEUE_POSITION = PRODUCER;
+    private static final int DEQUEUE_POSITION = CONSUMER;
+
+    private final long[] sequences;
+
+    public MpmcBoundedQueue(int maxSize, SizeExceededPolicy sizeExceededPolicy) {
+        super(maxSize, sizeExceededPolicy);
+        this.sequences = new long[elements.length];
+        for (int i = 0; i < sequences.length; i++) sequences[i] = i;
+    }
+
+    @Override
+    protected boolean tryOffer(T t) {
+        long position = (long) LONGS.getVolatile(counters, ENQUEUE_POSITION);
+        while (true) {
+            int  index = (int) position & mask;
+            long diff  = (long) LONGS.getAcquire(sequences, index) - position;
+            if (diff < 0) return false;
+            if (diff > 0) {
+                // another producer claimed this position in the meantime
+                position = (long) LONGS.getVolatile(counters, ENQUEUE_POSITION);
+                continue;
+            }
+            // the array is rounded up to a power of two, so the slot can be free while the queue already holds maxSize elements
+            if (elements.length != maxSize() && position - (long) LONGS.getVolatile(counters, DEQUEUE_POSITION) >= maxSize()) return false;
+
+            long witness = (long) LONGS.compareAndExchange(counters, ENQUEUE_POSITION, position, position + 1);
+            if (witness == position) {
+                elements[index] = t;
+                LONGS.setRelease(sequences, index, position + 1);
+                return true;
+            }
+            position = witness;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected T tryPoll() {
+        long position = (long) LONGS.getVolatile(counters, DEQUEUE_POSITION);
+        while (true) {
+            int  index = (int) position & mask;
+            long diff  = (long) LONGS.getAcquire(sequences, index) - (position + 1);
+            if (diff < 0) return null;
+            if (diff > 0) {
+                // another consumer claimed this position in the meantime
+                position = (long) LONGS.getVolatile(counters, DEQUEUE_POSITION);
+                continue;
+            }
+
+            long witness = (long) LONGS.compareAndExchange(counters, DEQUEUE_POSITION, position, position + 1);
+            if (witness == position) {
+                T t = (T) elements[index];
+                elements[index] = null;
+                // the slot will be written again at the same index one lap later
+                LONGS.setRelease(sequences, index, position + elements.length);
+                return t;
+            }
+            position = witness;
+        }
+    }
+}
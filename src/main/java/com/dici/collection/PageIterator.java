@@ -8,7 +8,8 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
-/// An [Iterator] which iterates through pages of content based on an generic context of continuation token
+/// An [Iterator] which iterates through pages of content based on an generic context of continuation token. Pages are fetched synchronously when
+/// the previous one is exhausted, see [PrefetchingPageIterator] to fetch them in the background.
 @RequiredArgsConstructor
 public class PageIterator<T, TOKEN> implements Iterator<T> {
     private final PageFetcher<T, TOKEN> pageFetcher;
@@ -43,9 +44,9 @@ public class PageIterator<T, TOKEN> implements Iterator<T> {
         return items.next();
     }
 
-    interface PageFetcher<T, TOKEN> {
+    public interface PageFetcher<T, TOKEN> {
         Page<T, TOKEN> fetchPage(Optional<TOKEN> token);
     }
 
-    record Page<T, TOKEN>(Iterator<T> items, Optional<TOKEN> continuationToken) {}
+    public record Page<T, TOKEN>(Iterator<T> items, Optional<TOKEN> continuationToken) {}
 }
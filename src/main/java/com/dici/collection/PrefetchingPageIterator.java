@@ -0,0 +1,123 @@
+package com.dici.collection;
+
+import static com.dici.check.Check.notNull;
+import static com.dici.exceptions.ExceptionUtils.toRuntimeException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.dici.check.Check;
+import com.dici.collection.PageIterator.Page;
+import com.dici.collection.PageIterator.PageFetcher;
+
+/// A variant of [PageIterator] which fetches the pages in the background, so that the round trip for the next page overlaps with the consumption
+/// of the current one. Each chain of continuation tokens is followed by its own virtual thread, which fetches up to `prefetchDepth` pages ahead
+/// of the consumer and then blocks until the consumer catches up.
+///
+/// [#ofPartitions] follows several independent chains concurrently (for example one per S3 prefix) and merges their pages in the order in which
+/// they are fetched. The elements of a given chain are still returned in order, but the chains are interleaved page by page.
+///
+/// The threads are started as soon as the iterator is created. Exceptions thrown by a [PageFetcher] are rethrown to the consumer when it reaches
+/// them, and stop all the chains. [#close()] stops the fetching threads if the iterator is not consumed until the end, and so does interrupting the
+/// consumer while it waits for a page.
+public final class PrefetchingPageIterator<T, TOKEN> implements Iterator<T>, AutoCloseable {
+    public static <T, TOKEN> PrefetchingPageIterator<T, TOKEN> of(PageFetcher<T, TOKEN> pageFetcher, Optional<TOKEN> tokenSeed, int prefetchDepth) {
+        return new PrefetchingPageIterator<>(List.of(notNull(pageFetcher)), notNull(tokenSeed), prefetchDepth);
+    }
+
+    /// @param partitions the fetchers of each independent chain, which all start without a continuation token
+    /// @param prefetchDepth number of pages buffered per partition. The pages are buffered in a queue shared by all partitions, so that a fast
+    ///                      partition may use the capacity left by slower ones.
+    public static <T, TOKEN> PrefetchingPageIterator<T, TOKEN> ofPartitions(List<? extends PageFetcher<T, TOKEN>> partitions, int prefetchDepth) {
+        Check.notEmpty(partitions);
+        return new PrefetchingPageIterator<>(partitions, Optional.empty(), prefetchDepth);
+    }
+
+    private final BlockingQueue<Object> pages;
+    private final List<Thread>          producers;
+
+    private Iterator<T> items = Collections.emptyIterator();
+    private int         remainingChains;
+
+    private PrefetchingPageIterator(List<? extends PageFetcher<T, TOKEN>> partitions, Optional<TOKEN> tokenSeed, int prefetchDepth) {
+        Check.isPositive(prefetchDepth);
+        this.pages           = new ArrayBlockingQueue<>(Math.multiplyExact(prefetchDepth, partitions.size()));
+        this.producers       = new ArrayList<>(partitions.size());
+        this.remainingChains = partitions.size();
+        for (PageFetcher<T, TOKEN> pageFetcher : partitions) {
+            notNull(pageFetcher);
+            producers.add(Thread.ofVirtual().name("page-iterator-prefetch").start(() -> fetchChain(pageFetcher, tokenSeed)));
+        }
+    }
+
+    private void fetchChain(PageFetcher<T, TOKEN> pageFetcher, Optional<TOKEN> token) {
+        try {
+            do {
+                Page<T, TOKEN> page = pageFetcher.fetchPage(token);
+                pages.put(page);
+                token = page.continuationToken();
+            } while (token.isPresent());
+        } catch (InterruptedException e) {
+            // cancelled by close(), nobody is consuming the queue anymore
+        } catch (Throwable t) {
+            try {
+                pages.put(new Failure(t));
+            } catch (InterruptedException e) {
+                // same as above
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean hasNext() {
+        // Some AWS APIs return empty pages with a continuation token, so we keep polling until either all the chains are over or a page is not
+        // empty
+        while (!items.hasNext() && remainingChains > 0) {
+            Object polled = take();
+            if (polled instanceof Failure failure) {
+                close();
+                if (failure.cause instanceof Error e) throw e;
+                throw toRuntimeException(failure.cause);
+            }
+
+            Page<T, TOKEN> page = (Page<T, TOKEN>) polled;
+            items = page.items();
+            if (page.continuationToken().isEmpty()) remainingChains--;
+        }
+        return items.hasNext();
+    }
+
+    private Object take() {
+        try {
+            return pages.take();
+        } catch (InterruptedException e) {
+            close();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the next page", e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return items.next();
+    }
+
+    /// Stops the threads which are still fetching pages and ends the iteration
+    @Override
+    public void close() {
+        producers.forEach(Thread::interrupt);
+        pages.clear();
+        items           = Collections.emptyIterator();
+        remainingChains = 0;
+    }
+
+    private record Failure(Throwable cause) { }
+}
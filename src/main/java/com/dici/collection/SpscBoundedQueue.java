@@ -0,0 +1,44 @@
+package com.dici.collection;
+
+import com.dici.collection.BoundedBuffer.SizeExceededPolicy;
+
+/// [ConcurrentBoundedQueue] for exactly one producer thread and one consumer thread, which may be different threads at different times as long
+/// as the hand-over between them is properly synchronized. Each side owns its position and only publishes it with a release write, and keeps a
+/// cached copy of the other side's position so that it only reads the other side's cache line when the queue looks full (resp. empty).
+///
+/// @param <T> type of the data
+public class SpscBoundedQueue<T> extends ConcurrentBoundedQueue<T> {
+    private static final int TAIL       = PRODUCER;
+    private static final int HEAD_CACHE = PRODUCER + 1;
+    private static final int HEAD       = CONSUMER;
+    private static final int TAIL_CACHE = CONSUMER + 1;
+
+    public SpscBoundedQueue(int maxSize, SizeExceededPolicy sizeExceededPolicy) { super(maxSize, sizeExceededPolicy); }
+
+    @Override
+    protected boolean tryOffer(T t) {
+        long tail = counters[TAIL];
+        if (tail - counters[HEAD_CACHE] >= maxSize()) {
+            counters[HEAD_CACHE] = (long) LONGS.getAcquire(counters, HEAD);
+            if (tail - counters[HEAD_CACHE] >= maxSize()) return false;
+        }
+        elements[(int) tail & mask] = t;
+        LONGS.setRelease(counters, TAIL, tail + 1);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected T tryPoll() {
+        long head = counters[HEAD];
+        if (head >= counters[TAIL_CACHE]) {
+            counters[TAIL_CACHE] = (long) LONGS.getAcquire(counters, TAIL);
+            if (head >= counters[TAIL_CACHE]) return null;
+        }
+        int index = (int) head & mask;
+        T   t     = (T) elements[index];
+        elements[index] = null;
+        LONGS.setRelease(counters, HEAD, head + 1);
+        return t;
+    }
+}
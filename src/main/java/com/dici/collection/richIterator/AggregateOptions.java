@@ -0,0 +1,33 @@
+package com.dici.collection.richIterator;
+
+import static com.dici.check.Check.notNull;
+
+import java.io.File;
+
+import com.dici.check.Check;
+import com.dici.io.RecordCodec;
+
+import lombok.Builder;
+import lombok.Value;
+
+/// Configuration of [PairRichIterator#aggregateByKey(java.util.function.Supplier, com.dici.exceptions.ExceptionUtils.ThrowingBiFunction,
+/// com.dici.exceptions.ExceptionUtils.ThrowingBinaryOperator, AggregateOptions)]. When more than `maxKeysInMemory` keys are being aggregated,
+/// the partial aggregates are spilled to hash partitions on disk with the given codecs, and combined partition by partition at the end.
+@Value
+public class AggregateOptions<K, A> {
+    public static final int DEFAULT_MAX_KEYS_IN_MEMORY = 1_000_000;
+
+    RecordCodec<K> keyCodec;
+    RecordCodec<A> aggregateCodec;
+    int            maxKeysInMemory;
+    /// Null to use the default temporary directory
+    File           tempDirectory;
+
+    @Builder(toBuilder = true)
+    private AggregateOptions(RecordCodec<K> keyCodec, RecordCodec<A> aggregateCodec, Integer maxKeysInMemory, File tempDirectory) {
+        this.keyCodec        = notNull(keyCodec);
+        this.aggregateCodec  = notNull(aggregateCodec);
+        this.maxKeysInMemory = maxKeysInMemory == null ? DEFAULT_MAX_KEYS_IN_MEMORY : Check.isPositive(maxKeysInMemory);
+        this.tempDirectory   = tempDirectory;
+    }
+}
@@ -0,0 +1,175 @@
+package com.dici.collection.richIterator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import com.dici.exceptions.ExceptionUtils.ThrowingBiFunction;
+import com.dici.exceptions.ExceptionUtils.ThrowingBinaryOperator;
+import com.dici.exceptions.ExceptionUtils.ThrowingFunction;
+import com.dici.io.IOUtils;
+
+import javafx.util.Pair;
+
+/// Hash aggregation behind [PairRichIterator#aggregateByKey]. The upstream iterator is consumed on the first call to [#hasNext()], and each value
+/// is folded into the aggregate of its key. When the number of keys in memory exceeds the budget (if any), all the partial aggregates are written
+/// to hash partitions on disk and the map is cleared. The partitions are then aggregated one at a time by the same algorithm, combining the
+/// partial aggregates of each key, with a different hash so that a partition which still has too many keys is split further.
+final class AggregatedRichIterator<K, V, A> extends ClassicRichIteratorDecorator<Pair<K, V>, Pair<K, A>> {
+    private static final int PARTITIONS     = 16;
+    /// Beyond that, the partitions are aggregated in memory, e.g. if a lot of distinct keys have the same hash code
+    private static final int MAX_LEVEL      = 6;
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    /// Aggregate of the first value of a key
+    private final ThrowingFunction<V, A>      first;
+    private final ThrowingBiFunction<A, V, A> fold;
+    private final ThrowingBinaryOperator<A>   combOp;
+    /// Null if the aggregation should never spill
+    private final AggregateOptions<K, A>      options;
+    private final int                         level;
+
+    private Iterator<Map.Entry<K, A>>  entries;
+    private File[]                     files;
+    private long[]                     sizes;
+    private int                        partition = -1;
+    private RichIterator<Pair<K, A>>   current;
+
+    AggregatedRichIterator(RichIterator<Pair<K, V>> it, Supplier<A> zero, ThrowingBiFunction<A, V, A> seqOp, ThrowingBinaryOperator<A> combOp,
+            AggregateOptions<K, A> options) {
+        this(it, v -> seqOp.apply(zero.get(), v), seqOp, combOp, options, 0);
+    }
+
+    private AggregatedRichIterator(RichIterator<Pair<K, V>> it, ThrowingFunction<V, A> first, ThrowingBiFunction<A, V, A> fold,
+            ThrowingBinaryOperator<A> combOp, AggregateOptions<K, A> options, int level) {
+        super(it);
+        this.first   = first;
+        this.fold    = fold;
+        this.combOp  = combOp;
+        this.options = options;
+        this.level   = level;
+    }
+
+    @Override
+    protected boolean hasNextInternal() throws Exception {
+        if (entries == null) aggregate();
+        if (entries.hasNext()) return true;
+        if (files   == null  ) return false;
+
+        while (current == null || !current.hasNext()) {
+            if (current != null) current.releaseResources();
+            if (++partition == PARTITIONS) return false;
+            current = new AggregatedRichIterator<>(readPartition(partition), ThrowingFunction.identity(), combOp, combOp, options, level + 1);
+        }
+        return true;
+    }
+
+    @Override
+    protected Pair<K, A> nextInternal() {
+        if (!entries.hasNext()) return current.next();
+        Map.Entry<K, A> entry = entries.next();
+        return new Pair<>(entry.getKey(), entry.getValue());
+    }
+
+    private void aggregate() throws Exception {
+        long      maxKeys    = options == null || level >= MAX_LEVEL ? Long.MAX_VALUE : options.getMaxKeysInMemory();
+        Map<K, A> aggregates = new HashMap<>();
+        while (it.hasNext()) {
+            Pair<K, V> pair      = it.next();
+            A          aggregate = aggregates.get(pair.getKey());
+            aggregates.put(pair.getKey(), aggregate == null ? first.apply(pair.getValue()) : fold.apply(aggregate, pair.getValue()));
+
+            if (aggregates.size() > maxKeys) spill(aggregates);
+        }
+
+        if (files != null) {
+            spill(aggregates);
+            // the partitions are aggregated by child iterators, which have the whole budget for themselves
+            entries = Collections.emptyIterator();
+        } else {
+            entries = aggregates.entrySet().iterator();
+        }
+    }
+
+    private void spill(Map<K, A> aggregates) throws IOException {
+        if (files == null) {
+            files = new File[PARTITIONS];
+            sizes = new long[PARTITIONS];
+        }
+
+        DataOutputStream[] writers = new DataOutputStream[PARTITIONS];
+        try {
+            for (Map.Entry<K, A> entry : aggregates.entrySet()) {
+                int p = partitionOf(entry.getKey());
+                if (writers[p] == null) {
+                    if (files[p] == null) files[p] = File.createTempFile("aggregate-partition", ".bin", options.getTempDirectory());
+                    writers[p] = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(files[p], true), IO_BUFFER_SIZE));
+                }
+                options.getKeyCodec().write(entry.getKey(), writers[p]);
+                options.getAggregateCodec().write(entry.getValue(), writers[p]);
+                sizes[p]++;
+            }
+        } finally {
+            for (DataOutputStream writer : writers) IOUtils.closeQuietly(writer);
+        }
+        aggregates.clear();
+    }
+
+    private int partitionOf(K key) {
+        int h = (Objects.hashCode(key) ^ (level * 0x9E3779B9)) * 0x85EBCA6B;
+        return (h ^ (h >>> 15)) & (PARTITIONS - 1);
+    }
+
+    /// Streams the partial aggregates of a partition, whose file is deleted once it has been read
+    private RichIterator<Pair<K, A>> readPartition(int p) throws IOException {
+        if (files[p] == null) return RichIterators.emptyIterator();
+
+        File            file = files[p];
+        DataInputStream in   = new DataInputStream(new BufferedInputStream(new FileInputStream(file), IO_BUFFER_SIZE));
+        files[p] = null;
+        return new RichIterator<>() {
+            private long remaining = sizes[p];
+
+            @Override protected boolean hasNextInternal() { return remaining > 0; }
+
+            @Override
+            protected Pair<K, A> nextInternal() throws IOException {
+                remaining--;
+                K key = options.getKeyCodec().read(in);
+                return new Pair<>(key, options.getAggregateCodec().read(in));
+            }
+
+            @Override
+            protected void closeInternal() throws IOException {
+                in.close();
+                IOUtils.deleteQuietly(file);
+            }
+        };
+    }
+
+    @Override
+    protected void closeInternal() throws IOException {
+        try {
+            if (current != null) current.releaseResources();
+            if (files != null) {
+                for (File file : files) {
+                    if (file != null) IOUtils.deleteQuietly(file);
+                }
+            }
+            entries = Collections.emptyIterator();
+        } finally {
+            super.closeInternal();
+        }
+    }
+}
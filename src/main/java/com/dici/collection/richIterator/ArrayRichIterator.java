@@ -14,6 +14,20 @@ class ArrayRichIterator<T> extends RichIterator<T> {
 	@Override
 	protected T nextInternal() { return arr[i++]; }
 	
+	@Override
+	protected int nextBatchInternal(Object[] dest, int offset, int length) {
+		int n = Math.min(length, arr.length - i);
+		System.arraycopy(arr, i, dest, offset, n);
+		i += n;
+		return n;
+	}
+	
+	@Override
+	boolean readsInBatches() { return true; }
+	
+	@Override
+	long exactSizeIfKnown() { return arr == null ? 0 : arr.length - i; }
+	
 	@Override
 	protected void closeInternal() { arr = null; }
 }
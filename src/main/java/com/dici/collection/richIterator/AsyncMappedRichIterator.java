@@ -0,0 +1,83 @@
+package com.dici.collection.richIterator;
+
+import static com.dici.check.Check.notNull;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.dici.check.Check;
+import com.dici.exceptions.ExceptionUtils.ThrowingFunction;
+
+/// Stage returned by [RichIterator#mapAsync(int, ThrowingFunction)] and [RichIterator#mapAsyncUnordered(int, ThrowingFunction)]. Each element is
+/// mapped on its own virtual thread, with at most `concurrency` elements being mapped or waiting to be consumed at any time, so that a slow
+/// consumer applies backpressure on the upstream iterator. The upstream iterator is only read from the consumer's thread.
+///
+/// An exception thrown by the mapping function is rethrown to the consumer when it reaches the corresponding element, exactly like with
+/// [RichIterator#map(ThrowingFunction)]. Closing this iterator cancels the calls still in flight.
+final class AsyncMappedRichIterator<X, Y> extends ClassicRichIteratorDecorator<X, Y> {
+    private final ThrowingFunction<X, Y> mapper;
+    private final int                    concurrency;
+    private final boolean                ordered;
+    /// Calls in flight or completed but not consumed yet, in input order
+    private final Deque<Future<Y>>       pending = new ArrayDeque<>();
+
+    private ExecutorService      executor;
+    /// Only used in unordered mode, since the completed futures are retained by the completion service until they are taken from it
+    private CompletionService<Y> completed;
+
+    AsyncMappedRichIterator(RichIterator<X> it, int concurrency, ThrowingFunction<X, Y> mapper, boolean ordered) {
+        super(it);
+        this.concurrency = Check.isPositive(concurrency);
+        this.mapper      = notNull(mapper);
+        this.ordered     = ordered;
+    }
+
+    @Override
+    protected boolean hasNextInternal() {
+        while (pending.size() < concurrency && it.hasNext()) submit(it.next());
+        return !pending.isEmpty();
+    }
+
+    private void submit(X x) {
+        if (executor == null) {
+            executor  = Executors.newVirtualThreadPerTaskExecutor();
+            completed = ordered ? null : new ExecutorCompletionService<>(executor);
+        }
+        pending.addLast(ordered ? executor.submit(() -> mapper.apply(x)) : completed.submit(() -> mapper.apply(x)));
+    }
+
+    @Override
+    protected Y nextInternal() throws Exception {
+        Future<Y> future;
+        if (ordered) future = pending.pollFirst();
+        else {
+            future = completed.take();
+            pending.remove(future);
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) throw cause;
+            throw (Error) e.getCause();
+        }
+    }
+
+    @Override
+    protected void closeInternal() throws IOException {
+        try {
+            pending.forEach(future -> future.cancel(true));
+            pending.clear();
+            if (executor != null) executor.shutdownNow();
+        } finally {
+            super.closeInternal();
+        }
+    }
+}
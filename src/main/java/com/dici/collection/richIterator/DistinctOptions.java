@@ -0,0 +1,77 @@
+package com.dici.collection.richIterator;
+
+import static com.dici.check.Check.notNull;
+
+import java.io.File;
+
+import com.dici.check.Check;
+import com.dici.exceptions.ExceptionUtils.ThrowingFunction;
+import com.dici.io.RecordCodec;
+import com.google.common.hash.Funnel;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/// Configuration of [RichIterator#distinct(DistinctOptions)], which bounds the memory used to remember the elements already seen. Elements are
+/// compared by the key returned by [#byKey(ThrowingFunction)], or by themselves if no key extractor is provided.
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class DistinctOptions<X, K> {
+    public enum Mode {
+        /// Exact deduplication. The first `maxKeysInMemory` distinct keys are kept in memory and their elements returned in order. Beyond that,
+        /// the elements with an unknown key are spilled to hash partitions on disk with the codec, and each partition is deduplicated once the
+        /// upstream iterator is exhausted. The order of the elements is therefore only preserved until the budget is exceeded.
+        EXACT,
+        /// Approximate deduplication with a Bloom filter, fed with the keys through the `funnel`. No duplicate is ever returned, but distinct
+        /// elements are dropped with a probability of at most `falsePositiveRate` as long as no more than `expectedKeys` keys are inserted, and as
+        /// long as the funnel writes enough of the key for distinct keys to rarely collide.
+        APPROXIMATE,
+        /// Only the `windowSize` most recently seen keys are remembered, so duplicates further apart can be returned again
+        WINDOW
+    }
+
+    public static <X> DistinctOptions<X, X> exact(RecordCodec<X> codec, int maxKeysInMemory) {
+        return new DistinctOptions<>(Mode.EXACT, x -> x, notNull(codec), Check.isPositive(maxKeysInMemory), 0, 0, null, 0, null);
+    }
+
+    public static <X> DistinctOptions<X, X> approximate(long expectedKeys, double falsePositiveRate, Funnel<? super X> funnel) {
+        Check.isGreaterThan(expectedKeys, 0, "The number of expected keys should be positive");
+        Check.isTrue(falsePositiveRate > 0 && falsePositiveRate < 1, "The false positive rate should be strictly between 0 and 1");
+        return new DistinctOptions<>(Mode.APPROXIMATE, x -> x, null, 0, expectedKeys, falsePositiveRate, notNull(funnel), 0, null);
+    }
+
+    public static <X> DistinctOptions<X, X> window(int windowSize) {
+        return new DistinctOptions<>(Mode.WINDOW, x -> x, null, 0, 0, 0, null, Check.isPositive(windowSize), null);
+    }
+
+    Mode                   mode;
+    ThrowingFunction<X, K> keyExtractor;
+    RecordCodec<X>         codec;
+    int                    maxKeysInMemory;
+    long                   expectedKeys;
+    double                 falsePositiveRate;
+    Funnel<? super K>      funnel;
+    int                    windowSize;
+    /// Where the partitions are spilled in [Mode#EXACT] mode. Null to use the default temporary directory.
+    File                   tempDirectory;
+
+    /// Not supported in [Mode#APPROXIMATE] mode, which needs a funnel for the new keys
+    public <K1> DistinctOptions<X, K1> byKey(ThrowingFunction<X, K1> keyExtractor) {
+        Check.isTrue(mode != Mode.APPROXIMATE, "An approximate deduplication by key requires a funnel for the keys");
+        return new DistinctOptions<>(mode, notNull(keyExtractor), codec, maxKeysInMemory, expectedKeys, falsePositiveRate, null, windowSize,
+                tempDirectory);
+    }
+
+    public <K1> DistinctOptions<X, K1> byKey(ThrowingFunction<X, K1> keyExtractor, Funnel<? super K1> funnel) {
+        return new DistinctOptions<>(mode, notNull(keyExtractor), codec, maxKeysInMemory, expectedKeys, falsePositiveRate, notNull(funnel), windowSize,
+                tempDirectory);
+    }
+
+    /// Only supported in [Mode#EXACT] mode, which is the only one spilling to disk
+    public DistinctOptions<X, K> withTempDirectory(File tempDirectory) {
+        Check.isTrue(mode == Mode.EXACT, "Only an exact deduplication spills to disk");
+        return new DistinctOptions<>(mode, keyExtractor, codec, maxKeysInMemory, expectedKeys, falsePositiveRate, funnel, windowSize,
+                notNull(tempDirectory));
+    }
+}
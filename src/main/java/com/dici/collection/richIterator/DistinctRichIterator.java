@@ -2,25 +2,55 @@ package com.dici.collection.richIterator;
 
 import java.io.IOException;
 import java.util.HashSet;
-import java.util.Set;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.dici.exceptions.ExceptionUtils.ThrowingFunction;
+import com.dici.exceptions.ExceptionUtils.ThrowingPredicate;
+import com.google.common.hash.BloomFilter;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 
 @RequiredArgsConstructor
-class DistinctRichIterator<X> extends NullableRichIterator<X> {
-	@NonNull private final RichIterator<X> it;
-	private final Set<X> elts = new HashSet<>();
+class DistinctRichIterator<X, K> extends NullableRichIterator<X> {
+	static <X> RichIterator<X> distinct(RichIterator<X> it) { return new DistinctRichIterator<X, X>(it, x -> x, new HashSet<X>()::add); }
+	
+	static <X, K> RichIterator<X> distinct(RichIterator<X> it, DistinctOptions<X, K> options) {
+		return switch (options.getMode()) {
+			case EXACT       -> new SpillingDistinctRichIterator<>(it, options);
+			case APPROXIMATE -> new DistinctRichIterator<>(it, options.getKeyExtractor(), bloomFilter(options)::put);
+			case WINDOW      -> new DistinctRichIterator<>(it, options.getKeyExtractor(), window(options.getWindowSize()));
+		};
+	}
+	
+	@NonNull private final RichIterator<X>        it;
+	@NonNull private final ThrowingFunction<X, K> keyExtractor;
+	/** Remembers the key and returns true if it had not been seen yet */
+	@NonNull private final ThrowingPredicate<K>   firstSeen;
 
 	@Override
-	protected X nextOrNull() {
+	protected X nextOrNull() throws Exception {
 		while (it.hasNext()) {
 			X next = it.next();
-			if (elts.add(next)) return next;
+			if (firstSeen.test(keyExtractor.apply(next))) return next;
 		}
 		return null;
 	}
 
 	@Override protected void closeInternal() throws IOException { it.releaseResources(); }
 	@Override protected void setUsed() { it.setUsed(); super.setUsed(); }
+	
+	private static <K> BloomFilter<K> bloomFilter(DistinctOptions<?, K> options) {
+		return BloomFilter.create(options.getFunnel(), options.getExpectedKeys(), options.getFalsePositiveRate());
+	}
+	
+	private static <K> ThrowingPredicate<K> window(int size) {
+		// in access order, so that a key seen again becomes the most recent one
+		Map<K, Boolean> recent = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Boolean> eldest) { return size() > size; }
+		};
+		return key -> recent.put(key, Boolean.TRUE) == null;
+	}
 }
@@ -0,0 +1,188 @@
+package com.dici.collection.richIterator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.dici.io.IOUtils;
+import com.dici.io.RecordFileReader;
+import com.dici.io.RecordFileWriter;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/// Stage returned by [RichIterator#sorted(Comparator, SortOptions)]. The upstream iterator is consumed in chunks which fit in the memory budget,
+/// each chunk being sorted and spilled to a temporary record file (a run). The runs are then merged lazily by a [SortedMergeRichIterator].
+/// If there are more runs than the maximum fan-in, consecutive runs are merged into larger ones first, so that the number of open files is bounded.
+///
+/// With a parallelism greater than one, the memory budget is shared by as many chunks, which are sorted and written by a thread pool while the
+/// next chunk is being read, and the intermediate merges of a pass run concurrently.
+///
+/// The sort is stable: on ties, the elements of earlier runs come first. All the temporary files are deleted once the iterator is exhausted or
+/// closed.
+final class ExternalSortedRichIterator<T> extends ClassicRichIteratorDecorator<T, T> {
+    private final Comparator<? super T> cmp;
+    private final SortOptions<T>        options;
+    /// All the temporary files which have not been deleted yet. Only modified by the thread consuming this iterator.
+    private final List<File>            files = new ArrayList<>();
+
+    private Iterator<T>                sorted;
+    private SortedMergeRichIterator<T> merger;
+
+    @SuppressWarnings("unchecked")
+    ExternalSortedRichIterator(RichIterator<T> it, Comparator<? super T> cmp, SortOptions<T> options) {
+        super(it);
+        this.cmp     = cmp == null ? (Comparator<? super T>) Comparator.naturalOrder() : cmp;
+        this.options = options;
+    }
+
+    @Override
+    protected boolean hasNextInternal() throws IOException {
+        if (sorted == null) sorted = sort();
+        return sorted.hasNext();
+    }
+
+    @Override
+    protected T nextInternal() { return sorted.next(); }
+
+    private Iterator<T> sort() throws IOException {
+        int             parallelism = options.getParallelism();
+        ExecutorService executor    = parallelism == 1 ? MoreExecutors.newDirectExecutorService() : Executors.newFixedThreadPool(parallelism);
+        try {
+            return sort(executor, parallelism);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Iterator<T> sort(ExecutorService executor, int parallelism) throws IOException {
+        long maxElements = Math.max(1, options.getMaxElementsInMemory() / parallelism);
+        long maxBytes    = Math.max(1, options.getMaxBytesInMemory   () / parallelism);
+
+        List<Future<File>>  spills   = new ArrayList<>();
+        Deque<Future<File>> inFlight = new ArrayDeque<>();
+        List<T>             buffer   = new ArrayList<>();
+        long                bytes    = 0;
+
+        while (it.hasNext()) {
+            T t = it.next();
+            buffer.add(t);
+            if (options.getSizeEstimator() != null) bytes += options.getSizeEstimator().applyAsLong(t);
+            if (buffer.size() >= maxElements || bytes >= maxBytes) {
+                // at most one chunk per thread is held in memory, including the one being read
+                while (!inFlight.isEmpty() && inFlight.size() >= parallelism - 1) await(inFlight.poll());
+
+                Future<File> spill = executor.submit(spillTask(buffer));
+                spills  .add     (spill);
+                inFlight.addLast(spill);
+                buffer = new ArrayList<>();
+                bytes  = 0;
+            }
+        }
+
+        buffer.sort(cmp);
+        List<File> runs = new ArrayList<>();
+        for (Future<File> spill : spills) runs.add(await(spill));
+        if (runs.isEmpty()) return buffer.iterator();
+
+        // the buffer counts as a run during the merge, so it has to be spilled too if it cannot be merged in the final pass
+        if (runs.size() >= options.getMaxMergeFanIn() && !buffer.isEmpty()) {
+            runs.add(write(newRunFile(), buffer.iterator()));
+            buffer.clear();
+        }
+        while (runs.size() > options.getMaxMergeFanIn()) runs = mergePass(executor, runs);
+
+        List<Iterator<T>> sources = new ArrayList<>();
+        merger = new SortedMergeRichIterator<>(cmp, sources);
+        for (File run : runs) sources.add(new RecordFileReader<>(run, options.getCodec()));
+        if (!buffer.isEmpty()) sources.add(buffer.iterator());
+        return merger;
+    }
+
+    private List<File> mergePass(ExecutorService executor, List<File> runs) throws IOException {
+        List<Future<File>> merges = new ArrayList<>();
+        for (int i = 0; i < runs.size(); i += options.getMaxMergeFanIn()) {
+            List<File> group = List.copyOf(runs.subList(i, Math.min(runs.size(), i + options.getMaxMergeFanIn())));
+            if (group.size() == 1) merges.add(executor.submit(() -> group.get(0)));
+            else {
+                File file = newRunFile();
+                merges.add(executor.submit(() -> merge(group, file)));
+            }
+        }
+
+        List<File> merged = new ArrayList<>();
+        for (Future<File> merge : merges) merged.add(await(merge));
+        for (File run : runs) {
+            if (!merged.contains(run)) delete(run);
+        }
+        return merged;
+    }
+
+    private File merge(List<File> group, File file) throws IOException {
+        List<Iterator<T>> sources = new ArrayList<>();
+        try (SortedMergeRichIterator<T> groupMerger = new SortedMergeRichIterator<>(cmp, sources)) {
+            for (File run : group) sources.add(new RecordFileReader<>(run, options.getCodec()));
+            return write(file, groupMerger);
+        }
+    }
+
+    /// The file is created by the calling thread so that [#files] is not shared with the thread pool
+    private Callable<File> spillTask(List<T> chunk) throws IOException {
+        File file = newRunFile();
+        return () -> {
+            chunk.sort(cmp);
+            return write(file, chunk.iterator());
+        };
+    }
+
+    private File newRunFile() throws IOException {
+        File file = File.createTempFile("sorted-run", ".bin", options.getTempDirectory());
+        files.add(file);
+        return file;
+    }
+
+    private File write(File file, Iterator<T> sortedElements) throws IOException {
+        try (RecordFileWriter<T> writer = new RecordFileWriter<>(file, options.getCodec(), options.getCompression())) {
+            writer.writeAll(sortedElements);
+        }
+        return file;
+    }
+
+    private static File await(Future<File> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a run to be written");
+        } catch (ExecutionException e) {
+            Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private void delete(File file) {
+        IOUtils.deleteQuietly(file);
+        files.remove(file);
+    }
+
+    @Override
+    protected void closeInternal() throws IOException {
+        try {
+            if (merger != null) merger.releaseResources();
+            for (File file : new ArrayList<>(files)) delete(file);
+        } finally {
+            super.closeInternal();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.io.Closeable;
 import java.io.EOFException;
 import java.io.IOException;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import com.dici.io.IOUtils;
 
@@ -31,6 +32,29 @@ public abstract class FromResourceRichIterator<X> extends NullableRichIterator<X
 		}
 	}
 
+	/** Reads the elements directly with {@link #tryReadNext()}, without peeking each of them */
+	@Override
+	protected int nextBatchInternal(Object[] dest, int offset, int length) throws Exception {
+		int n = 0;
+		if (peeked != null && length > 0) {
+			dest[offset + n++] = peeked;
+			peeked             = null;
+		}
+		try {
+			while (n < length) {
+				X x = nextOrNull();
+				if (x == null) {
+					releaseResources();
+					break;
+				}
+				dest[offset + n++] = x;
+			}
+		} catch (NoSuchElementException e) {
+			// same as the end of the iterator
+		}
+		return n;
+	}
+
 	@Override 
 	protected final void closeInternal() throws IOException { IOUtils.closeAllQuietly(resources); }
 }
@@ -0,0 +1,130 @@
+package com.dici.collection.richIterator;
+
+import static com.dici.check.Check.notNull;
+
+import java.util.Arrays;
+
+import com.dici.exceptions.ExceptionUtils.ThrowingFunction;
+import com.dici.exceptions.ExceptionUtils.ThrowingPredicate;
+
+/// Fusion of consecutive stateless stages ([RichIterator#map] and [RichIterator#filter]) into a single [RichIterator] layer. Mapping or filtering
+/// a [FusedRichIterator] composes the new function with the existing ones instead of wrapping it in a new decorator, so that an element only goes
+/// through one `hasNext`/`next` call, whatever the length of the chain.
+///
+/// Laziness is the same as with one decorator per stage: the functions up to the last filter are applied when looking for the next element, and
+/// the functions mapped after the last filter are only applied when the element is consumed.
+@SuppressWarnings("unchecked")
+final class FusedRichIterator<X, Y> extends ClassicRichIteratorDecorator<X, Y> {
+    private static final Object FILTERED = new Object();
+
+    static <X, Y> RichIterator<Y> map(RichIterator<X> it, ThrowingFunction<X, Y> mapper) {
+        notNull(mapper);
+        if (it instanceof FusedRichIterator<?, X> fused && fused.canFuse()) return fused.andThenMap(mapper);
+        if (it instanceof ParallelRichIterator<?, X> parallel && parallel.canFuse()) return parallel.andThenMap(mapper);
+        return new FusedRichIterator<>(it, null, (ThrowingFunction<Object, Object>) mapper, null);
+    }
+
+    static <X> RichIterator<X> filter(RichIterator<X> it, ThrowingPredicate<X> predicate) {
+        notNull(predicate);
+        if (it instanceof FusedRichIterator<?, X> fused && fused.canFuse()) return fused.andThenFilter(predicate);
+        return new FusedRichIterator<>(it, x -> predicate.test((X) x) ? x : FILTERED, null, null);
+    }
+
+    /// Returns [#FILTERED] for the elements that should be skipped. Null if there is no filter in the chain.
+    private final ThrowingFunction<Object, Object> filtering;
+    /// Maps applied after the last filter. Null if there are none.
+    private final ThrowingFunction<Object, Object> mapping;
+    /// The stage which has been fused into this one, which should be marked as used along with this iterator
+    private final RichIterator<?> fusedStage;
+
+    private Object  peeked;
+    private boolean hasPeeked = false;
+
+    private FusedRichIterator(RichIterator<X> it, ThrowingFunction<Object, Object> filtering, ThrowingFunction<Object, Object> mapping,
+            RichIterator<?> fusedStage) {
+        super(it);
+        this.filtering  = filtering;
+        this.mapping    = mapping;
+        this.fusedStage = fusedStage;
+    }
+
+    /// An element already peeked by this stage would be lost by a stage reading directly from the upstream iterator
+    private boolean canFuse() { return !hasPeeked; }
+
+    private <Z> RichIterator<Z> andThenMap(ThrowingFunction<Y, Z> mapper) {
+        ThrowingFunction<Object, Object> previous = mapping;
+        ThrowingFunction<Object, Object> next     = (ThrowingFunction<Object, Object>) mapper;
+        return new FusedRichIterator<>(it, filtering, previous == null ? next : x -> next.apply(previous.apply(x)), this);
+    }
+
+    private RichIterator<Y> andThenFilter(ThrowingPredicate<Y> predicate) {
+        ThrowingFunction<Object, Object> previousFiltering = filtering;
+        ThrowingFunction<Object, Object> previousMapping   = mapping;
+        return new FusedRichIterator<>(it, x -> {
+            Object candidate = previousFiltering == null ? x : previousFiltering.apply(x);
+            if (candidate == FILTERED) return FILTERED;
+            Object mapped = previousMapping == null ? candidate : previousMapping.apply(candidate);
+            return predicate.test((Y) mapped) ? mapped : FILTERED;
+        }, null, this);
+    }
+
+    @Override
+    protected boolean hasNextInternal() throws Exception {
+        if (filtering == null) return it.hasNext();
+        while (!hasPeeked && it.hasNext()) {
+            Object candidate = filtering.apply(it.next());
+            if (candidate != FILTERED) {
+                peeked    = candidate;
+                hasPeeked = true;
+            }
+        }
+        return hasPeeked;
+    }
+
+    @Override
+    protected Y nextInternal() throws Exception {
+        Object next;
+        if (filtering == null) next = it.next();
+        else {
+            // RichIterator.next() always calls hasNext() first, which peeks the next element that went through all the filters
+            next      = peeked;
+            peeked    = null;
+            hasPeeked = false;
+        }
+        return (Y) (mapping == null ? next : mapping.apply(next));
+    }
+
+    /// Reads the upstream iterator in batches and filters and maps them in place
+    @Override
+    protected int nextBatchInternal(Object[] dest, int offset, int length) throws Exception {
+        int n = 0;
+        if (hasPeeked) dest[offset + n++] = nextInternal();
+
+        while (n < length) {
+            int read = it.nextBatchUnsafe(dest, offset + n, length - n);
+            if (read == 0) break;
+
+            int end = offset + n + read;
+            for (int i = offset + n; i < end; i++) {
+                Object candidate = filtering == null ? dest[i] : filtering.apply(dest[i]);
+                if (candidate != FILTERED) dest[offset + n++] = mapping == null ? candidate : mapping.apply(candidate);
+            }
+            Arrays.fill(dest, offset + n, end, null);
+        }
+        return n;
+    }
+
+    /// The functions of the chain do not change how expensive it is to read the source
+    @Override
+    boolean readsInBatches() { return super.readsInBatches() || it.readsInBatches(); }
+
+    /// Without a filter, each element of the upstream iterator produces exactly one element
+    @Override
+    long exactSizeIfKnown() { return filtering == null ? it.exactSizeIfKnown() : -1; }
+
+    @Override
+    protected void setUsed() {
+        if (fusedStage != null) fusedStage.setUsed();
+        super.setUsed();
+    }
+}
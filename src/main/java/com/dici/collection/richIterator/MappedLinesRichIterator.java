@@ -0,0 +1,104 @@
+package com.dici.collection.richIterator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.dici.io.ByteSlice;
+
+/// Iterates over the lines of a range of a file mapped in memory, returning views over the mapped bytes rather than decoded strings. As a single
+/// mapping cannot exceed 2 GB, the file is mapped by windows which are remapped as the iteration moves forward, a window always starting at the
+/// beginning of a line and growing if a line does not fit in it. The lines are separated by `\n`, and a trailing `\r` is dropped like
+/// [java.io.BufferedReader#readLine()] does.
+///
+/// The views remain valid after the iterator has moved on or been closed, as a mapping lives as long as the buffers referencing it.
+final class MappedLinesRichIterator extends FromResourceRichIterator<ByteSlice> {
+    static final int DEFAULT_WINDOW_SIZE = 1 << 26;
+
+    private static final int ALIGNMENT_BUFFER_SIZE = 1 << 13;
+
+    private final FileChannel channel;
+    private final long        end;
+    private final int         windowSize;
+
+    private MappedByteBuffer window;
+    private long             windowStart;
+    private long             position;
+
+    /// Splits a file into at most `n` ranges of similar sizes, each of them starting at the beginning of a line
+    static long[] lineAlignedBoundaries(FileChannel channel, int n) throws IOException {
+        long       size       = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        for (int i = 1; i < n; i++) {
+            long boundary = nextLineStart(channel, Math.max(size * i / n, boundaries.get(boundaries.size() - 1)));
+            if (boundary > boundaries.get(boundaries.size() - 1) && boundary < size) boundaries.add(boundary);
+        }
+        boundaries.add(size);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /// @return the position of the first line starting at or after the given position, or the size of the file if there is none
+    private static long nextLineStart(FileChannel channel, long position) throws IOException {
+        if (position == 0) return 0;
+
+        ByteBuffer buffer = ByteBuffer.allocate(ALIGNMENT_BUFFER_SIZE);
+        // a line starts at the position if the previous byte is a line separator
+        for (long offset = position - 1; ; ) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) return channel.size();
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') return offset + i + 1;
+            }
+            offset += read;
+        }
+    }
+
+    MappedLinesRichIterator(FileChannel channel, long start, long end, int windowSize) {
+        super(channel);
+        this.channel    = channel;
+        this.position   = start;
+        this.end        = end;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    protected ByteSlice tryReadNext() throws IOException {
+        if (position >= end) return null;
+        if (window == null || position >= windowStart + window.limit()) map(windowSize);
+
+        int from = (int) (position - windowStart);
+        for (int i = from; ; i++) {
+            if (i == window.limit()) {
+                // the end of the range acts as a line separator
+                if (windowStart + i == end) return line(from, i, i);
+                if (window.limit() == Integer.MAX_VALUE) throw new IOException("Line longer than 2 GB at position " + position);
+
+                // the line does not fit in the window, remaps from its beginning and keeps scanning
+                int scanned = i - from;
+                map((int) Math.min((long) window.limit() * 2, Integer.MAX_VALUE));
+                from = 0;
+                i    = scanned - 1;
+            } else if (window.get(i) == '\n') {
+                return line(from, i, i + 1);
+            }
+        }
+    }
+
+    private ByteSlice line(int from, int to, int next) {
+        int length = to - from;
+        if (length > 0 && window.get(to - 1) == '\r') length--;
+        position = windowStart + next;
+        return new ByteSlice(window, from, length);
+    }
+
+    private void map(int size) throws IOException {
+        windowStart = position;
+        window      = channel.map(MapMode.READ_ONLY, windowStart, Math.min(size, end - windowStart));
+    }
+}
@@ -2,15 +2,21 @@ package com.dici.collection.richIterator;
 
 import static com.dici.check.Check.notNull;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javafx.util.Pair;
 
+import com.dici.collection.richIterator.SortMergeJoinRichIterator.JoinType;
+import com.dici.exceptions.ExceptionUtils.ThrowingBiFunction;
+import com.dici.exceptions.ExceptionUtils.ThrowingBinaryOperator;
 import com.dici.exceptions.ExceptionUtils.ThrowingFunction;
 
 public class PairRichIterator<K,V> extends RichIterator<Pair<K,V>> {
@@ -42,12 +48,82 @@ public class PairRichIterator<K,V> extends RichIterator<Pair<K,V>> {
 		Map<K,List<V>> map = new HashMap<>();
 		while (it.hasNext()) {
 			Pair<K,V> pair = it.next();
-			map.putIfAbsent(pair.getKey(),new LinkedList<>());
-			map.get(pair.getKey()).add(pair.getValue());
+			map.computeIfAbsent(pair.getKey(),k -> new ArrayList<>()).add(pair.getValue());
 		}
 		return new PairRichIterator<>(RichIterators.wrap(map.entrySet().stream().map(entry ->  new Pair<>(entry.getKey(), entry.getValue())).iterator()));
 	}
 	
+	/**
+	 * Streaming version of {@link #groupByKey()} for inputs in which equal keys are consecutive (typically because they are sorted by key). Each
+	 * group is emitted as soon as the key changes, so only one group is held in memory at a time. Non-consecutive occurrences of a key produce
+	 * distinct groups.
+	 */
+	public PairRichIterator<K,List<V>> groupByKeySorted() {
+		return new PairRichIterator<>(new RichIteratorDecorator<Pair<K,V>,Pair<K,List<V>>,LookAheadRichIterator<Pair<K,V>>>(new LookAheadRichIterator<>(this)) {
+			@Override
+			protected boolean hasNextInternal() { return it.hasNext(); }
+			
+			@Override
+			protected Pair<K,List<V>> nextInternal() {
+				Pair<K,V> first  = it.next();
+				List<V>   values = new ArrayList<>();
+				values.add(first.getValue());
+				while (it.hasNext() && Objects.equals(it.peek().getKey(), first.getKey())) values.add(it.next().getValue());
+				return new Pair<>(first.getKey(), values);
+			}
+		});
+	}
+	
+	/**
+	 * Folds the values of each key into an aggregate, without keeping the values themselves in memory. The upstream iterator is consumed entirely
+	 * before the first aggregate is returned, in no particular order.
+	 * @param zero called once per key to create its initial aggregate, which can be mutable and updated in place by {@code seqOp}
+	 * @param seqOp folds a value into the current aggregate of its key, and returns the new aggregate
+	 */
+	public <A> PairRichIterator<K,A> aggregateByKey(Supplier<A> zero, ThrowingBiFunction<A,V,A> seqOp) {
+		return new PairRichIterator<>(new AggregatedRichIterator<>(this,notNull(zero),notNull(seqOp),null,null));
+	}
+	
+	/**
+	 * Same as {@link #aggregateByKey(Supplier, ThrowingBiFunction)}, except that the partial aggregates are spilled to disk when more keys than
+	 * allowed by the options are being aggregated.
+	 * @param combOp combines two partial aggregates of the same key
+	 */
+	public <A> PairRichIterator<K,A> aggregateByKey(Supplier<A> zero, ThrowingBiFunction<A,V,A> seqOp, ThrowingBinaryOperator<A> combOp,
+			AggregateOptions<K,A> options) {
+		return new PairRichIterator<>(new AggregatedRichIterator<>(this,notNull(zero),notNull(seqOp),notNull(combOp),notNull(options)));
+	}
+	
+	/**
+	 * Sort-merge inner join of this iterator with another one, both being sorted by key according to the same comparator. Each pair of values
+	 * sharing a key is returned, and only the values of the current key are held in memory. Consumes both iterators lazily.
+	 * @param cmp the order of the keys in both iterators, or null for their natural order
+	 * @throws IllegalStateException during the iteration if either iterator is found not to be sorted
+	 */
+	public <W> PairRichIterator<K,Pair<V,W>> innerJoinSorted(PairRichIterator<K,W> that, Comparator<? super K> cmp) {
+		return joinSorted(that,cmp,JoinType.INNER);
+	}
+	
+	/**
+	 * Same as {@link #innerJoinSorted(PairRichIterator, Comparator)}, except that the keys of this iterator without a match in the other one are
+	 * also returned, with a null right value.
+	 */
+	public <W> PairRichIterator<K,Pair<V,W>> leftJoinSorted(PairRichIterator<K,W> that, Comparator<? super K> cmp) {
+		return joinSorted(that,cmp,JoinType.LEFT);
+	}
+	
+	/**
+	 * Same as {@link #innerJoinSorted(PairRichIterator, Comparator)}, except that the keys of either iterator without a match in the other one
+	 * are also returned, with a null value for the missing side. The output is sorted by key.
+	 */
+	public <W> PairRichIterator<K,Pair<V,W>> fullOuterJoinSorted(PairRichIterator<K,W> that, Comparator<? super K> cmp) {
+		return joinSorted(that,cmp,JoinType.FULL_OUTER);
+	}
+	
+	private <W> PairRichIterator<K,Pair<V,W>> joinSorted(PairRichIterator<K,W> that, Comparator<? super K> cmp, JoinType type) {
+		return new PairRichIterator<>(new SortMergeJoinRichIterator<>(this,notNull(that),cmp,type));
+	}
+	
 	public Map<K,V> toMap() { return stream().collect(Collectors.toMap(Pair::getKey, Pair::getValue)); }
 	@Override protected void setUsed() { it.setUsed(); super.setUsed(); }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.dici.collection.richIterator;
+
+import static com.dici.check.Check.notNull;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import com.dici.check.Check;
+import com.dici.exceptions.ExceptionUtils.ThrowingFunction;
+
+/// Stage returned by [RichIterator#parallel(int)]. It behaves like its upstream iterator, except that the functions mapped directly after it are
+/// fused into it (see [FusedRichIterator]) and applied on a dedicated [ForkJoinPool] to batches of elements read sequentially from the upstream
+/// iterator. The order of the elements is preserved, and the upstream iterator is only ever read from the consumer's thread.
+///
+/// The pool is started lazily and shut down as soon as this iterator is exhausted or closed, so that [RichIterator#close()] and
+/// [RichIterator#onClose(com.dici.exceptions.ExceptionUtils.ThrowingConsumer)] keep their usual semantics.
+@SuppressWarnings("unchecked")
+final class ParallelRichIterator<X, Y> extends ClassicRichIteratorDecorator<X, Y> {
+    /// Number of elements each worker processes per batch, so that the cost of dispatching a batch is amortized on many elements
+    static final int BATCH_PER_WORKER = 64;
+
+    static <X> ParallelRichIterator<X, X> parallel(RichIterator<X> it, int parallelism) {
+        Check.isPositive(parallelism);
+        return new ParallelRichIterator<>(it, parallelism, null, null);
+    }
+
+    private final int                              parallelism;
+    /// Null if no function was mapped yet
+    private final ThrowingFunction<Object, Object> mapping;
+    /// The stage which has been fused into this one, which should be marked as used along with this iterator
+    private final RichIterator<?>                  fusedStage;
+
+    private ForkJoinPool pool;
+    private Object[]     batch;
+    private int          index = 0;
+    private int          size  = 0;
+
+    private ParallelRichIterator(RichIterator<X> it, int parallelism, ThrowingFunction<Object, Object> mapping, RichIterator<?> fusedStage) {
+        super(it);
+        this.parallelism = parallelism;
+        this.mapping     = mapping;
+        this.fusedStage  = fusedStage;
+    }
+
+    /// Elements already mapped with the current function would not go through a function composed afterwards
+    boolean canFuse() { return batch == null; }
+
+    <Z> RichIterator<Z> andThenMap(ThrowingFunction<Y, Z> mapper) {
+        notNull(mapper);
+        ThrowingFunction<Object, Object> previous = mapping;
+        ThrowingFunction<Object, Object> next     = (ThrowingFunction<Object, Object>) mapper;
+        return new ParallelRichIterator<>(it, parallelism, previous == null ? next : x -> next.apply(previous.apply(x)), this);
+    }
+
+    @Override
+    protected boolean hasNextInternal() throws Exception {
+        if (mapping == null) return it.hasNext();
+        return index < size || nextBatch();
+    }
+
+    @Override
+    protected Y nextInternal() throws Exception {
+        if (mapping == null) return (Y) it.next();
+        Y next = (Y) batch[index];
+        batch[index++] = null;
+        return next;
+    }
+
+    private boolean nextBatch() throws Exception {
+        if (batch == null) batch = new Object[parallelism * BATCH_PER_WORKER];
+
+        index = 0;
+        size  = 0;
+        while (size < batch.length && it.hasNext()) batch[size++] = it.next();
+        if (size == 0) return false;
+
+        if (pool == null) pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, size).parallel().forEach(i -> batch[i] = applyUnchecked(batch[i]))).get();
+        } catch (ExecutionException e) {
+            // unwrap the exception thrown by the mapping function
+            Throwable cause = e.getCause();
+            while (cause instanceof MappingException) cause = cause.getCause();
+            if (cause instanceof Exception ex) throw ex;
+            throw (Error) cause;
+        }
+        return true;
+    }
+
+    private Object applyUnchecked(Object x) {
+        try {
+            return mapping.apply(x);
+        } catch (Exception e) {
+            throw new MappingException(e);
+        }
+    }
+
+    @Override
+    long exactSizeIfKnown() {
+        long upstream = it.exactSizeIfKnown();
+        return upstream < 0 ? upstream : upstream + size - index;
+    }
+
+    @Override
+    protected void closeInternal() throws IOException {
+        try {
+            if (pool != null) pool.shutdownNow();
+            batch = null;
+        } finally {
+            super.closeInternal();
+        }
+    }
+
+    @Override
+    protected void setUsed() {
+        if (fusedStage != null) fusedStage.setUsed();
+        super.setUsed();
+    }
+
+    private static final class MappingException extends RuntimeException {
+        private MappingException(Exception cause) { super(cause); }
+    }
+}
@@ -0,0 +1,133 @@
+package com.dici.collection.richIterator;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.dici.check.Check;
+
+import lombok.extern.log4j.Log4j2;
+
+/// Stage returned by [RichIterator#prefetch(int)]. The upstream iterator is read by a virtual thread into a bounded queue, so that blocking reads
+/// (files, remote pages...) overlap with the work done by the consumer. The producer is started on the first call to [#hasNext()], and is the only
+/// thread reading from the upstream iterator until it terminates.
+///
+/// Exceptions thrown by the upstream iterator are rethrown to the consumer when it reaches them. Closing this iterator interrupts the producer
+/// and waits for it to stop before releasing the upstream resources, so that they are never released while being read. If the producer does not
+/// stop in time, e.g. because it is blocked in an upstream call which ignores interrupts, closing returns anyway and the upstream resources are
+/// released once the producer stops.
+@Log4j2
+final class PrefetchRichIterator<X> extends ClassicRichIteratorDecorator<X, X> {
+    static final Duration DEFAULT_CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final Object NULL = new Object();
+    private static final Object END  = new Object();
+
+    private final BlockingQueue<Object> queue;
+    private final Duration              closeTimeout;
+
+    private Thread           producer;
+    private Object           next;
+    private boolean          done      = false;
+    /// Stops the producer even if the upstream iterator swallows the interrupt
+    private volatile boolean cancelled = false;
+
+    PrefetchRichIterator(RichIterator<X> it, int depth) { this(it, depth, DEFAULT_CLOSE_TIMEOUT); }
+
+    PrefetchRichIterator(RichIterator<X> it, int depth, Duration closeTimeout) {
+        super(it);
+        this.queue        = new ArrayBlockingQueue<>(Check.isPositive(depth));
+        this.closeTimeout = Check.notNull(closeTimeout);
+    }
+
+    @Override
+    protected boolean hasNextInternal() throws Exception {
+        if (next != null) return true;
+        if (done) return false;
+        if (producer == null) producer = Thread.ofVirtual().name("rich-iterator-prefetch").start(this::produce);
+
+        Object polled;
+        try {
+            polled = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+
+        if (polled instanceof Failure failure) {
+            done = true;
+            if (failure.cause instanceof Exception e) throw e;
+            throw (Error) failure.cause;
+        }
+        if (polled == END) {
+            done = true;
+            return false;
+        }
+        next = polled;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected X nextInternal() {
+        Object res = next;
+        next = null;
+        return res == NULL ? null : (X) res;
+    }
+
+    private void produce() {
+        try {
+            while (!cancelled && it.hasNext()) {
+                X x = it.next();
+                queue.put(x == null ? NULL : x);
+            }
+            if (!cancelled) queue.put(END);
+        } catch (InterruptedException e) {
+            // cancelled by close(), nobody is consuming the queue anymore
+        } catch (Throwable t) {
+            try {
+                queue.put(new Failure(t));
+            } catch (InterruptedException e) {
+                // same as above
+            }
+        }
+    }
+
+    @Override
+    protected void closeInternal() throws IOException {
+        try {
+            if (producer != null) {
+                cancelled = true;
+                producer.interrupt();
+                if (!producer.join(closeTimeout)) {
+                    log.warn("The prefetching thread did not stop within {}, the upstream iterator will be released once it does", closeTimeout);
+                    releaseOnceStopped();
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            releaseOnceStopped();
+            throw new IOException("Interrupted while waiting for the prefetching thread to stop", e);
+        } finally {
+            queue.clear();
+        }
+        super.closeInternal();
+    }
+
+    private void releaseOnceStopped() {
+        Thread.ofVirtual().name("rich-iterator-prefetch-release").start(() -> {
+            try {
+                producer.join();
+                it.releaseResources();
+            } catch (InterruptedException e) {
+                // nothing else to do with the upstream iterator
+            } catch (IOException e) {
+                log.warn("Could not release the upstream iterator", e);
+            }
+        });
+    }
+
+    private record Failure(Throwable cause) { }
+}
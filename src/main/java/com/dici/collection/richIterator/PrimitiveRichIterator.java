@@ -0,0 +1,97 @@
+package com.dici.collection.richIterator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import com.dici.exceptions.ExceptionUtils.ThrowingConsumer;
+
+/// Common state machine of the primitive-specialized iterators ([RichIntIterator], [RichLongIterator] and [RichDoubleIterator]). It has the
+/// same contract as [RichIterator] (single use, resources released as soon as the end is reached, `onClose` callback receiving the number of
+/// consumed elements), but stages call each other's `*Internal` methods directly and only accept non-throwing functions, so that an element
+/// going through a pipeline costs one virtual call per stage and no allocation.
+abstract class PrimitiveRichIterator implements Closeable, AutoCloseable {
+    private final PrimitiveRichIterator upstream;
+
+    private boolean                closed            = false;
+    private boolean                used              = false;
+    private boolean                releasedResources = false;
+    protected long                 count             = 0;
+    private ThrowingConsumer<Long> onClose;
+
+    protected PrimitiveRichIterator() { this(null); }
+    protected PrimitiveRichIterator(PrimitiveRichIterator upstream) { this.upstream = upstream; }
+
+    public final boolean hasNext() {
+        if (closed || releasedResources) return false;
+        if (hasNextInternal()) return true;
+        releaseResourcesUnchecked();
+        return false;
+    }
+
+    @Override
+    public final void close() throws IOException {
+        if (closed) return;
+        try {
+            releaseResources();
+        } finally {
+            closed = true;
+            try {
+                if (onClose != null) onClose.accept(count);
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    protected final void releaseResources() throws IOException {
+        if (releasedResources) return;
+        releasedResources = true;
+        try {
+            closeInternal();
+        } finally {
+            if (upstream != null) upstream.releaseResources();
+        }
+    }
+
+    final void releaseResourcesUnchecked() {
+        try {
+            releaseResources();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected abstract boolean hasNextInternal();
+
+    /**
+     * Should not be called explicitly by a subclass. Use releaseResources instead. The upstream iterator, if any, is released automatically.
+     * @throws IOException
+     */
+    protected void closeInternal() throws IOException { }
+
+    protected final void setOnClose(ThrowingConsumer<Long> onClose) { this.onClose = onClose; }
+
+    /// Must be called by every terminal operation before it starts consuming the iterator
+    protected final void startTerminalOperation() {
+        ensureValidState();
+        setUsed();
+    }
+
+    protected final void ensureValidState() {
+        ensureNotClosed();
+        ensureNotAlreadyUsed();
+    }
+
+    protected final void ensureNotClosed     () { if (isClosed()) throw new IllegalStateException("This iterator is already closed"      ); }
+    private         void ensureNotAlreadyUsed() { if (isUsed  ()) throw new IllegalStateException("This object can only be iterated once"); }
+
+    public final boolean isClosed() { return closed; }
+
+    protected void setUsed() {
+        used = true;
+        if (upstream != null) upstream.setUsed();
+    }
+
+    protected boolean isUsed() { return used; }
+}
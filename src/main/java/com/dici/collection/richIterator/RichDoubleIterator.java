@@ -0,0 +1,305 @@
+package com.dici.collection.richIterator;
+
+import static com.dici.check.Check.notNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+import java.util.PrimitiveIterator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+
+import com.dici.check.Check;
+import com.dici.exceptions.ExceptionUtils.ThrowingConsumer;
+
+/// A `double` specialization of [RichIterator] which never boxes its elements unless explicitly requested with [#boxed()] or [#next()]. See
+/// [RichIntIterator] for the relationship with [RichIterator].
+public abstract class RichDoubleIterator extends PrimitiveRichIterator implements PrimitiveIterator.OfDouble, Iterable<Double> {
+    public static RichDoubleIterator of(double... elts) {
+        notNull(elts);
+        return new RichDoubleIterator() {
+            private int i = 0;
+
+            @Override protected boolean hasNextInternal   () { return i < elts.length; }
+            @Override protected double  nextDoubleInternal() { return elts[i++]      ; }
+        };
+    }
+
+    public static RichDoubleIterator iterate(double seed, DoubleUnaryOperator op) {
+        notNull(op);
+        return new RichDoubleIterator() {
+            private double current = seed;
+
+            @Override protected boolean hasNextInternal() { return true; }
+
+            @Override
+            protected double nextDoubleInternal() {
+                double res = current;
+                current = op.applyAsDouble(current);
+                return res;
+            }
+        };
+    }
+
+    protected RichDoubleIterator() { }
+    protected RichDoubleIterator(PrimitiveRichIterator upstream) { super(upstream); }
+
+    protected abstract double nextDoubleInternal();
+
+    @Override
+    public final double nextDouble() {
+        ensureNotClosed();
+        if (!hasNext()) throw new NoSuchElementException();
+        count++;
+        return nextDoubleInternal();
+    }
+
+    @Override
+    public final Iterator<Double> iterator() {
+        ensureValidState();
+        setUsed();
+        return this;
+    }
+
+    public final RichDoubleIterator onClose(ThrowingConsumer<Long> onClose) {
+        setOnClose(onClose);
+        return this;
+    }
+
+    public final RichDoubleIterator map(DoubleUnaryOperator mapper) {
+        ensureValidState();
+        notNull(mapper);
+        return new RichDoubleIterator(this) {
+            @Override protected boolean hasNextInternal   () { return RichDoubleIterator.this.hasNextInternal()                          ; }
+            @Override protected double  nextDoubleInternal() { return mapper.applyAsDouble(RichDoubleIterator.this.nextDoubleInternal()); }
+        };
+    }
+
+    public final RichIntIterator mapToInt(DoubleToIntFunction mapper) {
+        ensureValidState();
+        notNull(mapper);
+        return new RichIntIterator(this) {
+            @Override protected boolean hasNextInternal() { return RichDoubleIterator.this.hasNextInternal()                       ; }
+            @Override protected int     nextIntInternal() { return mapper.applyAsInt(RichDoubleIterator.this.nextDoubleInternal()); }
+        };
+    }
+
+    public final RichLongIterator mapToLong(DoubleToLongFunction mapper) {
+        ensureValidState();
+        notNull(mapper);
+        return new RichLongIterator(this) {
+            @Override protected boolean hasNextInternal () { return RichDoubleIterator.this.hasNextInternal()                        ; }
+            @Override protected long    nextLongInternal() { return mapper.applyAsLong(RichDoubleIterator.this.nextDoubleInternal()); }
+        };
+    }
+
+    public final <Y> RichIterator<Y> mapToObj(DoubleFunction<Y> mapper) {
+        ensureValidState();
+        notNull(mapper);
+        return new RichIterator<>() {
+            @Override protected boolean hasNextInternal()                    { return RichDoubleIterator.this.hasNext()                 ; }
+            @Override protected Y       nextInternal   ()                    { return mapper.apply(RichDoubleIterator.this.nextDouble()); }
+            @Override protected void    closeInternal  () throws IOException { RichDoubleIterator.this.releaseResources()               ; }
+            @Override protected void    setUsed        ()                    { RichDoubleIterator.this.setUsed(); super.setUsed()        ; }
+        };
+    }
+
+    public final RichIterator<Double> boxed() { return mapToObj(Double::valueOf); }
+
+    public final RichDoubleIterator filter(DoublePredicate predicate) {
+        ensureValidState();
+        notNull(predicate);
+        return new RichDoubleIterator(this) {
+            private boolean peeked = false;
+            private double  next;
+
+            @Override
+            protected boolean hasNextInternal() {
+                while (!peeked && RichDoubleIterator.this.hasNextInternal()) {
+                    double candidate = RichDoubleIterator.this.nextDoubleInternal();
+                    if (predicate.test(candidate)) {
+                        next   = candidate;
+                        peeked = true;
+                    }
+                }
+                return peeked;
+            }
+
+            @Override
+            protected double nextDoubleInternal() {
+                // callers always check hasNextInternal() first, which peeks the next matching element
+                peeked = false;
+                return next;
+            }
+        };
+    }
+
+    public final RichDoubleIterator take(int n) {
+        ensureValidState();
+        Check.notNegative(n);
+        return new RichDoubleIterator(this) {
+            private int remaining = n;
+
+            @Override protected boolean hasNextInternal   () { return remaining > 0 && RichDoubleIterator.this.hasNextInternal(); }
+            @Override protected double  nextDoubleInternal() { remaining--; return RichDoubleIterator.this.nextDoubleInternal() ; }
+        };
+    }
+
+    public final RichDoubleIterator drop(int n) {
+        ensureValidState();
+        Check.notNegative(n);
+        return new RichDoubleIterator(this) {
+            private int toDrop = n;
+
+            @Override
+            protected boolean hasNextInternal() {
+                for (; toDrop > 0 && RichDoubleIterator.this.hasNextInternal(); toDrop--) RichDoubleIterator.this.nextDoubleInternal();
+                return RichDoubleIterator.this.hasNextInternal();
+            }
+
+            @Override protected double nextDoubleInternal() { return RichDoubleIterator.this.nextDoubleInternal(); }
+        };
+    }
+
+    public final RichDoubleIterator takeWhile(DoublePredicate predicate) {
+        ensureValidState();
+        notNull(predicate);
+        return new RichDoubleIterator(this) {
+            private boolean peeked = false;
+            private boolean done   = false;
+            private double  next;
+
+            @Override
+            protected boolean hasNextInternal() {
+                if (peeked) return true;
+                if (done || !RichDoubleIterator.this.hasNextInternal()) return false;
+                next = RichDoubleIterator.this.nextDoubleInternal();
+                return peeked = !(done = !predicate.test(next));
+            }
+
+            @Override
+            protected double nextDoubleInternal() {
+                peeked = false;
+                return next;
+            }
+        };
+    }
+
+    /// Zips each element with its index without allocating a pair: the index of the element last returned by [#nextDouble()] is exposed by
+    /// [Indexed#index()]
+    public final Indexed zipWithIndex() {
+        ensureValidState();
+        return new Indexed(this);
+    }
+
+    /// Combines the elements of this iterator in order. Consistently with [RichIterator#fold(Object, java.util.function.BiFunction)], the
+    /// combiner receives the current element as first argument and the accumulated value as second argument.
+    public final double fold(double initialValue, DoubleBinaryOperator combiner) {
+        startTerminalOperation();
+        double res = initialValue;
+        while (hasNextInternal()) {
+            res = combiner.applyAsDouble(nextDoubleInternal(), res);
+            count++;
+        }
+        releaseResourcesUnchecked();
+        return res;
+    }
+
+    public final double sum() {
+        startTerminalOperation();
+        double sum = 0;
+        while (hasNextInternal()) {
+            sum += nextDoubleInternal();
+            count++;
+        }
+        releaseResourcesUnchecked();
+        return sum;
+    }
+
+    public final long count() {
+        startTerminalOperation();
+        while (hasNextInternal()) {
+            nextDoubleInternal();
+            count++;
+        }
+        releaseResourcesUnchecked();
+        return count;
+    }
+
+    public final OptionalDouble min() { return reduce(Math::min); }
+    public final OptionalDouble max() { return reduce(Math::max); }
+
+    public final OptionalDouble reduce(DoubleBinaryOperator op) {
+        startTerminalOperation();
+        if (!hasNext()) return OptionalDouble.empty();
+
+        double res = nextDoubleInternal();
+        count++;
+        while (hasNextInternal()) {
+            res = op.applyAsDouble(res, nextDoubleInternal());
+            count++;
+        }
+        releaseResourcesUnchecked();
+        return OptionalDouble.of(res);
+    }
+
+    public final void foreach(DoubleConsumer consumer) {
+        startTerminalOperation();
+        while (hasNextInternal()) {
+            consumer.accept(nextDoubleInternal());
+            count++;
+        }
+        releaseResourcesUnchecked();
+    }
+
+    @Override
+    public final void forEachRemaining(DoubleConsumer action) {
+        ensureNotClosed();
+        while (hasNextInternal()) {
+            action.accept(nextDoubleInternal());
+            count++;
+        }
+        releaseResourcesUnchecked();
+    }
+
+    public final double[] toArray() {
+        startTerminalOperation();
+        double[] res  = new double[16];
+        int      size = 0;
+        while (hasNextInternal()) {
+            if (size == res.length) res = Arrays.copyOf(res, RichIntIterator.newCapacity(size));
+            res[size++] = nextDoubleInternal();
+        }
+        count += size;
+        releaseResourcesUnchecked();
+        return size == res.length ? res : Arrays.copyOf(res, size);
+    }
+
+    public static final class Indexed extends RichDoubleIterator {
+        private final RichDoubleIterator it;
+        private long index = -1;
+
+        private Indexed(RichDoubleIterator it) {
+            super(it);
+            this.it = it;
+        }
+
+        @Override protected boolean hasNextInternal() { return it.hasNextInternal(); }
+
+        @Override
+        protected double nextDoubleInternal() {
+            index++;
+            return it.nextDoubleInternal();
+        }
+
+        /// @return the index of the last element returned by this iterator, or -1 if no element was consumed yet
+        public long index() { return index; }
+    }
+}
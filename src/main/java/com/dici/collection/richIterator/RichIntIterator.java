@@ -1,38 +1,345 @@
 package com.dici.collection.richIterator;
 
+import static com.dici.check.Check.notNull;
+
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.OptionalInt;
+import java.util.PrimitiveIterator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
 
 import com.dici.check.Check;
+import com.dici.exceptions.ExceptionUtils.ThrowingConsumer;
 
-public class RichIntIterator extends RichIteratorDecorator<Integer, Integer, RichIterator<Integer>> {
+/// An `int` specialization of [RichIterator] which never boxes its elements unless explicitly requested with [#boxed()] or [#next()]. Like
+/// [java.util.stream.IntStream] for [java.util.stream.Stream], it is not a subtype of `RichIterator<Integer>` but can be converted from and to
+/// it with [#boxed()], [#mapToObj(IntFunction)] and [RichIterator#mapToInt(java.util.function.ToIntFunction)].
+public abstract class RichIntIterator extends PrimitiveRichIterator implements PrimitiveIterator.OfInt, Iterable<Integer> {
     public static RichIntIterator counter() { return counter(0); }
-	public static RichIntIterator counter(int init) {
-		return new RichIntIterator(new RichIterator<>() {
-			private Integer count = init;
-			
-			@Override
-			protected Integer nextInternal() {
-				if (count.equals(Integer.MAX_VALUE)) throw new IllegalStateException("Integer capacity exceeded");
-				return count++;
-			}
-			
-			@Override
-			protected boolean hasNextInternal() { return !count.equals(Integer.MAX_VALUE); }
-		});
-	}
-	
-	public static RichIntIterator range(int from, int to) {
-		Check.isGreaterThan(to,from,"Empty range");
-		return new RichIntIterator(counter(from).takeWhile(i -> i < to));
-	}
-
-	public static RichIntIterator closedRange(int from, int until) {
-		Check.isGreaterOrEqual(until,from);
-		return new RichIntIterator(counter(from).takeUntil(i -> i == until));
-	}
-
-	private RichIntIterator(Iterator<Integer> it) { super(RichIterators.wrap(it)); }
-
-	@Override protected Integer nextInternal   () throws Exception { return it.nextInternal   (); }
-	@Override protected boolean hasNextInternal() throws Exception { return it.hasNextInternal(); }
+    public static RichIntIterator counter(int init) {
+        return new RichIntIterator() {
+            private int next = init;
+
+            @Override
+            protected int nextIntInternal() {
+                if (next == Integer.MAX_VALUE) throw new IllegalStateException("Integer capacity exceeded");
+                return next++;
+            }
+
+            @Override
+            protected boolean hasNextInternal() { return next != Integer.MAX_VALUE; }
+        };
+    }
+
+    public static RichIntIterator range(int from, int to) {
+        Check.isGreaterThan(to,from,"Empty range");
+        return new RangeIterator(from, to - 1);
+    }
+
+    public static RichIntIterator closedRange(int from, int until) {
+        Check.isGreaterOrEqual(until,from);
+        return new RangeIterator(from, until);
+    }
+
+    public static RichIntIterator of(int... elts) {
+        notNull(elts);
+        return new RichIntIterator() {
+            private int i = 0;
+
+            @Override protected boolean hasNextInternal() { return i < elts.length; }
+            @Override protected int     nextIntInternal() { return elts[i++]      ; }
+        };
+    }
+
+    protected RichIntIterator() { }
+    protected RichIntIterator(PrimitiveRichIterator upstream) { super(upstream); }
+
+    protected abstract int nextIntInternal();
+
+    @Override
+    public final int nextInt() {
+        ensureNotClosed();
+        if (!hasNext()) throw new NoSuchElementException();
+        count++;
+        return nextIntInternal();
+    }
+
+    @Override
+    public final Iterator<Integer> iterator() {
+        ensureValidState();
+        setUsed();
+        return this;
+    }
+
+    public final RichIntIterator onClose(ThrowingConsumer<Long> onClose) {
+        setOnClose(onClose);
+        return this;
+    }
+
+    public final RichIntIterator map(IntUnaryOperator mapper) {
+        ensureValidState();
+        notNull(mapper);
+        return new RichIntIterator(this) {
+            @Override protected boolean hasNextInternal() { return RichIntIterator.this.hasNextInternal()                    ; }
+            @Override protected int     nextIntInternal() { return mapper.applyAsInt(RichIntIterator.this.nextIntInternal()); }
+        };
+    }
+
+    public final RichLongIterator mapToLong(IntToLongFunction mapper) {
+        ensureValidState();
+        notNull(mapper);
+        return new RichLongIterator(this) {
+            @Override protected boolean hasNextInternal () { return RichIntIterator.this.hasNextInternal()                     ; }
+            @Override protected long    nextLongInternal() { return mapper.applyAsLong(RichIntIterator.this.nextIntInternal()); }
+        };
+    }
+
+    public final RichDoubleIterator mapToDouble(IntToDoubleFunction mapper) {
+        ensureValidState();
+        notNull(mapper);
+        return new RichDoubleIterator(this) {
+            @Override protected boolean hasNextInternal   () { return RichIntIterator.this.hasNextInternal()                       ; }
+            @Override protected double  nextDoubleInternal() { return mapper.applyAsDouble(RichIntIterator.this.nextIntInternal()); }
+        };
+    }
+
+    public final RichLongIterator   asLongIterator  () { return mapToLong  (i -> i); }
+    public final RichDoubleIterator asDoubleIterator() { return mapToDouble(i -> i); }
+
+    public final <Y> RichIterator<Y> mapToObj(IntFunction<Y> mapper) {
+        ensureValidState();
+        notNull(mapper);
+        return new RichIterator<>() {
+            @Override protected boolean hasNextInternal()                    { return RichIntIterator.this.hasNext()            ; }
+            @Override protected Y       nextInternal   ()                    { return mapper.apply(RichIntIterator.this.nextInt()); }
+            @Override protected void    closeInternal  () throws IOException { RichIntIterator.this.releaseResources()          ; }
+            @Override protected void    setUsed        ()                    { RichIntIterator.this.setUsed(); super.setUsed()   ; }
+        };
+    }
+
+    public final RichIterator<Integer> boxed() { return mapToObj(Integer::valueOf); }
+
+    public final RichIntIterator filter(IntPredicate predicate) {
+        ensureValidState();
+        notNull(predicate);
+        return new RichIntIterator(this) {
+            private boolean peeked = false;
+            private int     next;
+
+            @Override
+            protected boolean hasNextInternal() {
+                while (!peeked && RichIntIterator.this.hasNextInternal()) {
+                    int candidate = RichIntIterator.this.nextIntInternal();
+                    if (predicate.test(candidate)) {
+                        next   = candidate;
+                        peeked = true;
+                    }
+                }
+                return peeked;
+            }
+
+            @Override
+            protected int nextIntInternal() {
+                // callers always check hasNextInternal() first, which peeks the next matching element
+                peeked = false;
+                return next;
+            }
+        };
+    }
+
+    public final RichIntIterator take(int n) {
+        ensureValidState();
+        Check.notNegative(n);
+        return new RichIntIterator(this) {
+            private int remaining = n;
+
+            @Override protected boolean hasNextInternal() { return remaining > 0 && RichIntIterator.this.hasNextInternal(); }
+            @Override protected int     nextIntInternal() { remaining--; return RichIntIterator.this.nextIntInternal()     ; }
+        };
+    }
+
+    public final RichIntIterator drop(int n) {
+        ensureValidState();
+        Check.notNegative(n);
+        return new RichIntIterator(this) {
+            private int toDrop = n;
+
+            @Override
+            protected boolean hasNextInternal() {
+                for (; toDrop > 0 && RichIntIterator.this.hasNextInternal(); toDrop--) RichIntIterator.this.nextIntInternal();
+                return RichIntIterator.this.hasNextInternal();
+            }
+
+            @Override protected int nextIntInternal() { return RichIntIterator.this.nextIntInternal(); }
+        };
+    }
+
+    public final RichIntIterator takeWhile(IntPredicate predicate) {
+        ensureValidState();
+        notNull(predicate);
+        return new RichIntIterator(this) {
+            private boolean peeked = false;
+            private boolean done   = false;
+            private int     next;
+
+            @Override
+            protected boolean hasNextInternal() {
+                if (peeked) return true;
+                if (done || !RichIntIterator.this.hasNextInternal()) return false;
+                next = RichIntIterator.this.nextIntInternal();
+                return peeked = !(done = !predicate.test(next));
+            }
+
+            @Override
+            protected int nextIntInternal() {
+                peeked = false;
+                return next;
+            }
+        };
+    }
+
+    /// Zips each element with its index without allocating a pair: the index of the element last returned by [#nextInt()] is exposed by
+    /// [Indexed#index()]
+    public final Indexed zipWithIndex() {
+        ensureValidState();
+        return new Indexed(this);
+    }
+
+    /// Combines the elements of this iterator in order. Consistently with [RichIterator#fold(Object, java.util.function.BiFunction)], the
+    /// combiner receives the current element as first argument and the accumulated value as second argument.
+    public final int fold(int initialValue, IntBinaryOperator combiner) {
+        startTerminalOperation();
+        int res = initialValue;
+        while (hasNextInternal()) {
+            res = combiner.applyAsInt(nextIntInternal(), res);
+            count++;
+        }
+        releaseResourcesUnchecked();
+        return res;
+    }
+
+    /// @return the sum of the elements, computed as a `long` so that large iterators do not overflow
+    public final long sum() {
+        startTerminalOperation();
+        long sum = 0;
+        while (hasNextInternal()) {
+            sum += nextIntInternal();
+            count++;
+        }
+        releaseResourcesUnchecked();
+        return sum;
+    }
+
+    public final long count() {
+        startTerminalOperation();
+        while (hasNextInternal()) {
+            nextIntInternal();
+            count++;
+        }
+        releaseResourcesUnchecked();
+        return count;
+    }
+
+    public final OptionalInt min() { return reduce(Math::min); }
+    public final OptionalInt max() { return reduce(Math::max); }
+
+    public final OptionalInt reduce(IntBinaryOperator op) {
+        startTerminalOperation();
+        if (!hasNext()) return OptionalInt.empty();
+
+        int res = nextIntInternal();
+        count++;
+        while (hasNextInternal()) {
+            res = op.applyAsInt(res, nextIntInternal());
+            count++;
+        }
+        releaseResourcesUnchecked();
+        return OptionalInt.of(res);
+    }
+
+    public final void foreach(IntConsumer consumer) {
+        startTerminalOperation();
+        while (hasNextInternal()) {
+            consumer.accept(nextIntInternal());
+            count++;
+        }
+        releaseResourcesUnchecked();
+    }
+
+    @Override
+    public final void forEachRemaining(IntConsumer action) {
+        ensureNotClosed();
+        while (hasNextInternal()) {
+            action.accept(nextIntInternal());
+            count++;
+        }
+        releaseResourcesUnchecked();
+    }
+
+    public final int[] toArray() {
+        startTerminalOperation();
+        int[] res  = new int[16];
+        int   size = 0;
+        while (hasNextInternal()) {
+            if (size == res.length) res = Arrays.copyOf(res, newCapacity(size));
+            res[size++] = nextIntInternal();
+        }
+        count += size;
+        releaseResourcesUnchecked();
+        return size == res.length ? res : Arrays.copyOf(res, size);
+    }
+
+    static int newCapacity(int size) {
+        if (size == Integer.MAX_VALUE - 8) throw new OutOfMemoryError("Required array size too large");
+        return (int) Math.min(2L * size, Integer.MAX_VALUE - 8);
+    }
+
+    public static final class Indexed extends RichIntIterator {
+        private final RichIntIterator it;
+        private long index = -1;
+
+        private Indexed(RichIntIterator it) {
+            super(it);
+            this.it = it;
+        }
+
+        @Override protected boolean hasNextInternal() { return it.hasNextInternal(); }
+
+        @Override
+        protected int nextIntInternal() {
+            index++;
+            return it.nextIntInternal();
+        }
+
+        /// @return the index of the last element returned by this iterator, or -1 if no element was consumed yet
+        public long index() { return index; }
+    }
+
+    private static final class RangeIterator extends RichIntIterator {
+        private final int until;
+        private int next;
+        private boolean exhausted = false;
+
+        private RangeIterator(int from, int until) {
+            this.next  = from;
+            this.until = until;
+        }
+
+        @Override protected boolean hasNextInternal() { return !exhausted; }
+
+        @Override
+        protected int nextIntInternal() {
+            // avoids overflowing when until == Integer.MAX_VALUE
+            if (next == until) exhausted = true;
+            return exhausted ? next : next++;
+        }
+    }
 }
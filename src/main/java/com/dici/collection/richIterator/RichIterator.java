@@ -1,9 +1,8 @@
 package com.dici.collection.richIterator;
 
-import static com.dici.exceptions.ExceptionUtils.uncheckExceptionsAndGet;
+import static com.dici.check.Check.notNull;
 import static com.dici.exceptions.ExceptionUtils.uncheckedBinaryOperator;
 import static com.dici.exceptions.ExceptionUtils.uncheckedConsumer;
-import static com.dici.exceptions.ExceptionUtils.uncheckedRunnable;
 import static com.dici.exceptions.ExceptionUtils.uncheckedUnaryOperator;
 import static java.util.stream.Collectors.joining;
 
@@ -11,6 +10,7 @@ import java.io.BufferedWriter;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -20,17 +20,22 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import com.dici.check.Check;
+import com.dici.exceptions.ExceptionUtils.ThrowingBiFunction;
 import com.dici.exceptions.ExceptionUtils.ThrowingBinaryOperator;
 import com.dici.exceptions.ExceptionUtils.ThrowingConsumer;
 import com.dici.exceptions.ExceptionUtils.ThrowingFunction;
 import com.dici.exceptions.ExceptionUtils.ThrowingPredicate;
 import com.dici.exceptions.ExceptionUtils.ThrowingUnaryOperator;
 import com.google.common.base.Objects;
-import com.google.common.collect.Streams;
 import javafx.util.Pair;
 
 public abstract class RichIterator<X> implements Iterator<X>, Iterable<X>, Closeable, AutoCloseable {
@@ -55,6 +60,7 @@ public abstract class RichIterator<X> implements Iterator<X>, Iterable<X>, Close
     private boolean                used              = false;
     private boolean                releasedResources = false;
     private long                   count             = 0;
+    private boolean                readInBatches     = false;
     private ThrowingConsumer<Long> onClose;
 
 	public Iterator<X> iterator() {
@@ -63,19 +69,62 @@ public abstract class RichIterator<X> implements Iterator<X>, Iterable<X>, Close
 		return this;
 	}
 
+	// the checked exceptions are wrapped inline rather than with ExceptionUtils to avoid allocating a method reference for every element
 	@Override
-	public final boolean hasNext() { return !closed && !releasedResources && uncheckExceptionsAndGet(this::hasNextInternal); }
+	public final boolean hasNext() {
+		if (closed || releasedResources) return false;
+		try {
+			return hasNextInternal();
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
 
 	@Override
 	public final X next() {
 		ensureNotClosed();
 		if (!hasNext()) throw new NoSuchElementException();
-		X next = uncheckExceptionsAndGet(this::nextInternal);
-		if (!hasNext()) uncheckedRunnable(this::releaseResources);
+		X next;
+		try {
+			next = nextInternal();
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+		if (!hasNext()) releaseResourcesUnchecked();
 		count++;
 		return next;
 	}
 	
+	/**
+	 * Bulk version of {@link #next()}, which lets the sources and the stages which support it process the elements in a tight loop rather than
+	 * one call per element. The batch must be exactly an {@code Object[]}, as the stages may store the elements of their upstream iterator in it
+	 * before transforming them, which an array of a more specific type would reject.
+	 * @return the number of elements copied into {@code dest}, which is only lower than its length if this iterator has been exhausted
+	 * @throws IllegalArgumentException if {@code dest} is not exactly an {@code Object[]}
+	 */
+	public final int nextBatch(Object[] dest) { return nextBatch(dest, 0, dest.length); }
+	
+	public final int nextBatch(Object[] dest, int offset, int length) {
+		Check.isTrue(dest.getClass() == Object[].class, "The batch should be an Object[], not a " + dest.getClass().getSimpleName());
+		java.util.Objects.checkFromIndexSize(offset, length, dest.length);
+		return nextBatchUnsafe(dest, offset, length);
+	}
+	
+	// used by the stages which pass their own array, without checking its type
+	final int nextBatchUnsafe(Object[] dest, int offset, int length) {
+		ensureNotClosed();
+		if (releasedResources) return 0;
+		int n;
+		try {
+			n = nextBatchInternal(dest, offset, length);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+		if (!hasNext()) releaseResourcesUnchecked();
+		count += n;
+		return n;
+	}
+	
 	@Override
 	public final void close() throws IOException {
 		if (closed) return;
@@ -99,9 +148,28 @@ public abstract class RichIterator<X> implements Iterator<X>, Iterable<X>, Close
 	    closeInternal();
 	}
 	
+	private void releaseResourcesUnchecked() {
+		try {
+			releaseResources();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
 	protected abstract boolean hasNextInternal() throws Exception;
 	protected abstract X nextInternal() throws Exception;
 	
+	/**
+	 * Copies up to {@code length} elements in {@code dest}, starting at index {@code offset}. This can be overridden by the iterators which can
+	 * produce several elements more efficiently than with one call to {@link #nextInternal()} each, which is the default implementation.
+	 * @return the number of elements copied, which can only be lower than {@code length} if this iterator has been exhausted
+	 */
+	protected int nextBatchInternal(Object[] dest, int offset, int length) throws Exception {
+		int n = 0;
+		while (n < length && hasNextInternal()) dest[offset + n++] = nextInternal();
+		return n;
+	}
+	
 	/**
 	 * Should not be called explicitly by a subclass. Use releaseResources instead.
 	 * @throws IOException
@@ -115,7 +183,57 @@ public abstract class RichIterator<X> implements Iterator<X>, Iterable<X>, Close
 	
 	public final <Y> RichIterator<Y> map(ThrowingFunction<X,Y> function) { 
 		ensureValidState();
-		return new MappedRichIterator<>(this,function); 
+		return FusedRichIterator.map(this,function); 
+	}
+	
+	/**
+	 * Maps the elements concurrently on virtual threads, which is useful for blocking functions such as remote calls. At most {@code concurrency}
+	 * elements are being mapped or waiting to be consumed at any time. The elements are returned in the same order as the input.
+	 */
+	public final <Y> RichIterator<Y> mapAsync(int concurrency, ThrowingFunction<X,Y> function) {
+		ensureValidState();
+		return new AsyncMappedRichIterator<>(this,concurrency,function,true);
+	}
+	
+	/**
+	 * Same as {@link #mapAsync(int, ThrowingFunction)}, except that the elements are returned as soon as they are mapped, in completion order
+	 */
+	public final <Y> RichIterator<Y> mapAsyncUnordered(int concurrency, ThrowingFunction<X,Y> function) {
+		ensureValidState();
+		return new AsyncMappedRichIterator<>(this,concurrency,function,false);
+	}
+	
+	public final RichIntIterator mapToInt(ToIntFunction<? super X> mapper) {
+		ensureValidState();
+		notNull(mapper);
+		return new RichIntIterator() {
+			@Override protected boolean hasNextInternal()                    { return RichIterator.this.hasNext()                ; }
+			@Override protected int     nextIntInternal()                    { return mapper.applyAsInt(RichIterator.this.next()); }
+			@Override protected void    closeInternal  () throws IOException { RichIterator.this.releaseResources()              ; }
+			@Override protected void    setUsed        ()                    { RichIterator.this.setUsed(); super.setUsed()       ; }
+		};
+	}
+
+	public final RichLongIterator mapToLong(ToLongFunction<? super X> mapper) {
+		ensureValidState();
+		notNull(mapper);
+		return new RichLongIterator() {
+			@Override protected boolean hasNextInternal ()                    { return RichIterator.this.hasNext()                 ; }
+			@Override protected long    nextLongInternal()                    { return mapper.applyAsLong(RichIterator.this.next()); }
+			@Override protected void    closeInternal   () throws IOException { RichIterator.this.releaseResources()               ; }
+			@Override protected void    setUsed         ()                    { RichIterator.this.setUsed(); super.setUsed()        ; }
+		};
+	}
+
+	public final RichDoubleIterator mapToDouble(ToDoubleFunction<? super X> mapper) {
+		ensureValidState();
+		notNull(mapper);
+		return new RichDoubleIterator() {
+			@Override protected boolean hasNextInternal   ()                    { return RichIterator.this.hasNext()                   ; }
+			@Override protected double  nextDoubleInternal()                    { return mapper.applyAsDouble(RichIterator.this.next()); }
+			@Override protected void    closeInternal     () throws IOException { RichIterator.this.releaseResources()                 ; }
+			@Override protected void    setUsed           ()                    { RichIterator.this.setUsed(); super.setUsed()          ; }
+		};
 	}
 	
 	public final <Y> RichIterator<Y> flatMap(ThrowingFunction<X,? extends Iterable<Y>> function) { 
@@ -125,7 +243,7 @@ public abstract class RichIterator<X> implements Iterator<X>, Iterable<X>, Close
 	
 	public final RichIterator<X> filter(ThrowingPredicate<X> predicate) { 
 		ensureValidState();
-		return new FilteredRichIterator<>(this,predicate); 
+		return FusedRichIterator.filter(this,predicate); 
 	}
 	
 	public final <K,V> PairRichIterator<K,V> mapToPair(ThrowingFunction<X,K> keyFunction, ThrowingFunction<X,V> valueFunction) {
@@ -140,7 +258,7 @@ public abstract class RichIterator<X> implements Iterator<X>, Iterable<X>, Close
 	
 	public final PairRichIterator<Integer,X> zipWithIndex() {
 		ensureValidState();
-		return new ZippedRichIterator<>(RichIntIterator.counter(),this);
+		return new ZippedRichIterator<>(RichIntIterator.counter().boxed(),this);
 	}
 	
 	public final <Y extends X> RichIterator<X> concat(RichIterator<Y> that) {
@@ -168,6 +286,21 @@ public abstract class RichIterator<X> implements Iterator<X>, Iterable<X>, Close
         return new SlidingRichIterator<>(this, window, step);
     }
 	
+	/**
+	 * Combines each element with the previous one, lazily and in constant memory. For example, {@code of(1, 2, 5).scan((prev, next) -> next - prev)}
+	 * yields {@code [1, 3]}. An iterator with less than two elements yields nothing.
+	 */
+	public final <Y> RichIterator<Y> scan(ThrowingBiFunction<X,X,Y> op) {
+		ensureValidState();
+		return new ScanRichIterator<>(this, op);
+	}
+
+	/** Pairs of consecutive elements, i.e. {@code (x0, x1), (x1, x2), ...}. See {@link #scan(ThrowingBiFunction)}. */
+	public final PairRichIterator<X,X> pairwise() {
+		ensureValidState();
+		return new PairRichIterator<>(new ScanRichIterator<>(this, Pair::new));
+	}
+	
 	public final RichIterator<X> take(int n) {
 		ensureValidState();
 		return TakeRichIterator.take(this, n);
@@ -200,7 +333,16 @@ public abstract class RichIterator<X> implements Iterator<X>, Iterable<X>, Close
 
 	public final RichIterator<X> distinct() {
 		ensureValidState();
-		return new DistinctRichIterator<>(this);
+		return DistinctRichIterator.distinct(this);
+	}
+	
+	/**
+	 * Removes the duplicate elements while bounding the memory used to remember the elements already seen. See {@link DistinctOptions.Mode} for
+	 * the guarantees of each mode.
+	 */
+	public final RichIterator<X> distinct(DistinctOptions<X, ?> options) {
+		ensureValidState();
+		return DistinctRichIterator.distinct(this,notNull(options));
 	}
 	
 	public final RichIterator<X> sorted(Comparator<? super X> cmp) {
@@ -209,6 +351,16 @@ public abstract class RichIterator<X> implements Iterator<X>, Iterable<X>, Close
 	}
 	
 	public final RichIterator<X> sorted() { return sorted(null); }
+	
+	/**
+	 * Sorts the elements without keeping them all in memory: sorted runs are spilled to temporary files whenever the memory budget of the options
+	 * is exceeded, and merged lazily. The temporary files are deleted once this iterator is exhausted or closed.
+	 * @param cmp the comparator to sort the elements with, or null for their natural order
+	 */
+	public final RichIterator<X> sorted(Comparator<? super X> cmp, SortOptions<X> options) {
+		ensureValidState();
+		return new ExternalSortedRichIterator<>(this,cmp,notNull(options));
+	}
 
 	public final Optional<X> max(Comparator<? super X> cmp) { return stream().max(cmp); }
 	public final Optional<X> min(Comparator<? super X> cmp) { return stream().min(cmp); }
@@ -222,11 +374,33 @@ public abstract class RichIterator<X> implements Iterator<X>, Iterable<X>, Close
 		return res;
 	}
 	
+	/**
+	 * Applies the functions mapped directly after this stage on a dedicated pool of threads, in batches of elements read sequentially from this
+	 * iterator. The order of the elements is preserved, and the pool is shut down once the iterator is exhausted or closed. Any other stage
+	 * (e.g. a filter) applied after the parallel maps is executed sequentially by the consumer's thread, as well as the following maps.
+	 * @param parallelism the number of threads to map the elements with
+	 */
+	public final RichIterator<X> parallel(int parallelism) {
+		ensureValidState();
+		return ParallelRichIterator.parallel(this,parallelism);
+	}
+	
 	public final RichIterator<X> buffered(int size) {
 		ensureValidState();
 		return new BufferedRichIterator<>(this, size);
 	}
 	
+	/**
+	 * Reads this iterator ahead of the consumer on a background virtual thread, so that I/O-bound sources do not stall the consumer on every read.
+	 * Exceptions thrown by this iterator are propagated to the consumer, and closing the returned iterator stops the background thread before
+	 * releasing the resources of this one.
+	 * @param depth the maximum number of elements read ahead of the consumer
+	 */
+	public final RichIterator<X> prefetch(int depth) {
+		ensureValidState();
+		return new PrefetchRichIterator<>(this, depth);
+	}
+	
 	public final boolean contains(Object o) {
 	    ensureValidState();	
 	    setUsed();
@@ -239,7 +413,21 @@ public abstract class RichIterator<X> implements Iterator<X>, Iterable<X>, Close
 	
 	public final Optional<X> reduce(ThrowingBinaryOperator<X> binaryOp) { return stream().reduce(uncheckedBinaryOperator(binaryOp)); }
 	public final void foreach(ThrowingConsumer<X> consumer)             { stream().forEach(uncheckedConsumer(consumer)); }
-	public final long count()                                           { return stream().count(); }
+	
+	// not implemented with a stream, which would not consume the elements of a sized iterator and thus pass a wrong count to onClose
+	public final long count() {
+		ensureValidState();
+		setUsed();
+		
+		long res = 0;
+		if (readsInBatches()) {
+			Object[] batch = new Object[RichIteratorSpliterator.BATCH_UNIT];
+			for (int n; (n = nextBatchUnsafe(batch, 0, batch.length)) > 0; ) res += n;
+		} else {
+			for (; hasNext(); res++) next();
+		}
+		return res;
+	}
 	
 	public final String mkString()                                      { return mkString("");                                                        }
 	public final String mkString(String sep)                            { return mkString("",sep,"");                                                 }
@@ -308,9 +496,9 @@ public abstract class RichIterator<X> implements Iterator<X>, Iterable<X>, Close
 	public final boolean exists(ThrowingPredicate<X> predicate) { return  findAny(predicate).isPresent(); }
 	
 	/* Java does not have lower bounds except for wildcards nor variant types, which causes problems in expressions such as
-	 *     List<Move> moves = RichIntIterator.range(1, 3).map(VerticalMove::new).toList()
+	 *     List<Move> moves = RichIntIterator.range(1, 3).mapToObj(VerticalMove::new).toList()
 	 * because it will be typed as List<VerticalMove>. As a fix, we propose to write 
-	 *     List<Move> moves = RichIntIterator.range(1, 3).map(VerticalMove::new).asType(Move.class).toList()
+	 *     List<Move> moves = RichIntIterator.range(1, 3).mapToObj(VerticalMove::new).asType(Move.class).toList()
 	 * This is a shame, but as for now that's the way it is.
 	 */
 	public final <Y> RichIterator<Y> asType(Class<Y> clazz) {
@@ -322,11 +510,39 @@ public abstract class RichIterator<X> implements Iterator<X>, Iterable<X>, Close
 	public final Set<X> toSet() { return stream().collect(Collectors.toSet()); }
 	public final <K,V> Map<K,V> toMap(ThrowingFunction<X,K> keyFunction, ThrowingFunction<X,V> valueFunction) { return mapToPair(keyFunction,valueFunction).toMap(); }
 	
+	/**
+	 * The returned stream can be made parallel, in which case batches of elements are read sequentially from this iterator and processed by
+	 * other fork-join workers. It is sized if the source of the iterator is an array or a collection and all the stages preserve the number of
+	 * elements.
+	 */
 	public Stream<X> stream() { 
 		ensureValidState();
 		setUsed();
-		return Streams.stream((Iterator<X>) this);
+		return StreamSupport.stream(new RichIteratorSpliterator<>(this), false);
 	}
+	
+	/**
+	 * @return the exact number of remaining elements, or -1 if it is unknown without consuming the iterator
+	 */
+	long exactSizeIfKnown() { return -1; }
+	
+	/**
+	 * Lets the terminal operations ({@link #stream()}, {@link #foreach}, {@link #count()}...) read this iterator with {@link #nextBatch(Object[])},
+	 * which is faster for the sources which can produce many elements in one call, such as files. By default, they read the elements one by one,
+	 * except for in-memory sources. Only enable it if reading ahead is harmless: up to 1024 elements are then read before the first one is
+	 * processed, and they are counted as consumed even if processing one of them fails.
+	 */
+	public final RichIterator<X> readInBatches() {
+		ensureValidState();
+		readInBatches = true;
+		return this;
+	}
+	
+	/**
+	 * @return true if the terminal operations should read this iterator with {@link #nextBatch(Object[])}, which is only the case if it is cheap
+	 *         and never blocks, or if the user opted in with {@link #readInBatches()}
+	 */
+	boolean readsInBatches() { return readInBatches; }
 
 	private void ensureValidState() {
 		ensureNotClosed();
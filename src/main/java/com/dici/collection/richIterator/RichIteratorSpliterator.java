@@ -0,0 +1,75 @@
+package com.dici.collection.richIterator;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/// [Spliterator] backing [RichIterator#stream()]. The iterator itself can only be read sequentially, so splitting copies a batch of elements into
+/// an array which can then be traversed by another fork-join worker. As in [Spliterators#spliteratorUnknownSize(java.util.Iterator, int)], each
+/// batch is larger than the previous one to amortize the cost of splitting on long iterators while still producing some parallelism on short ones.
+///
+/// Splitting reads the iterator with [RichIterator#nextBatch(Object[])], so that the sources and stages supporting it are read in tight loops.
+/// Traversal only does so if [RichIterator#readsInBatches()], as reading ahead would delay the first elements of slow sources, and could even
+/// deadlock with a source waiting for the consumer. Otherwise, the elements are read one by one.
+///
+/// The spliterator is `SIZED` and `SUBSIZED` when the source knows its exact size, which is the case of the in-memory iterators (arrays and
+/// collections) and of the stages which do not change the number of elements.
+final class RichIteratorSpliterator<X> implements Spliterator<X> {
+    static final int BATCH_UNIT = 1 << 10;
+    static final int MAX_BATCH  = 1 << 25;
+
+    private final RichIterator<X> it;
+    private final int             characteristics;
+    private int                   batch = 0;
+
+    RichIteratorSpliterator(RichIterator<X> it) {
+        this.it              = it;
+        this.characteristics = it.exactSizeIfKnown() >= 0 ? ORDERED | SIZED | SUBSIZED : ORDERED;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super X> action) {
+        if (!it.hasNext()) return false;
+        action.accept(it.next());
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEachRemaining(Consumer<? super X> action) {
+        if (!it.readsInBatches()) {
+            while (it.hasNext()) action.accept(it.next());
+            return;
+        }
+
+        Object[] arr = new Object[(int) Math.min(estimateSize(), BATCH_UNIT)];
+        if (arr.length == 0) return;
+        for (int n; (n = it.nextBatchUnsafe(arr, 0, arr.length)) > 0; ) {
+            for (int i = 0; i < n; i++) action.accept((X) arr[i]);
+        }
+    }
+
+    @Override
+    public Spliterator<X> trySplit() {
+        long size = it.exactSizeIfKnown();
+        if (size == 0 || size == 1 || !it.hasNext()) return null;
+
+        int n = Math.min(batch + BATCH_UNIT, MAX_BATCH);
+        if (size > 0) n = (int) Math.min(n, size);
+
+        Object[] arr = new Object[n];
+        int      j   = it.nextBatchUnsafe(arr, 0, n);
+        if (j == 0) return null;
+        batch = j;
+        return Spliterators.spliterator(arr, 0, j, characteristics);
+    }
+
+    @Override
+    public long estimateSize() {
+        long size = it.exactSizeIfKnown();
+        return size >= 0 ? size : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() { return characteristics; }
+}
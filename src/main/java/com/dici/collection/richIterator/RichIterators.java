@@ -12,15 +12,24 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Reader;
 import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Stream;
 
+import com.dici.check.Check;
 import com.dici.files.TokenParser;
+import com.dici.io.ByteSlice;
 import com.dici.io.IOUtils;
+import com.dici.io.RecordCodec;
+import com.dici.io.RecordFileReader;
+import com.dici.io.RecordFileWriter;
 import com.google.common.base.Throwables;
 
 public class RichIterators {
@@ -28,7 +37,33 @@ public class RichIterators {
 	
 	@SafeVarargs
 	public static <T> RichIterator<T> of(T... elts)                            { return new ArrayRichIterator<>(elts); }
-	public static <T> RichIterator<T> fromCollection(Collection<T> collection) { return wrap(collection.iterator())  ; }
+	
+	// unlike wrap(collection.iterator()), knows its size so that its stream can be split evenly
+	public static <T> RichIterator<T> fromCollection(Collection<T> collection) {
+		Iterator<T> it   = collection.iterator();
+		int         size = collection.size();
+		return new RichIterator<T>() {
+			private int consumed = 0;
+			
+			@Override protected boolean hasNextInternal() { return it.hasNext()          ; }
+			@Override protected T       nextInternal   () { consumed++; return it.next(); }
+			
+			@Override
+			protected int nextBatchInternal(Object[] dest, int offset, int length) {
+				int n = 0;
+				while (n < length && it.hasNext()) dest[offset + n++] = it.next();
+				consumed += n;
+				return n;
+			}
+			
+			@Override
+			boolean readsInBatches() { return true; }
+			
+			@Override
+			long exactSizeIfKnown() { return isClosed() ? 0 : Math.max(size - consumed, 0); }
+		};
+	}
+	
 	public static <T> GroupedRichIterator<T> from2DArray(T[][] arr) { 
 		return GroupedRichIterator.create(new ArrayRichIterator<>(arr).map(ArrayRichIterator::new));
 	}
@@ -49,6 +84,41 @@ public class RichIterators {
 		}
 	}
 
+	/**
+	 * Zero-copy alternative to {@link #fromLines(File)}, which maps the file in memory and returns views over the bytes of each line rather than
+	 * decoded strings. The views can be decoded with {@link ByteSlice#decode(java.nio.charset.Charset)} (e.g. UTF-8) when needed, while
+	 * {@link ByteSlice#toString()} exposes one char per byte (ISO-8859-1). Files larger than 2 GB are supported, as long as each of their lines is
+	 * smaller than 2 GB.
+	 */
+	public static RichIterator<ByteSlice> mappedLines(File f) { return mappedLines(f, 1).get(0); }
+	
+	/**
+	 * Same as {@link #mappedLines(File)}, except that the file is split into at most {@code n} ranges of similar sizes, each starting at the
+	 * beginning of a line. Each range has its own iterator, so that several threads can scan a large file in parallel, and each line of the
+	 * file belongs to exactly one range. Fewer than {@code n} ranges are returned if the file does not contain enough lines.
+	 */
+	public static List<RichIterator<ByteSlice>> mappedLines(File f, int n) {
+		Check.isPositive(n);
+		long[] boundaries;
+		try (FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+			boundaries = MappedLinesRichIterator.lineAlignedBoundaries(channel, n);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		
+		List<RichIterator<ByteSlice>> ranges = new ArrayList<>();
+		try {
+			for (int i = 0; i < boundaries.length - 1; i++) {
+				FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.READ);
+				ranges.add(new MappedLinesRichIterator(channel, boundaries[i], boundaries[i + 1], MappedLinesRichIterator.DEFAULT_WINDOW_SIZE));
+			}
+			return ranges;
+		} catch (IOException e) {
+			IOUtils.closeAllQuietly(ranges);
+			throw new UncheckedIOException(e);
+		}
+	}
+	
 	public static RichIterator<String> tokens(File file, String token) { return TokenParser.parse(file, token); }
 	
 	public static RichIterator<Character> characters(File file) {
@@ -69,6 +139,16 @@ public class RichIterators {
                     return readUpTo != -1;
                 }
                 
+                @Override
+                protected int nextBatchInternal(Object[] dest, int offset, int length) throws Exception {
+                    int n = 0;
+                    while (n < length && hasNextInternal()) {
+                        int end = Math.min(readUpTo, index + length - n);
+                        while (index < end) dest[offset + n++] = chars[index++];
+                    }
+                    return n;
+                }
+                
                 @Override protected Character nextInternal ()                    { return chars[index++]; }
                 @Override protected void      closeInternal() throws IOException { source.close()       ; }
             };
@@ -78,6 +158,18 @@ public class RichIterators {
         }
 	}
 	
+	/**
+	 * Reads the records of a file written by a {@link RecordFileWriter}. Much faster and more compact than {@link #fromSerializedRecords(File, Class)},
+	 * which should only be used for files written with an {@link java.io.ObjectOutputStream}.
+	 */
+	public static <T> RichIterator<T> fromRecordFile(File f, RecordCodec<T> codec) {
+		try {
+			return wrap(new RecordFileReader<>(f, codec));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
 	@SuppressWarnings("resource")
 	public static <T> RichIterator<T> fromSerializedRecords(File f, Class<T> clazz) {
 		FileInputStream   fis = null; 
@@ -125,6 +217,18 @@ public class RichIterators {
 		return new ConcatenatedRichIterators<>(Stream.of(iterators).map(RichIterators::wrap).collect(toList()));
 	}
 	
+	/**
+	 * Lazily merges iterators sorted according to the same comparator into a single sorted iterator. Only the head of each iterator is held in
+	 * memory, and each element costs O(log k) comparisons for k iterators. The merge is stable: equal elements are returned in the order of the
+	 * iterators they come from.
+	 * @param cmp the order of the iterators, or null for their natural order
+	 */
+	public static <T> RichIterator<T> mergeSorted(Comparator<? super T> cmp, List<? extends RichIterator<T>> iterators) {
+		List<RichIterator<T>> sources = new ArrayList<>(notNull(iterators));
+		sources.forEach(Check::notNull);
+		return new SortedMergeRichIterator<>(cmp, sources);
+	}
+	
 	public static <T> RichIterator<T> emptyIterator() { return wrap(Collections.emptyIterator()); }
 }
 
@@ -1,38 +1,337 @@
 package com.dici.collection.richIterator;
 
+import static com.dici.check.Check.notNull;
+
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.PrimitiveIterator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
 
 import com.dici.check.Check;
+import com.dici.exceptions.ExceptionUtils.ThrowingConsumer;
 
-public class RichLongIterator extends RichIteratorDecorator<Long, Long, RichIterator<Long>> {
+/// A `long` specialization of [RichIterator] which never boxes its elements unless explicitly requested with [#boxed()] or [#next()]. See
+/// [RichIntIterator] for the relationship with [RichIterator].
+public abstract class RichLongIterator extends PrimitiveRichIterator implements PrimitiveIterator.OfLong, Iterable<Long> {
     public static RichLongIterator counter() { return counter(0); }
-	public static RichLongIterator counter(long init) {
-		return new RichLongIterator(new RichIterator<Long>() {
-        	private Long count = init;
-        	
-        	@Override
-        	protected Long nextInternal() throws Exception {
-        		if (count.equals(Long.MAX_VALUE)) throw new IllegalStateException("Long capacity exceeded");
-        		return count++;
-        	}
-        	
-        	@Override
-        	protected boolean hasNextInternal() throws Exception { return !count.equals(Long.MAX_VALUE); }
-        });
-	}
-
-	private RichLongIterator(Iterator<Long> it) { super(RichIterators.wrap(it)); }
-	
-	public static RichLongIterator range(long from, long to) {
-		Check.isGreaterThan(to,from,"Empty range");
-		return new RichLongIterator(counter(from).takeWhile(i -> i < to));
-	}
-
-	public static RichLongIterator closedRange(long from, long until) {
-		Check.isGreaterOrEqual(until,from);
-		return new RichLongIterator(counter(from).takeUntil(i -> i == until));
-	}
-
-    @Override protected boolean hasNextInternal() throws Exception { return it.hasNext(); }
-    @Override protected Long    nextInternal   () throws Exception { return it.next   (); }
+    public static RichLongIterator counter(long init) {
+        return new RichLongIterator() {
+            private long next = init;
+
+            @Override
+            protected long nextLongInternal() {
+                if (next == Long.MAX_VALUE) throw new IllegalStateException("Long capacity exceeded");
+                return next++;
+            }
+
+            @Override
+            protected boolean hasNextInternal() { return next != Long.MAX_VALUE; }
+        };
+    }
+
+    public static RichLongIterator range(long from, long to) {
+        Check.isGreaterThan(to,from,"Empty range");
+        return new RangeIterator(from, to - 1);
+    }
+
+    public static RichLongIterator closedRange(long from, long until) {
+        Check.isGreaterOrEqual(until,from);
+        return new RangeIterator(from, until);
+    }
+
+    public static RichLongIterator of(long... elts) {
+        notNull(elts);
+        return new RichLongIterator() {
+            private int i = 0;
+
+            @Override protected boolean hasNextInternal () { return i < elts.length; }
+            @Override protected long    nextLongInternal() { return elts[i++]      ; }
+        };
+    }
+
+    protected RichLongIterator() { }
+    protected RichLongIterator(PrimitiveRichIterator upstream) { super(upstream); }
+
+    protected abstract long nextLongInternal();
+
+    @Override
+    public final long nextLong() {
+        ensureNotClosed();
+        if (!hasNext()) throw new NoSuchElementException();
+        count++;
+        return nextLongInternal();
+    }
+
+    @Override
+    public final Iterator<Long> iterator() {
+        ensureValidState();
+        setUsed();
+        return this;
+    }
+
+    public final RichLongIterator onClose(ThrowingConsumer<Long> onClose) {
+        setOnClose(onClose);
+        return this;
+    }
+
+    public final RichLongIterator map(LongUnaryOperator mapper) {
+        ensureValidState();
+        notNull(mapper);
+        return new RichLongIterator(this) {
+            @Override protected boolean hasNextInternal () { return RichLongIterator.this.hasNextInternal()                      ; }
+            @Override protected long    nextLongInternal() { return mapper.applyAsLong(RichLongIterator.this.nextLongInternal()); }
+        };
+    }
+
+    public final RichIntIterator mapToInt(LongToIntFunction mapper) {
+        ensureValidState();
+        notNull(mapper);
+        return new RichIntIterator(this) {
+            @Override protected boolean hasNextInternal() { return RichLongIterator.this.hasNextInternal()                     ; }
+            @Override protected int     nextIntInternal() { return mapper.applyAsInt(RichLongIterator.this.nextLongInternal()); }
+        };
+    }
+
+    public final RichDoubleIterator mapToDouble(LongToDoubleFunction mapper) {
+        ensureValidState();
+        notNull(mapper);
+        return new RichDoubleIterator(this) {
+            @Override protected boolean hasNextInternal   () { return RichLongIterator.this.hasNextInternal()                        ; }
+            @Override protected double  nextDoubleInternal() { return mapper.applyAsDouble(RichLongIterator.this.nextLongInternal()); }
+        };
+    }
+
+    public final RichDoubleIterator asDoubleIterator() { return mapToDouble(l -> l); }
+
+    public final <Y> RichIterator<Y> mapToObj(LongFunction<Y> mapper) {
+        ensureValidState();
+        notNull(mapper);
+        return new RichIterator<>() {
+            @Override protected boolean hasNextInternal()                    { return RichLongIterator.this.hasNext()               ; }
+            @Override protected Y       nextInternal   ()                    { return mapper.apply(RichLongIterator.this.nextLong()); }
+            @Override protected void    closeInternal  () throws IOException { RichLongIterator.this.releaseResources()             ; }
+            @Override protected void    setUsed        ()                    { RichLongIterator.this.setUsed(); super.setUsed()      ; }
+        };
+    }
+
+    public final RichIterator<Long> boxed() { return mapToObj(Long::valueOf); }
+
+    public final RichLongIterator filter(LongPredicate predicate) {
+        ensureValidState();
+        notNull(predicate);
+        return new RichLongIterator(this) {
+            private boolean peeked = false;
+            private long    next;
+
+            @Override
+            protected boolean hasNextInternal() {
+                while (!peeked && RichLongIterator.this.hasNextInternal()) {
+                    long candidate = RichLongIterator.this.nextLongInternal();
+                    if (predicate.test(candidate)) {
+                        next   = candidate;
+                        peeked = true;
+                    }
+                }
+                return peeked;
+            }
+
+            @Override
+            protected long nextLongInternal() {
+                // callers always check hasNextInternal() first, which peeks the next matching element
+                peeked = false;
+                return next;
+            }
+        };
+    }
+
+    public final RichLongIterator take(int n) {
+        ensureValidState();
+        Check.notNegative(n);
+        return new RichLongIterator(this) {
+            private int remaining = n;
+
+            @Override protected boolean hasNextInternal () { return remaining > 0 && RichLongIterator.this.hasNextInternal(); }
+            @Override protected long    nextLongInternal() { remaining--; return RichLongIterator.this.nextLongInternal()   ; }
+        };
+    }
+
+    public final RichLongIterator drop(int n) {
+        ensureValidState();
+        Check.notNegative(n);
+        return new RichLongIterator(this) {
+            private int toDrop = n;
+
+            @Override
+            protected boolean hasNextInternal() {
+                for (; toDrop > 0 && RichLongIterator.this.hasNextInternal(); toDrop--) RichLongIterator.this.nextLongInternal();
+                return RichLongIterator.this.hasNextInternal();
+            }
+
+            @Override protected long nextLongInternal() { return RichLongIterator.this.nextLongInternal(); }
+        };
+    }
+
+    public final RichLongIterator takeWhile(LongPredicate predicate) {
+        ensureValidState();
+        notNull(predicate);
+        return new RichLongIterator(this) {
+            private boolean peeked = false;
+            private boolean done   = false;
+            private long    next;
+
+            @Override
+            protected boolean hasNextInternal() {
+                if (peeked) return true;
+                if (done || !RichLongIterator.this.hasNextInternal()) return false;
+                next = RichLongIterator.this.nextLongInternal();
+                return peeked = !(done = !predicate.test(next));
+            }
+
+            @Override
+            protected long nextLongInternal() {
+                peeked = false;
+                return next;
+            }
+        };
+    }
+
+    /// Zips each element with its index without allocating a pair: the index of the element last returned by [#nextLong()] is exposed by
+    /// [Indexed#index()]
+    public final Indexed zipWithIndex() {
+        ensureValidState();
+        return new Indexed(this);
+    }
+
+    /// Combines the elements of this iterator in order. Consistently with [RichIterator#fold(Object, java.util.function.BiFunction)], the
+    /// combiner receives the current element as first argument and the accumulated value as second argument.
+    public final long fold(long initialValue, LongBinaryOperator combiner) {
+        startTerminalOperation();
+        long res = initialValue;
+        while (hasNextInternal()) {
+            res = combiner.applyAsLong(nextLongInternal(), res);
+            count++;
+        }
+        releaseResourcesUnchecked();
+        return res;
+    }
+
+    public final long sum() {
+        startTerminalOperation();
+        long sum = 0;
+        while (hasNextInternal()) {
+            sum += nextLongInternal();
+            count++;
+        }
+        releaseResourcesUnchecked();
+        return sum;
+    }
+
+    public final long count() {
+        startTerminalOperation();
+        while (hasNextInternal()) {
+            nextLongInternal();
+            count++;
+        }
+        releaseResourcesUnchecked();
+        return count;
+    }
+
+    public final OptionalLong min() { return reduce(Math::min); }
+    public final OptionalLong max() { return reduce(Math::max); }
+
+    public final OptionalLong reduce(LongBinaryOperator op) {
+        startTerminalOperation();
+        if (!hasNext()) return OptionalLong.empty();
+
+        long res = nextLongInternal();
+        count++;
+        while (hasNextInternal()) {
+            res = op.applyAsLong(res, nextLongInternal());
+            count++;
+        }
+        releaseResourcesUnchecked();
+        return OptionalLong.of(res);
+    }
+
+    public final void foreach(LongConsumer consumer) {
+        startTerminalOperation();
+        while (hasNextInternal()) {
+            consumer.accept(nextLongInternal());
+            count++;
+        }
+        releaseResourcesUnchecked();
+    }
+
+    @Override
+    public final void forEachRemaining(LongConsumer action) {
+        ensureNotClosed();
+        while (hasNextInternal()) {
+            action.accept(nextLongInternal());
+            count++;
+        }
+        releaseResourcesUnchecked();
+    }
+
+    public final long[] toArray() {
+        startTerminalOperation();
+        long[] res  = new long[16];
+        int    size = 0;
+        while (hasNextInternal()) {
+            if (size == res.length) res = Arrays.copyOf(res, RichIntIterator.newCapacity(size));
+            res[size++] = nextLongInternal();
+        }
+        count += size;
+        releaseResourcesUnchecked();
+        return size == res.length ? res : Arrays.copyOf(res, size);
+    }
+
+    public static final class Indexed extends RichLongIterator {
+        private final RichLongIterator it;
+        private long index = -1;
+
+        private Indexed(RichLongIterator it) {
+            super(it);
+            this.it = it;
+        }
+
+        @Override protected boolean hasNextInternal() { return it.hasNextInternal(); }
+
+        @Override
+        protected long nextLongInternal() {
+            index++;
+            return it.nextLongInternal();
+        }
+
+        /// @return the index of the last element returned by this iterator, or -1 if no element was consumed yet
+        public long index() { return index; }
+    }
+
+    private static final class RangeIterator extends RichLongIterator {
+        private final long until;
+        private long next;
+        private boolean exhausted = false;
+
+        private RangeIterator(long from, long until) {
+            this.next  = from;
+            this.until = until;
+        }
+
+        @Override protected boolean hasNextInternal() { return !exhausted; }
+
+        @Override
+        protected long nextLongInternal() {
+            // avoids overflowing when until == Long.MAX_VALUE
+            if (next == until) exhausted = true;
+            return exhausted ? next : next++;
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package com.dici.collection.richIterator;
+
+import static com.dici.check.Check.notNull;
+
+import com.dici.exceptions.ExceptionUtils.ThrowingBiFunction;
+
+/// Stage returned by [RichIterator#scan] and [RichIterator#pairwise()], which combines each element with the previous one. Only the previous
+/// element is kept, and the first one is read from the upstream iterator when the first pair is requested.
+final class ScanRichIterator<X, Y> extends ClassicRichIteratorDecorator<X, Y> {
+    private final ThrowingBiFunction<X, X, Y> op;
+
+    private X       prev;
+    private boolean started = false;
+
+    ScanRichIterator(RichIterator<X> it, ThrowingBiFunction<X, X, Y> op) {
+        super(it);
+        this.op = notNull(op);
+    }
+
+    @Override
+    protected boolean hasNextInternal() throws Exception {
+        if (!started) {
+            if (!it.hasNext()) return false;
+            prev    = it.next();
+            started = true;
+        }
+        return it.hasNext();
+    }
+
+    @Override
+    protected Y nextInternal() throws Exception {
+        X next = it.next();
+        Y res  = op.apply(prev, next);
+        prev = next;
+        return res;
+    }
+}
@@ -2,6 +2,7 @@ package com.dici.collection.richIterator;
 
 import static com.dici.check.Check.isPositive;
 
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.LinkedList;
 
@@ -25,7 +26,7 @@ public class SlidingRichIterator<X> extends ClassicRichIteratorDecorator<X, Rich
         if (slide.isEmpty()) 
             for (int i = 0; i < window && it.hasNext(); i++) slide.addLast(it.next());
         
-        RichIterator<X> res = RichIterators.fromCollection(slide);
+        RichIterator<X> res = RichIterators.fromCollection(new ArrayList<>(slide));
         if (slide.size() < window) slide.clear();
         else {
             for (int i = 0; i < step && it.hasNext()    ; i++) slide.addLast(it.next());
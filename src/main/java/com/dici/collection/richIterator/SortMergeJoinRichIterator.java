@@ -0,0 +1,114 @@
+package com.dici.collection.richIterator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javafx.util.Pair;
+
+/// Sort-merge join of two iterators of pairs sorted by key. The inputs are read in lockstep, and only the pairs sharing the current key are
+/// buffered to produce their cross product, so the memory used is bounded by the size of the largest group of duplicate keys rather than by the
+/// size of the inputs. An input found out of order fails the iteration rather than silently missing matches.
+final class SortMergeJoinRichIterator<K, V, W> extends RichIterator<Pair<K, Pair<V, W>>> {
+    enum JoinType {
+        INNER, LEFT, FULL_OUTER;
+
+        boolean keepsUnmatchedLeft () { return this != INNER     ; }
+        boolean keepsUnmatchedRight() { return this == FULL_OUTER; }
+    }
+
+    private final Side<K, V>            left;
+    private final Side<K, W>            right;
+    private final Comparator<? super K> cmp;
+    private final JoinType              type;
+
+    private final List<Pair<K, V>> leftGroup  = new ArrayList<>();
+    private final List<Pair<K, W>> rightGroup = new ArrayList<>();
+    /// Index of the next element of the cross product of the current groups, a missing side counting as a single null value
+    private long                   index, size;
+
+    @SuppressWarnings("unchecked")
+    SortMergeJoinRichIterator(RichIterator<Pair<K, V>> left, RichIterator<Pair<K, W>> right, Comparator<? super K> cmp, JoinType type) {
+        this.cmp   = cmp == null ? (Comparator<? super K>) Comparator.naturalOrder() : cmp;
+        this.left  = new Side<>(new LookAheadRichIterator<>(left ), this.cmp, "left" );
+        this.right = new Side<>(new LookAheadRichIterator<>(right), this.cmp, "right");
+        this.type  = type;
+    }
+
+    @Override
+    protected boolean hasNextInternal() { return index < size || readNextGroups(); }
+
+    @Override
+    protected Pair<K, Pair<V, W>> nextInternal() {
+        int        rightSize = Math.max(1, rightGroup.size());
+        Pair<K, V> l         = leftGroup .isEmpty() ? null : leftGroup .get((int) (index / rightSize));
+        Pair<K, W> r         = rightGroup.isEmpty() ? null : rightGroup.get((int) (index % rightSize));
+        index++;
+        return new Pair<>(l == null ? r.getKey() : l.getKey(), new Pair<>(l == null ? null : l.getValue(), r == null ? null : r.getValue()));
+    }
+
+    /// Reads the next groups to join, skipping the unmatched keys that should not be part of the output. Returns false when both inputs are
+    /// exhausted.
+    private boolean readNextGroups() {
+        while (true) {
+            leftGroup .clear();
+            rightGroup.clear();
+            index = size = 0;
+
+            boolean hasLeft = left.it.hasNext(), hasRight = right.it.hasNext();
+            if (!hasLeft && !hasRight) return false;
+
+            int c = !hasLeft ? 1 : !hasRight ? -1 : cmp.compare(left.it.peek().getKey(), right.it.peek().getKey());
+            if (c <= 0) left .readGroup(leftGroup );
+            if (c >= 0) right.readGroup(rightGroup);
+
+            if (c == 0 || (c < 0 && type.keepsUnmatchedLeft()) || (c > 0 && type.keepsUnmatchedRight())) {
+                size = (long) Math.max(1, leftGroup.size()) * Math.max(1, rightGroup.size());
+                return true;
+            }
+        }
+    }
+
+    @Override
+    protected void closeInternal() throws IOException {
+        try {
+            left.it.releaseResources();
+        } finally {
+            right.it.releaseResources();
+        }
+    }
+
+    @Override
+    protected void setUsed() {
+        left .it.setUsed();
+        right.it.setUsed();
+        super.setUsed();
+    }
+
+    private static final class Side<K, V> {
+        private final LookAheadRichIterator<Pair<K, V>> it;
+        private final Comparator<? super K>             cmp;
+        private final String                            name;
+        private K                                       lastKey;
+        private boolean                                 started = false;
+
+        Side(LookAheadRichIterator<Pair<K, V>> it, Comparator<? super K> cmp, String name) {
+            this.it   = it;
+            this.cmp  = cmp;
+            this.name = name;
+        }
+
+        /// Reads all the consecutive pairs with the same key as the next one
+        void readGroup(List<Pair<K, V>> group) {
+            Pair<K, V> first = it.next();
+            if (started && cmp.compare(lastKey, first.getKey()) > 0)
+                throw new IllegalStateException(String.format("The %s iterator is not sorted: %s found after %s", name, first.getKey(), lastKey));
+
+            started = true;
+            lastKey = first.getKey();
+            group.add(first);
+            while (it.hasNext() && cmp.compare(it.peek().getKey(), lastKey) == 0) group.add(it.next());
+        }
+    }
+}
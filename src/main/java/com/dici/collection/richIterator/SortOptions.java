@@ -0,0 +1,64 @@
+package com.dici.collection.richIterator;
+
+import static com.dici.check.Check.notNull;
+
+import java.io.File;
+import java.util.function.ToLongFunction;
+
+import com.dici.check.Check;
+import com.dici.io.RecordCodec;
+import com.dici.io.RecordFileWriter.Compression;
+
+import lombok.Builder;
+import lombok.Value;
+
+/// Configuration of [RichIterator#sorted(java.util.Comparator, SortOptions)]. Elements are buffered in memory until one of the budgets is
+/// exceeded, at which point the buffer is sorted and spilled to a temporary file with the given [RecordCodec]. The budget in bytes is only
+/// enforced if a size estimator is provided.
+///
+/// With a parallelism greater than one, the budgets are shared by as many chunks, which are sorted and spilled concurrently.
+@Value
+public class SortOptions<T> {
+    public static final long DEFAULT_MAX_ELEMENTS_IN_MEMORY = 1_000_000;
+    public static final int  DEFAULT_MAX_MERGE_FAN_IN       = 64;
+
+    public static <T> SortOptions<T> withCodec(RecordCodec<T> codec) {
+        return SortOptions.<T>builder().codec(codec).build();
+    }
+
+    RecordCodec<T>    codec;
+    long              maxElementsInMemory;
+    long              maxBytesInMemory;
+    ToLongFunction<T> sizeEstimator;
+    /// Maximum number of runs merged at once. Beyond that, runs are first merged into larger runs to bound the number of open files.
+    int               maxMergeFanIn;
+    /// Null to use the default temporary directory
+    File              tempDirectory;
+    /// Number of threads sorting and spilling chunks, and merging runs. Defaults to 1, in which case everything happens in the consuming thread.
+    int               parallelism;
+    Compression       compression;
+
+    @Builder(toBuilder = true)
+    private SortOptions(RecordCodec<T> codec, Long maxElementsInMemory, Long maxBytesInMemory, ToLongFunction<T> sizeEstimator,
+            Integer maxMergeFanIn, File tempDirectory, Integer parallelism, Compression compression) {
+        Check.isTrue(maxBytesInMemory == null || sizeEstimator != null, "A size estimator is required to enforce a budget in bytes");
+        this.codec               = notNull(codec);
+        this.maxElementsInMemory = maxElementsInMemory == null ? DEFAULT_MAX_ELEMENTS_IN_MEMORY : checkBudget(maxElementsInMemory);
+        this.maxBytesInMemory    = maxBytesInMemory    == null ? Long.MAX_VALUE                 : checkBudget(maxBytesInMemory);
+        this.sizeEstimator       = sizeEstimator;
+        this.maxMergeFanIn       = maxMergeFanIn       == null ? DEFAULT_MAX_MERGE_FAN_IN       : checkFanIn(maxMergeFanIn);
+        this.tempDirectory       = tempDirectory;
+        this.parallelism         = parallelism         == null ? 1                              : Check.isPositive(parallelism);
+        this.compression         = compression         == null ? Compression.NONE               : compression;
+    }
+
+    private static long checkBudget(long budget) {
+        Check.isGreaterThan(budget, 0, "The memory budget should be positive");
+        return budget;
+    }
+
+    private static int checkFanIn(int fanIn) {
+        Check.isGreaterThan(fanIn, 1, "At least two runs must be merged at once");
+        return fanIn;
+    }
+}
@@ -0,0 +1,78 @@
+package com.dici.collection.richIterator;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.dici.io.IOUtils;
+
+/// Lazy k-way merge of sorted iterators with a binary heap holding the head of each source, so that each element costs `O(log k)` comparisons
+/// and the memory used does not depend on the size of the sources. The merge is stable: on ties, the element of the source with the lowest index
+/// comes first. The sources are released along with this iterator.
+final class SortedMergeRichIterator<T> extends RichIterator<T> {
+    private final List<? extends Iterator<? extends T>> sources;
+    private final PriorityQueue<Cursor<T>>              heap;
+    private boolean                                     initialized = false;
+
+    @SuppressWarnings("unchecked")
+    SortedMergeRichIterator(Comparator<? super T> cmp, List<? extends Iterator<? extends T>> sources) {
+        Comparator<? super T> order = cmp == null ? (Comparator<? super T>) Comparator.naturalOrder() : cmp;
+        this.sources = sources;
+        this.heap    = new PriorityQueue<>(Math.max(1, sources.size()),
+                Comparator.<Cursor<T>, T>comparing(cursor -> cursor.head, order).thenComparingInt(cursor -> cursor.index));
+    }
+
+    @Override
+    protected boolean hasNextInternal() {
+        if (!initialized) {
+            initialized = true;
+            for (int i = 0; i < sources.size(); i++) {
+                Iterator<? extends T> source = sources.get(i);
+                if (source.hasNext()) heap.add(new Cursor<>(source, i, source.next()));
+            }
+        }
+        return !heap.isEmpty();
+    }
+
+    @Override
+    protected T nextInternal() {
+        Cursor<T> cursor = heap.poll();
+        T         next   = cursor.head;
+        if (cursor.source.hasNext()) {
+            cursor.head = cursor.source.next();
+            heap.add(cursor);
+        }
+        return next;
+    }
+
+    @Override
+    protected void closeInternal() throws IOException {
+        heap.clear();
+        for (Iterator<? extends T> source : sources) {
+            if (source instanceof RichIterator<?> it) it.releaseResources();
+            else                                      IOUtils.closeIfCloseable(source);
+        }
+    }
+
+    @Override
+    protected void setUsed() {
+        for (Iterator<? extends T> source : sources) {
+            if (source instanceof RichIterator<?> it) it.setUsed();
+        }
+        super.setUsed();
+    }
+
+    private static final class Cursor<T> {
+        private final Iterator<? extends T> source;
+        private final int                   index;
+        private T                           head;
+
+        Cursor(Iterator<? extends T> source, int index, T head) {
+            this.source = source;
+            this.index  = index;
+            this.head   = head;
+        }
+    }
+}
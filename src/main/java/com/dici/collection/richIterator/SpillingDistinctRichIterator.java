@@ -0,0 +1,147 @@
+package com.dici.collection.richIterator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import com.dici.io.IOUtils;
+import com.dici.io.RecordCodec;
+
+/// Exact mode of [RichIterator#distinct(DistinctOptions)]. Elements are returned as they come as long as their keys fit in memory. Past the
+/// budget, the elements whose key is not in memory are written to hash partitions on disk. Once the upstream iterator is exhausted, each partition
+/// is deduplicated in turn by the same algorithm, with a different hash so that a partition which still does not fit in memory is split further.
+///
+/// Since the keys in memory are never written to the partitions and a key is always written to the same partition, the partitions can be
+/// deduplicated independently.
+final class SpillingDistinctRichIterator<X, K> extends NullableRichIterator<X> {
+    private static final int PARTITIONS     = 16;
+    /// Beyond that, the partitions are deduplicated in memory, e.g. if a lot of distinct keys have the same hash code
+    private static final int MAX_LEVEL      = 6;
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    private final RichIterator<X>       it;
+    private final DistinctOptions<X, K> options;
+    private final int                   level;
+    private final int                   maxKeysInMemory;
+    private Set<K>                      seen = new HashSet<>();
+
+    private File[]             files;
+    private DataOutputStream[] writers;
+    private long[]             sizes;
+    private int                partition = -1;
+    private RichIterator<X>    current;
+
+    SpillingDistinctRichIterator(RichIterator<X> it, DistinctOptions<X, K> options) { this(it, options, 0); }
+
+    private SpillingDistinctRichIterator(RichIterator<X> it, DistinctOptions<X, K> options, int level) {
+        this.it              = it;
+        this.options         = options;
+        this.level           = level;
+        this.maxKeysInMemory = level < MAX_LEVEL ? options.getMaxKeysInMemory() : Integer.MAX_VALUE;
+    }
+
+    @Override
+    protected X nextOrNull() throws Exception {
+        while (it.hasNext()) {
+            X next = it.next();
+            K key  = options.getKeyExtractor().apply(next);
+            if (seen.contains(key)) continue;
+            if (seen.size() < maxKeysInMemory) {
+                seen.add(key);
+                return next;
+            }
+            spill(next, key);
+        }
+
+        if (files == null) return null;
+        if (partition == -1) {
+            closeWriters();
+            // the partitions are deduplicated by child iterators, which have the whole budget for themselves
+            seen = null;
+        }
+
+        while (current == null || !current.hasNext()) {
+            if (current != null) current.releaseResources();
+            if (++partition == PARTITIONS) return null;
+            current = new SpillingDistinctRichIterator<>(readPartition(partition), options, level + 1);
+        }
+        return current.next();
+    }
+
+    private void spill(X x, K key) throws IOException {
+        if (files == null) {
+            files   = new File[PARTITIONS];
+            writers = new DataOutputStream[PARTITIONS];
+            sizes   = new long[PARTITIONS];
+        }
+
+        int p = partitionOf(key);
+        if (writers[p] == null) {
+            files  [p] = File.createTempFile("distinct-partition", ".bin", options.getTempDirectory());
+            writers[p] = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(files[p]), IO_BUFFER_SIZE));
+        }
+        options.getCodec().write(x, writers[p]);
+        sizes[p]++;
+    }
+
+    private int partitionOf(K key) {
+        int h = (Objects.hashCode(key) ^ (level * 0x9E3779B9)) * 0x85EBCA6B;
+        return (h ^ (h >>> 15)) & (PARTITIONS - 1);
+    }
+
+    private void closeWriters() throws IOException {
+        for (DataOutputStream writer : writers) {
+            if (writer != null) writer.close();
+        }
+    }
+
+    private RichIterator<X> readPartition(int p) throws IOException {
+        if (files[p] == null) return RichIterators.emptyIterator();
+
+        File            file   = files[p];
+        RecordCodec<X>  codec  = options.getCodec();
+        DataInputStream reader = new DataInputStream(new BufferedInputStream(new FileInputStream(file), IO_BUFFER_SIZE));
+        return new RichIterator<>() {
+            private long remaining = sizes[p];
+
+            @Override protected boolean hasNextInternal() { return remaining > 0; }
+
+            @Override
+            protected X nextInternal() throws IOException {
+                remaining--;
+                return codec.read(reader);
+            }
+
+            @Override
+            protected void closeInternal() throws IOException {
+                reader.close();
+                IOUtils.deleteQuietly(file);
+            }
+        };
+    }
+
+    @Override
+    protected void closeInternal() throws IOException {
+        try {
+            if (current != null) current.releaseResources();
+            if (files != null) {
+                for (int p = 0; p < PARTITIONS; p++) {
+                    IOUtils.closeQuietly(writers[p]);
+                    if (files[p] != null && files[p].exists()) IOUtils.deleteQuietly(files[p]);
+                }
+            }
+        } finally {
+            it.releaseResources();
+        }
+    }
+
+    @Override protected void setUsed() { it.setUsed(); super.setUsed(); }
+}
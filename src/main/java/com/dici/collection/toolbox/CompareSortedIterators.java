@@ -1,5 +1,6 @@
 package com.dici.collection.toolbox;
 
+import static com.dici.check.Check.isPositive;
 import static com.dici.check.Check.notNull;
 
 import java.util.Comparator;
@@ -20,15 +21,25 @@ public class CompareSortedIterators<T> {
     private final Comparator<T> sortOrder;
     private final IteratorTransformation<T, T> applyStrictOrderWithinGroup;
     private final DeepValidator<T> deepValidator;
+    private final int parallelism;
 
     public CompareSortedIterators(Comparator<T> sortOrder, DeepValidator<T> deepValidator) {
         this(sortOrder, IteratorTransformation.identity(), deepValidator);
     }
 
     public CompareSortedIterators(Comparator<T> sortOrder, IteratorTransformation<T, T> applyStrictOrderWithinGroup, DeepValidator<T> deepValidator) {
+        this(sortOrder, applyStrictOrderWithinGroup, deepValidator, 1);
+    }
+
+    /// With a `parallelism` greater than 1, the elements are still matched in order on the consuming thread, but up to `parallelism` pairs
+    /// are deep validated concurrently, on virtual threads. The deep validator must then be thread-safe, and may only update the report through
+    /// [DiffReport#reportEvent]. The diffs and their order are the same as with a sequential comparison.
+    public CompareSortedIterators(Comparator<T> sortOrder, IteratorTransformation<T, T> applyStrictOrderWithinGroup, DeepValidator<T> deepValidator,
+            int parallelism) {
         this.sortOrder                   = notNull(sortOrder);
         this.applyStrictOrderWithinGroup = notNull(applyStrictOrderWithinGroup);
         this.deepValidator               = notNull(deepValidator);
+        this.parallelism                 = isPositive(parallelism);
     }
 
     public final List<Diff<T>> compareFully(Iterator<T> actual, Iterator<T> expected, DiffReport<T> report) {
@@ -41,7 +52,8 @@ public class CompareSortedIterators<T> {
     }
 
     public RichIterator<Diff<T>> compareIterators(Iterator<T> actualIt, Iterator<T> expectedIt, DiffReport<T> report) {
-        return new DiffIterator<>(actualIt, expectedIt, report, sortOrder, (DeepValidator<T>) this::checkValidity);
+        if (parallelism == 1) return new DiffIterator<>(actualIt, expectedIt, report, sortOrder, (DeepValidator<T>) this::checkValidity);
+        return new ParallelDiffIterator<>(actualIt, expectedIt, report, sortOrder, this::checkValidity, parallelism);
     }
     
     private boolean checkValidity(T actual, T expected, DiffReport<T> report) {
@@ -0,0 +1,301 @@
+package com.dici.collection.toolbox;
+
+import static com.dici.check.Check.notNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import com.dici.collection.richIterator.RichIterator;
+import com.dici.collection.richIterator.RichIterators;
+import com.dici.collection.toolbox.CompareSortedIterators.DeepValidator;
+import com.dici.io.IOUtils;
+import com.dici.io.RecordFileWriter;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/// Counterpart of [CompareSortedIterators] for inputs which are not sorted. Rather than sorting both sides, they are split in buckets by the hash
+/// of a key (spilling to disk according to [HashDiffOptions]), and each pair of buckets is compared with a hash table, so that the comparison is
+/// linear. Buckets are compared concurrently if the options allow it.
+///
+/// Each comparison loads the expected side of its bucket in memory, so a bucket with more than `maxElementsInMemory / parallelism` expected
+/// elements is split again with a different hash, recursively. A bucket in which all the elements share the same key (or which is empty on
+/// one side) is compared by streaming both sides instead, since such a bucket cannot be split.
+///
+/// Elements are matched by key, the key playing the role of the sort order of [CompareSortedIterators]. When several elements share a key, they
+/// are matched in the order in which they appear on each side. The [DiffReport] ends up with the same counts as with [CompareSortedIterators],
+/// but the diffs are listed bucket by bucket: in each bucket (or each of its sub-buckets if it was split), the differences and unexpected
+/// elements in the order of the actual side, followed by the missing elements in the order of the expected side.
+public class CompareUnsortedIterators<T, K> {
+    /// Beyond that, the buckets are compared in memory, e.g. if a lot of distinct keys have the same hash code
+    private static final int MAX_LEVEL = 4;
+
+    private final Function<? super T, ? extends K> key;
+    private final DeepValidator<T>                 deepValidator;
+    private final HashDiffOptions<T>               options;
+    private final long                             maxElementsPerComparison;
+
+    public CompareUnsortedIterators(Function<? super T, ? extends K> key, DeepValidator<T> deepValidator, HashDiffOptions<T> options) {
+        this.key                      = notNull(key);
+        this.deepValidator            = notNull(deepValidator);
+        this.options                  = notNull(options);
+        this.maxElementsPerComparison = Math.max(1, options.getMaxElementsInMemory() / options.getParallelism());
+    }
+
+    public final List<Diff<T>> compareFully(Iterator<T> actual, Iterator<T> expected, DiffReport<T> report) {
+        notNull(report);
+        long maxBuffered = options.getMaxElementsInMemory() / 2;
+        try (Partitions actualPartitions = new Partitions(0, maxBuffered); Partitions expectedPartitions = new Partitions(0, maxBuffered)) {
+            actualPartitions  .addAll(notNull(actual  ));
+            expectedPartitions.addAll(notNull(expected));
+            return compare(actualPartitions, expectedPartitions, report);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Diff<T>> compare(Partitions actual, Partitions expected, DiffReport<T> report) throws IOException {
+        int             parallelism = options.getParallelism();
+        ExecutorService executor    = parallelism == 1 ? MoreExecutors.newDirectExecutorService() : Executors.newFixedThreadPool(parallelism);
+        try {
+            // the diffs of each bucket are only reported once all the previous buckets have been, so that their order is deterministic. The
+            // deep validator may still report events concurrently.
+            List<Future<BucketDiff<T>>> buckets = new ArrayList<>();
+            for (int bucket = 0; bucket < options.getPartitions(); bucket++) {
+                int b = bucket;
+                buckets.add(executor.submit(() -> {
+                    BucketDiff<T> bucketDiff = new BucketDiff<>();
+                    compareBucket(actual, expected, b, bucketDiff, report);
+                    return bucketDiff;
+                }));
+            }
+
+            List<Diff<T>> diffs = new ArrayList<>();
+            for (Future<BucketDiff<T>> bucket : buckets) {
+                BucketDiff<T> bucketDiff = await(bucket);
+                for (Diff<T> diff : bucketDiff.diffs) diffs.add(report.report(diff));
+                report.reportEqual(bucketDiff.equal);
+            }
+            return diffs;
+        } finally {
+            // the remaining tasks may still be reading or writing the spill files, which are deleted as soon as this method returns. File I/O
+            // cannot be interrupted, so we wait for them to stop.
+            executor.shutdownNow();
+            executor.close();
+        }
+    }
+
+    private void compareBucket(Partitions actual, Partitions expected, int bucket, BucketDiff<T> res, DiffReport<T> report) throws IOException {
+        try {
+            if (canCompareInOrder(actual, expected, bucket)) {
+                compareBucketInOrder(actual, expected, bucket, res, report);
+            } else if (expected.size(bucket) > maxElementsPerComparison && expected.level < MAX_LEVEL) {
+                compareSplitBucket(actual, expected, bucket, res, report);
+            } else {
+                compareBucketInMemory(actual, expected, bucket, res, report);
+            }
+        } finally {
+            actual  .release(bucket);
+            expected.release(bucket);
+        }
+    }
+
+    private void compareBucketInMemory(Partitions actual, Partitions expected, int bucket, BucketDiff<T> res, DiffReport<T> report)
+            throws IOException {
+        Map<K, Deque<T>> expectedByKey = new LinkedHashMap<>();
+        try (RichIterator<T> it = expected.read(bucket)) {
+            it.forEachRemaining(t -> expectedByKey.computeIfAbsent(key.apply(t), k -> new ArrayDeque<>()).add(t));
+        }
+
+        try (RichIterator<T> it = actual.read(bucket)) {
+            while (it.hasNext()) {
+                T        t          = it.next();
+                K        k          = key.apply(t);
+                Deque<T> candidates = expectedByKey.get(k);
+                if (candidates == null) {
+                    res.diffs.add(new UnexpectedElementDiff<>(t));
+                    continue;
+                }
+
+                T match = candidates.poll();
+                if (candidates.isEmpty()) expectedByKey.remove(k);
+                res.compare(t, match, checkValidity(t, match, report));
+            }
+        }
+
+        for (Deque<T> missing : expectedByKey.values()) {
+            for (T t : missing) res.diffs.add(new MissingElementDiff<>(t));
+        }
+    }
+
+    /// True if at most one key is found on both sides of the bucket, in which case its elements are matched in the order of each side
+    private boolean canCompareInOrder(Partitions actual, Partitions expected, int bucket) {
+        if (actual.size(bucket) == 0 || expected.size(bucket) == 0) return true;
+        return actual.hasSingleKey(bucket) && expected.hasSingleKey(bucket) && Objects.equals(actual.firstKey(bucket), expected.firstKey(bucket));
+    }
+
+    private void compareBucketInOrder(Partitions actual, Partitions expected, int bucket, BucketDiff<T> res, DiffReport<T> report)
+            throws IOException {
+        try (RichIterator<T> actualIt = actual.read(bucket); RichIterator<T> expectedIt = expected.read(bucket)) {
+            while (actualIt.hasNext() && expectedIt.hasNext()) {
+                T t     = actualIt  .next();
+                T match = expectedIt.next();
+                res.compare(t, match, checkValidity(t, match, report));
+            }
+            actualIt  .forEachRemaining(t -> res.diffs.add(new UnexpectedElementDiff<>(t)));
+            expectedIt.forEachRemaining(t -> res.diffs.add(new MissingElementDiff<>(t)));
+        }
+    }
+
+    private void compareSplitBucket(Partitions actual, Partitions expected, int bucket, BucketDiff<T> res, DiffReport<T> report)
+            throws IOException {
+        int  level       = expected.level + 1;
+        long maxBuffered = Math.max(1, maxElementsPerComparison / 2);
+        try (Partitions actualSplit = new Partitions(level, maxBuffered); Partitions expectedSplit = new Partitions(level, maxBuffered)) {
+            actualSplit  .addAll(actual  .read(bucket));
+            expectedSplit.addAll(expected.read(bucket));
+            actual  .release(bucket);
+            expected.release(bucket);
+            for (int b = 0; b < options.getPartitions(); b++) compareBucket(actualSplit, expectedSplit, b, res, report);
+        }
+    }
+
+    private boolean checkValidity(T actual, T expected, DiffReport<T> report) {
+        return actual.equals(expected) || deepValidator.test(actual, expected, report);
+    }
+
+    /// Spreads the hash with a multiplicative hash and keeps its high bits, so that the elements of a bucket do not all share the low bits used
+    /// by the hash table they are loaded into. The hash is salted with the level so that the elements of a bucket are spread again when it is
+    /// split.
+    private int bucketOf(K k, int level) {
+        long hash = ((Objects.hashCode(k) ^ (level * 0x85EBCA6B)) * 0x9E3779B9) & 0xFFFFFFFFL;
+        return (int) ((hash * options.getPartitions()) >>> 32);
+    }
+
+    private static <X> X await(Future<X> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while comparing the buckets");
+        } catch (ExecutionException e) {
+            Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /// Diffs of a bucket, which are only reported once the previous buckets have been
+    private static final class BucketDiff<T> {
+        private final List<Diff<T>> diffs = new ArrayList<>();
+        private long                equal;
+
+        void compare(T actual, T expected, boolean isValid) {
+            if (isValid) equal++;
+            else         diffs.add(new NotEqualDiff<>(actual, expected));
+        }
+    }
+
+    /// One side of the comparison split in buckets. The elements of a bucket are those spilled to its file, if any, followed by those which
+    /// are still in memory. Files are only created for the buckets which have been spilled.
+    private final class Partitions implements Closeable {
+        private final int                   level;
+        private final long                  maxBuffered;
+        private final List<T>[]             buffers;
+        private final RecordFileWriter<T>[] writers;
+        private final File[]                files;
+        private final long[]                sizes;
+        /// First key of each bucket, and whether the bucket also holds other keys
+        private final Object[]              firstKeys;
+        private final boolean[]             mixedKeys;
+        private long                        buffered = 0;
+
+        @SuppressWarnings("unchecked")
+        Partitions(int level, long maxBuffered) {
+            int partitions = options.getPartitions();
+            this.level       = level;
+            this.maxBuffered = maxBuffered;
+            this.buffers     = (List<T>[]) new List<?>[partitions];
+            this.writers     = (RecordFileWriter<T>[]) new RecordFileWriter<?>[partitions];
+            this.files       = new File[partitions];
+            this.sizes       = new long[partitions];
+            this.firstKeys   = new Object[partitions];
+            this.mixedKeys   = new boolean[partitions];
+            for (int i = 0; i < partitions; i++) buffers[i] = new ArrayList<>();
+        }
+
+        void addAll(Iterator<T> it) throws IOException {
+            while (it.hasNext()) {
+                T t = it.next();
+                K k = key.apply(t);
+                int bucket = bucketOf(k, level);
+                if      (sizes[bucket] == 0                   ) firstKeys[bucket] = k;
+                else if (!Objects.equals(firstKeys[bucket], k)) mixedKeys[bucket] = true;
+                buffers[bucket].add(t);
+                sizes  [bucket]++;
+                if (++buffered >= maxBuffered) spill();
+            }
+            for (RecordFileWriter<T> writer : writers) {
+                if (writer != null) writer.close();
+            }
+        }
+
+        private void spill() throws IOException {
+            for (int i = 0; i < buffers.length; i++) {
+                if (buffers[i].isEmpty()) continue;
+                if (writers[i] == null) {
+                    files  [i] = File.createTempFile("diff-partition", ".bin", options.getTempDirectory());
+                    writers[i] = new RecordFileWriter<>(files[i], options.getCodec(), options.getCompression());
+                }
+                writers[i].writeAll(buffers[i].iterator());
+                buffers[i] = new ArrayList<>();
+            }
+            buffered = 0;
+        }
+
+        long size(int bucket) { return sizes[bucket]; }
+
+        boolean hasSingleKey(int bucket) { return sizes[bucket] > 0 && !mixedKeys[bucket]; }
+
+        Object firstKey(int bucket) { return firstKeys[bucket]; }
+
+        /// Lazily reads a bucket, which should then be [released][#release(int)]
+        RichIterator<T> read(int bucket) {
+            RichIterator<T> inMemory = RichIterators.wrap(buffers[bucket].iterator());
+            return files[bucket] == null ? inMemory : RichIterators.fromRecordFile(files[bucket], options.getCodec()).concat(inMemory);
+        }
+
+        void release(int bucket) {
+            buffers  [bucket] = List.of();
+            firstKeys[bucket] = null;
+            if (files[bucket] != null) {
+                IOUtils.deleteQuietly(files[bucket]);
+                files[bucket] = null;
+            }
+        }
+
+        @Override
+        public void close() {
+            IOUtils.closeAllQuietly(Arrays.stream(writers).filter(Objects::nonNull).toList());
+            for (File file : files) {
+                if (file != null) IOUtils.deleteQuietly(file);
+            }
+        }
+    }
+}
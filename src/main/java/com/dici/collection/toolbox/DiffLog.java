@@ -0,0 +1,166 @@
+package com.dici.collection.toolbox;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import com.dici.collection.richIterator.NullableRichIterator;
+import com.dici.collection.richIterator.RichIterator;
+import com.dici.io.IOUtils;
+import com.dici.io.RecordCodec;
+import com.dici.io.RecordFileReader;
+import com.dici.io.RecordFileWriter;
+
+import javafx.util.Pair;
+
+/// Thread-safe, append-only storage of the diffs of a [DiffReport]. Without [DiffSpillOptions], all the diffs are kept in memory. Otherwise, the
+/// diffs beyond the in-memory threshold are appended to a temporary file, which is sealed whenever the log is iterated so that the iteration
+/// sees a consistent snapshot, the following diffs going to a new file. The files are deleted when the log is closed.
+final class DiffLog<T> implements Closeable {
+    private final long                  maxDiffs;
+    private final DiffSpillOptions<T>   spillOptions;
+    private final RecordCodec<Diff<T>>  codec;
+    private final List<Diff<T>>         inMemory = new ArrayList<>();
+    private final List<File>            segments = new ArrayList<>();
+    private File                        currentSegment;
+    private RecordFileWriter<Diff<T>>   writer;
+    private long                        size;
+
+    /// @param spillOptions null to keep all the diffs in memory
+    DiffLog(long maxDiffs, DiffSpillOptions<T> spillOptions) {
+        this.maxDiffs     = maxDiffs;
+        this.spillOptions = spillOptions;
+        this.codec        = spillOptions == null ? null : new DiffCodec<>(spillOptions.getCodec());
+    }
+
+    /// @return false if the log is full, in which case the diff is dropped
+    synchronized boolean add(Diff<T> diff) {
+        if (size >= maxDiffs) return false;
+        try {
+            if (spillOptions == null || inMemory.size() < spillOptions.getMaxDiffsInMemory()) inMemory.add(diff);
+            else                                                                               writer().write(diff);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        size++;
+        return true;
+    }
+
+    private RecordFileWriter<Diff<T>> writer() throws IOException {
+        if (writer == null) {
+            currentSegment = File.createTempFile("diff-report", ".bin", spillOptions.getTempDirectory());
+            writer         = new RecordFileWriter<>(currentSegment, codec, spillOptions.getCompression());
+        }
+        return writer;
+    }
+
+    synchronized boolean isEmpty() { return size == 0; }
+
+    synchronized boolean hasSpilled() { return writer != null || !segments.isEmpty(); }
+
+    synchronized long spilledCount() { return size - inMemory.size(); }
+
+    /// @throws IllegalStateException if some diffs have been spilled, since they could not all fit in memory
+    synchronized List<Diff<T>> toList() {
+        if (hasSpilled()) throw new IllegalStateException("Some diffs have been spilled to disk, they can only be iterated lazily");
+        return List.copyOf(inMemory);
+    }
+
+    synchronized List<Diff<T>> inMemory() { return List.copyOf(inMemory); }
+
+    /// Lazily reads the diffs added so far, the files being opened one at a time. The log must not be closed before the end of the iteration.
+    synchronized RichIterator<Diff<T>> iterator() {
+        try {
+            sealCurrentSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // the in-memory diffs can no longer change once the log has started spilling
+        List<Diff<T>> memorySnapshot = segments.isEmpty() ? new ArrayList<>(inMemory) : Collections.unmodifiableList(inMemory);
+        return new SnapshotIterator(memorySnapshot.iterator(), List.copyOf(segments).iterator());
+    }
+
+    private void sealCurrentSegment() throws IOException {
+        if (writer == null) return;
+        writer.close();
+        segments.add(currentSegment);
+        writer         = null;
+        currentSegment = null;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (writer != null) {
+            IOUtils.closeQuietly(writer);
+            segments.add(currentSegment);
+            writer = null;
+        }
+        segments.forEach(IOUtils::deleteQuietly);
+        segments.clear();
+    }
+
+    private final class SnapshotIterator extends NullableRichIterator<Diff<T>> {
+        private final Iterator<Diff<T>>         memory;
+        private final Iterator<File>            files;
+        private RecordFileReader<Diff<T>>       reader;
+
+        SnapshotIterator(Iterator<Diff<T>> memory, Iterator<File> files) {
+            this.memory = memory;
+            this.files  = files;
+        }
+
+        @Override
+        protected Diff<T> nextOrNull() throws IOException {
+            if (memory.hasNext()) return memory.next();
+            while (reader == null || !reader.hasNext()) {
+                if (reader != null) reader.close();
+                reader = null;
+                if (!files.hasNext()) return null;
+                reader = new RecordFileReader<>(files.next(), codec);
+            }
+            return reader.next();
+        }
+
+        @Override
+        protected void closeInternal() throws IOException {
+            if (reader != null) reader.close();
+        }
+    }
+
+    /// Encodes a diff as a byte telling which of the actual and expected elements are present, followed by these elements
+    private static final class DiffCodec<T> implements RecordCodec<Diff<T>> {
+        private static final int ACTUAL   = 1;
+        private static final int EXPECTED = 2;
+
+        private final RecordCodec<T> elementCodec;
+
+        DiffCodec(RecordCodec<T> elementCodec) { this.elementCodec = elementCodec; }
+
+        @Override
+        public void write(Diff<T> diff, DataOutput out) throws IOException {
+            Pair<Optional<T>, Optional<T>> elements = diff.showDiff();
+            Optional<T> actual = elements.getKey(), expected = elements.getValue();
+            out.writeByte((actual.isPresent() ? ACTUAL : 0) | (expected.isPresent() ? EXPECTED : 0));
+            if (actual  .isPresent()) elementCodec.write(actual  .get(), out);
+            if (expected.isPresent()) elementCodec.write(expected.get(), out);
+        }
+
+        @Override
+        public Diff<T> read(DataInput in) throws IOException {
+            int flags = in.readByte();
+            T actual   = (flags & ACTUAL  ) != 0 ? elementCodec.read(in) : null;
+            T expected = (flags & EXPECTED) != 0 ? elementCodec.read(in) : null;
+            if      (actual   == null) return new MissingElementDiff<>(expected);
+            else if (expected == null) return new UnexpectedElementDiff<>(actual);
+            else                       return new NotEqualDiff<>(actual, expected);
+        }
+    }
+}
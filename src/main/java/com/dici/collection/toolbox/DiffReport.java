@@ -1,66 +1,91 @@
 package com.dici.collection.toolbox;
 
 import static com.dici.exceptions.ExceptionUtils.uncheckedConsumer;
-import static java.util.Collections.unmodifiableList;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.io.Closeable;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 import com.dici.check.Check;
-import com.dici.collection.BoundedBuffer;
-import com.dici.collection.BoundedBuffer.SizeExceededPolicy;
+import com.dici.collection.richIterator.RichIterator;
 import com.google.common.base.Joiner;
 import javafx.util.Pair;
 
-public final class DiffReport<T> {
+/**
+ * Counts the differences found by a comparison and keeps track of the first {@code limit} diffs. All the methods are thread-safe. By default the
+ * diffs are kept in memory, but a report created with {@link DiffSpillOptions} only keeps the first ones in memory and appends the following ones
+ * to temporary files, which are deleted when the report is {@link #close() closed}.
+ */
+public final class DiffReport<T> implements Closeable {
 	public static final int					NO_LIMIT	= -1;
 
-	private final BoundedBuffer<Diff<T>>	diffs;
-	private final Map<String, Long>			eventsCount	= new HashMap<>();
-	private int								diffCount, missingCount, unexpectedCount, totalCount;
+	private final DiffLog<T>				diffs;
+	private final Map<String, Long>			eventsCount	= new ConcurrentHashMap<>();
+	private final LongAdder					diffCount	= new LongAdder(), missingCount = new LongAdder(), unexpectedCount = new LongAdder(),
+											totalCount	= new LongAdder();
 
 	public DiffReport() { this(NO_LIMIT); }
 	
-	public DiffReport(int limit) {
+	public DiffReport(int limit) { this(limit, null); }
+
+	/**
+	 * @param spillOptions null to keep all the diffs in memory
+	 */
+	public DiffReport(int limit, DiffSpillOptions<T> spillOptions) {
 		Check.isTrue(limit == NO_LIMIT || limit > 0);
-		this.diffs = new BoundedBuffer<>(limit == NO_LIMIT ? Integer.MAX_VALUE : limit, SizeExceededPolicy.ERROR); 
+		this.diffs = new DiffLog<>(limit == NO_LIMIT ? Long.MAX_VALUE : limit, spillOptions);
 	}
 	
 	public Diff<T> reportDifference(T actual, T expected) {
 		reportNewRecord();
 		Diff<T> diff = new NotEqualDiff<>(actual,expected);
-		diffs.addIfNotFull(diff);
-		diffCount++;
+		diffs.add(diff);
+		diffCount.increment();
 		return diff;
 	}
 
 	public Diff<T> reportMissingElement(T missing) {
 		reportNewRecord();
 		Diff<T> diff = new MissingElementDiff<>(missing);
-		diffs.addIfNotFull(diff);
-		missingCount++;
+		diffs.add(diff);
+		missingCount.increment();
 		return diff;
 	}
 
 	public Diff<T> reportUnexpectedElement(T unexpected) {
 		reportNewRecord();
 		Diff<T> diff = new UnexpectedElementDiff<>(unexpected);
-		diffs.addIfNotFull(diff);
-		unexpectedCount++;
+		diffs.add(diff);
+		unexpectedCount.increment();
 		return diff;
 	}
 	
+	/**
+	 * Counts a diff created by the caller, e.g. to report the diffs of concurrent comparisons in a deterministic order once they are all complete
+	 */
+	Diff<T> report(Diff<T> diff) {
+		if      (diff instanceof NotEqualDiff         ) diffCount      .increment();
+		else if (diff instanceof MissingElementDiff   ) missingCount   .increment();
+		else if (diff instanceof UnexpectedElementDiff) unexpectedCount.increment();
+		else throw new IllegalArgumentException("Unknown type of diff: " + diff.getClass());
+		reportNewRecord();
+		diffs.add(diff);
+		return diff;
+	}
+
+	void reportEqual(long count) { totalCount.add(count); }
+
 	public String getDiffString() {
 	     return getDiffString(Object::toString);
 	 }
 
 	public String getDiffString(Function<T, String> toString) {
 		StringBuilder sb = new StringBuilder();
-		diffs.stream().map(Diff::showDiff).map(pair -> new Pair<>(pair.getKey().map(toString),pair.getValue().map(toString)))
+		diffIterator().map(Diff::showDiff).map(pair -> new Pair<>(pair.getKey().map(toString),pair.getValue().map(toString)))
 				.forEach(uncheckedConsumer(pair -> {
 					Optional<String> actual = pair.getKey(), expected = pair.getValue();
 					// at least one of the optionals is non empty
@@ -83,26 +108,48 @@ public final class DiffReport<T> {
 	}
 	 
 	public  void reportEqual()                  { reportNewRecord(); }
-	private void reportNewRecord()              { totalCount++; }                        
-	public  void reportEvent(String eventName)  { eventsCount.put(eventName, eventsCount.getOrDefault(eventName, 0L) + 1); }
+	private void reportNewRecord()              { totalCount.increment(); }
+	public  void reportEvent(String eventName)  { eventsCount.merge(eventName, 1L, Long::sum); }
 	
-	public List<Diff<T>> getDiffs  ()           { return unmodifiableList(new ArrayList<>(diffs)); }
-	public int  getDiffCount       ()           { return diffCount                               ; }                                                                       
-	public int  getMissingCount    ()           { return missingCount                            ; }                                                                   
-	public int  getUnexpectedCount ()           { return unexpectedCount                         ; }                                                                
-	public int  getTotalCount      ()           { return totalCount                              ; }
+	/**
+	 * Copies the diffs reported so far into a list. Use {@link #diffIterator()} for a report which may spill to disk.
+	 * @throws IllegalStateException if some diffs have been spilled to disk
+	 */
+	public List<Diff<T>> getDiffs  ()           { return diffs.toList()                          ; }
+	/** Lazily iterates over the diffs reported so far. The report must not be closed before the end of the iteration. */
+	public RichIterator<Diff<T>> diffIterator() { return diffs.iterator()                        ; }
+
+	/** The int counters throw an {@link ArithmeticException} if the count does not fit in an int, in which case the long ones should be used */
+	public int  getDiffCount       ()           { return Math.toIntExact(getDiffCountLong      ()); }
+	public int  getMissingCount    ()           { return Math.toIntExact(getMissingCountLong   ()); }
+	public int  getUnexpectedCount ()           { return Math.toIntExact(getUnexpectedCountLong()); }
+	public int  getTotalCount      ()           { return Math.toIntExact(getTotalCountLong     ()); }
+	public long getDiffCountLong      ()        { return diffCount      .sum()                   ; }
+	public long getMissingCountLong   ()        { return missingCount   .sum()                   ; }
+	public long getUnexpectedCountLong()        { return unexpectedCount.sum()                   ; }
+	public long getTotalCountLong     ()        { return totalCount     .sum()                   ; }
 	public int  getTotalEventsCount()           { return eventsCount.size()                      ; }
 	public long getEventCount      (String key) { return eventsCount.get(key)                    ; }
 
 	@Override
 	public String toString() {
 	    return "DiffReport [" +
-	            "\n\tdiffs=" + (diffs.isEmpty() ? "[]," : "\n\t\t" + Joiner.on("\n\t\t").join(diffs)) +
+	            "\n\tdiffs=" + (diffs.isEmpty() ? "[]," : "\n\t\t" + Joiner.on("\n\t\t").join(diffs.inMemory()) + spilledDiffs()) +
 	            "\n\teventsCount=" + eventsCount + "," +
 	            "\n\tdiffCount=" + diffCount + "," +
 	            "\n\tmissingCount=" + missingCount + "," +
 	            "\n\tunexpectedCount=" + unexpectedCount + "," +
 	            "\n\ttotalCount=" + totalCount +
 	            "\n]";
-	}  
+	}
+
+	/** toString only prints the diffs in memory, since the others may not fit in memory */
+	private String spilledDiffs() {
+		long spilled = diffs.spilledCount();
+		return spilled == 0 ? "" : "\n\t\t... " + spilled + " more spilled to disk";
+	}
+
+	/** Deletes the files to which the diffs have been spilled, if any */
+	@Override
+	public void close() { diffs.close(); }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.dici.collection.toolbox;
+
+import static com.dici.check.Check.notNull;
+
+import java.io.File;
+
+import com.dici.check.Check;
+import com.dici.io.RecordCodec;
+import com.dici.io.RecordFileWriter.Compression;
+
+import lombok.Builder;
+import lombok.Value;
+
+/// Configuration of a [DiffReport] which keeps its first `maxDiffsInMemory` diffs in memory, and appends the following ones to temporary files
+/// in which the compared elements are encoded with the given [RecordCodec]
+@Value
+public class DiffSpillOptions<T> {
+    public static final int DEFAULT_MAX_DIFFS_IN_MEMORY = 100_000;
+
+    public static <T> DiffSpillOptions<T> withCodec(RecordCodec<T> codec) {
+        return DiffSpillOptions.<T>builder().codec(codec).build();
+    }
+
+    RecordCodec<T> codec;
+    int            maxDiffsInMemory;
+    /// Null to use the default temporary directory
+    File           tempDirectory;
+    Compression    compression;
+
+    @Builder(toBuilder = true)
+    private DiffSpillOptions(RecordCodec<T> codec, Integer maxDiffsInMemory, File tempDirectory, Compression compression) {
+        this.codec            = notNull(codec);
+        this.maxDiffsInMemory = maxDiffsInMemory == null ? DEFAULT_MAX_DIFFS_IN_MEMORY : Check.notNegative(maxDiffsInMemory);
+        this.tempDirectory    = tempDirectory;
+        this.compression      = compression      == null ? Compression.NONE            : compression;
+    }
+}
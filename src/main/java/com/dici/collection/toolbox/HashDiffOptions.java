@@ -0,0 +1,51 @@
+package com.dici.collection.toolbox;
+
+import static com.dici.check.Check.notNull;
+
+import java.io.File;
+
+import com.dici.check.Check;
+import com.dici.io.RecordCodec;
+import com.dici.io.RecordFileWriter.Compression;
+
+import lombok.Builder;
+import lombok.Value;
+
+/// Configuration of [CompareUnsortedIterators]. Both inputs are split in `partitions` buckets by key hash. Each side buffers at most half of
+/// `maxElementsInMemory` elements while it is being partitioned, beyond which all its buckets are spilled to temporary files with the given
+/// [RecordCodec]. The expected side of a bucket is then loaded in memory to be compared with the actual side, so there should be enough
+/// partitions for `parallelism` buckets to fit in memory at the same time.
+@Value
+public class HashDiffOptions<T> {
+    public static final int  DEFAULT_PARTITIONS             = 64;
+    public static final long DEFAULT_MAX_ELEMENTS_IN_MEMORY = 1_000_000;
+
+    public static <T> HashDiffOptions<T> withCodec(RecordCodec<T> codec) {
+        return HashDiffOptions.<T>builder().codec(codec).build();
+    }
+
+    RecordCodec<T> codec;
+    int            partitions;
+    long           maxElementsInMemory;
+    /// Null to use the default temporary directory
+    File           tempDirectory;
+    /// Number of buckets compared concurrently. Defaults to 1, in which case everything happens in the calling thread.
+    int            parallelism;
+    Compression    compression;
+
+    @Builder(toBuilder = true)
+    private HashDiffOptions(RecordCodec<T> codec, Integer partitions, Long maxElementsInMemory, File tempDirectory, Integer parallelism,
+            Compression compression) {
+        this.codec               = notNull(codec);
+        this.partitions          = partitions          == null ? DEFAULT_PARTITIONS             : Check.isPositive(partitions);
+        this.maxElementsInMemory = maxElementsInMemory == null ? DEFAULT_MAX_ELEMENTS_IN_MEMORY : checkBudget(maxElementsInMemory);
+        this.tempDirectory       = tempDirectory;
+        this.parallelism         = parallelism         == null ? 1                              : Check.isPositive(parallelism);
+        this.compression         = compression         == null ? Compression.NONE               : compression;
+    }
+
+    private static long checkBudget(long budget) {
+        Check.isGreaterThan(budget, 1, "The memory budget should hold at least one element per side");
+        return budget;
+    }
+}
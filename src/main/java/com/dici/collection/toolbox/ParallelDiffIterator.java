@@ -0,0 +1,75 @@
+package com.dici.collection.toolbox;
+
+import static com.dici.check.Check.notNull;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Iterator;
+
+import com.dici.collection.richIterator.LookAheadRichIterator;
+import com.dici.collection.richIterator.NullableRichIterator;
+import com.dici.collection.richIterator.RichIterator;
+import com.dici.collection.richIterator.RichIterators;
+import com.dici.collection.toolbox.CompareSortedIterators.DeepValidator;
+
+/// Parallel counterpart of [DiffIterator]. The sorted iterators are still matched on the consuming thread, but each pair of elements which
+/// compare equal is validated asynchronously with [RichIterator#mapAsync], which bounds the number of validations in flight. The validations
+/// are consumed in the order of the pairs, and the [DiffReport] is only updated by the consuming thread, so that the diffs are reported in the
+/// same order as with [DiffIterator]. The events reported by the deep validator are the only concurrent updates of the report.
+class ParallelDiffIterator<T> extends NullableRichIterator<Diff<T>> {
+	private final RichIterator<Match<T>>	matches;
+	private final DiffReport<T>				report;
+
+	ParallelDiffIterator(Iterator<T> actualIt, Iterator<T> expectedIt, DiffReport<T> report, Comparator<T> sortOrder, DeepValidator<T> deepValidator,
+			int parallelism) {
+		notNull(deepValidator);
+		this.report  = notNull(report);
+		this.matches = new MatchIterator<>(actualIt, expectedIt, sortOrder).mapAsync(parallelism, match -> match.validate(deepValidator, report));
+	}
+
+	@Override
+	protected Diff<T> nextOrNull() {
+		while (matches.hasNext()) {
+			Match<T> match = matches.next();
+			if      (match.actual   == null) return report.reportMissingElement   (match.expected);
+			else if (match.expected == null) return report.reportUnexpectedElement(match.actual  );
+			else if (!match.isValid)         return report.reportDifference       (match.actual, match.expected);
+			else                             report.reportEqual();
+		}
+		return null;
+	}
+
+	@Override
+	protected void closeInternal() throws IOException { matches.close(); }
+
+	/// Either a pair of elements which compare equal, or a single element missing from one of the sides
+	private record Match<T>(T actual, T expected, boolean isValid) {
+		Match<T> validate(DeepValidator<T> deepValidator, DiffReport<T> report) {
+			return actual == null || expected == null ? this : new Match<>(actual, expected, deepValidator.test(actual, expected, report));
+		}
+	}
+
+	/// Same walk as [DiffIterator], without validating the pairs nor reporting anything
+	private static class MatchIterator<T> extends NullableRichIterator<Match<T>> {
+		private final LookAheadRichIterator<T>	actualIt;
+		private final LookAheadRichIterator<T>	expectedIt;
+		private final Comparator<T>				sortOrder;
+
+		MatchIterator(Iterator<T> actualIt, Iterator<T> expectedIt, Comparator<T> sortOrder) {
+			this.actualIt   = new LookAheadRichIterator<>(RichIterators.wrap(notNull(actualIt)));
+			this.expectedIt = new LookAheadRichIterator<>(RichIterators.wrap(notNull(expectedIt)));
+			this.sortOrder  = notNull(sortOrder);
+		}
+
+		@Override
+		protected Match<T> nextOrNull() {
+			if (!actualIt  .hasNext() && !expectedIt.hasNext()) return null;
+			if (!actualIt  .hasNext()) return new Match<>(null, expectedIt.next(), false);
+			if (!expectedIt.hasNext()) return new Match<>(actualIt.next(), null, false);
+
+			int comparison = sortOrder.compare(actualIt.peek(), expectedIt.peek());
+			if (comparison == 0) return new Match<>(actualIt.next(), expectedIt.next(), false);
+			return comparison < 0 ? new Match<>(actualIt.next(), null, false) : new Match<>(null, expectedIt.next(), false);
+		}
+	}
+}
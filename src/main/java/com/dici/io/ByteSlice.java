@@ -0,0 +1,70 @@
+package com.dici.io;
+
+import static com.dici.check.Check.notNull;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Objects;
+
+/// Read-only view over a range of bytes of a [ByteBuffer], typically a memory-mapped file, which does not copy nor decode the bytes until asked
+/// to. As a [CharSequence], it exposes one `char` per byte (ISO-8859-1), which is exact for ASCII content and allows cheap comparisons, parsing and
+/// regex matching. [#toString()] is consistent with it, and other encodings such as UTF-8 should be decoded with [#decode(Charset)].
+public final class ByteSlice implements CharSequence {
+    private final ByteBuffer buffer;
+    private final int        offset;
+    private final int        length;
+
+    public static ByteSlice wrap(byte[] bytes) { return new ByteSlice(ByteBuffer.wrap(bytes), 0, bytes.length); }
+
+    /// The buffer is never modified, and is only accessed through absolute methods so that its position and limit do not matter
+    public ByteSlice(ByteBuffer buffer, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, notNull(buffer).capacity());
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() { return length; }
+
+    @Override
+    public char charAt(int index) { return (char) (byteAt(index) & 0xff); }
+
+    public byte byteAt(int index) {
+        Objects.checkIndex(index, length);
+        return buffer.get(offset + index);
+    }
+
+    @Override
+    public ByteSlice subSequence(int start, int end) {
+        Objects.checkFromToIndex(start, end, length);
+        return new ByteSlice(buffer, offset + start, end - start);
+    }
+
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return bytes;
+    }
+
+    public String decode(Charset charset) { return new String(toByteArray(), notNull(charset)); }
+
+    /// Decodes the bytes as ISO-8859-1, so that the string has the same length and characters as this [CharSequence]
+    @Override
+    public String toString() { return decode(ISO_8859_1); }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ByteSlice that)) return false;
+        return buffer.slice(offset, length).equals(that.buffer.slice(that.offset, that.length));
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < length; i++) hash = 31 * hash + buffer.get(offset + i);
+        return hash;
+    }
+}
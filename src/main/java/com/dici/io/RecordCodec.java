@@ -0,0 +1,91 @@
+package com.dici.io;
+
+import static com.dici.check.Check.notNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+/// Writes and reads records of a given type to and from a binary stream. Used wherever records need to be spilled to disk, so that the format
+/// can be chosen by the caller rather than being limited to Java serialization, which is slow, verbose and requires the records to be
+/// [Serializable].
+///
+/// Implementations must be able to read back exactly what they wrote, without any separator between records. [#read(DataInput)] is never called
+/// past the last record written.
+public interface RecordCodec<T> {
+    void write(T record, DataOutput out) throws IOException;
+    T read(DataInput in) throws IOException;
+
+    /// UTF-8 strings prefixed by their length in bytes. Unlike [DataOutput#writeUTF(String)], strings of any length are supported.
+    static RecordCodec<String> strings() {
+        return new RecordCodec<>() {
+            @Override
+            public void write(String record, DataOutput out) throws IOException {
+                byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            @Override
+            public String read(DataInput in) throws IOException {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    static RecordCodec<Integer> ints() {
+        return new RecordCodec<>() {
+            @Override public void    write(Integer record, DataOutput out) throws IOException { out.writeInt(record); }
+            @Override public Integer read (DataInput in)                  throws IOException { return in.readInt(); }
+        };
+    }
+
+    static RecordCodec<Long> longs() {
+        return new RecordCodec<>() {
+            @Override public void write(Long record, DataOutput out) throws IOException { out.writeLong(record); }
+            @Override public Long read (DataInput in)               throws IOException { return in.readLong(); }
+        };
+    }
+
+    static RecordCodec<Double> doubles() {
+        return new RecordCodec<>() {
+            @Override public void   write(Double record, DataOutput out) throws IOException { out.writeDouble(record); }
+            @Override public Double read (DataInput in)                 throws IOException { return in.readDouble(); }
+        };
+    }
+
+    /// Falls back to Java serialization, each record being serialized independently and prefixed by its length in bytes
+    static <T extends Serializable> RecordCodec<T> javaSerialization(Class<T> clazz) {
+        notNull(clazz);
+        return new RecordCodec<>() {
+            @Override
+            public void write(T record, DataOutput out) throws IOException {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                    oos.writeObject(record);
+                }
+                out.writeInt(bytes.size());
+                out.write(bytes.toByteArray());
+            }
+
+            @Override
+            public T read(DataInput in) throws IOException {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return clazz.cast(ois.readObject());
+                } catch (ClassNotFoundException e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,157 @@
+package com.dici.io;
+
+import static com.dici.check.Check.notNull;
+import static com.dici.io.RecordFileWriter.BLOCK_HEADER_SIZE;
+import static com.dici.io.RecordFileWriter.FILE_HEADER_SIZE;
+import static com.dici.io.RecordFileWriter.MAGIC;
+import static com.dici.io.RecordFileWriter.VERSION;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import com.dici.io.RecordFileWriter.Compression;
+
+/// Reads the records written by a [RecordFileWriter], one block at a time. The buffers holding the blocks are reused from one block to the next,
+/// so reading a file allocates nothing but the records themselves. The file is closed as soon as the last record has been read.
+public final class RecordFileReader<T> implements Iterator<T>, Closeable {
+    private final FileChannel    channel;
+    private final RecordCodec<T> codec;
+    private final Inflater       inflater;
+
+    private final ByteBuffer      blockHeader = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+    private final Block           block       = new Block();
+    private final DataInputStream in          = new DataInputStream(block);
+    private byte[]                raw         = new byte[RecordFileWriter.DEFAULT_BLOCK_SIZE];
+    private byte[]                stored      = new byte[0];
+    private int                   remaining   = 0;
+    private boolean               closed      = false;
+
+    public RecordFileReader(File file, RecordCodec<T> codec) throws IOException {
+        this.codec   = notNull(codec);
+        this.channel = FileChannel.open(notNull(file).toPath(), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            if (!readFully(header)) throw new EOFException("Missing header in " + file);
+            header.flip();
+            if (header.getInt() != MAGIC) throw new IOException(file + " is not a record file");
+
+            int version = header.get();
+            if (version != VERSION) throw new IOException("Unsupported record file version: " + version);
+
+            int compressionId = header.get();
+            if (compressionId < 0 || compressionId >= Compression.values().length) throw new IOException("Unknown compression: " + compressionId);
+
+            Compression compression = Compression.values()[compressionId];
+            this.inflater = compression == Compression.DEFLATE ? new Inflater() : null;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (remaining == 0) {
+                if (closed || !readBlock()) {
+                    close();
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        try {
+            remaining--;
+            return codec.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean readBlock() throws IOException {
+        if (!readFully(blockHeader.clear())) return false;
+        blockHeader.flip();
+        int records = blockHeader.getInt(), rawLength = blockHeader.getInt(), storedLength = blockHeader.getInt();
+
+        if (inflater == null) {
+            if (raw.length < rawLength) raw = new byte[rawLength];
+            readBlockContent(raw, storedLength);
+        } else {
+            if (stored.length < storedLength) stored = new byte[storedLength];
+            if (raw   .length < rawLength   ) raw    = new byte[rawLength   ];
+            readBlockContent(stored, storedLength);
+            inflate(storedLength, rawLength);
+        }
+
+        block.reset(raw, rawLength);
+        remaining = records;
+        return true;
+    }
+
+    private void readBlockContent(byte[] dest, int length) throws IOException {
+        if (!readFully(ByteBuffer.wrap(dest, 0, length))) throw new EOFException("Truncated record file");
+    }
+
+    private void inflate(int storedLength, int rawLength) throws IOException {
+        inflater.reset();
+        inflater.setInput(stored, 0, storedLength);
+        try {
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) length += inflater.inflate(raw, length, rawLength - length);
+            if (length != rawLength) throw new IOException("Corrupted block: expected " + rawLength + " bytes but inflated " + length);
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /// @return false if the end of the file was reached before reading anything, throws if it was reached after reading part of the buffer
+    private boolean readFully(ByteBuffer buffer) throws IOException {
+        int expected = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (buffer.remaining() == expected) return false;
+                throw new EOFException("Truncated record file");
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        if (inflater != null) inflater.end();
+        channel.close();
+    }
+
+    /// Allows reading successive blocks from the same stream
+    private static final class Block extends ByteArrayInputStream {
+        Block() { super(new byte[0]); }
+
+        void reset(byte[] bytes, int length) {
+            this.buf   = bytes;
+            this.pos   = 0;
+            this.count = length;
+            this.mark  = 0;
+        }
+    }
+}
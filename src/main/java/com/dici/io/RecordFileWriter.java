@@ -0,0 +1,126 @@
+package com.dici.io;
+
+import static com.dici.check.Check.notNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.zip.Deflater;
+
+import com.dici.check.Check;
+
+/// Writes records to a compact binary file, readable with [RecordFileReader]. Unlike an [java.io.ObjectOutputStream], the records are encoded by a
+/// [RecordCodec] and nothing is retained between records, so the cost of a record only depends on its own size.
+///
+/// The records are grouped into blocks of roughly [#DEFAULT_BLOCK_SIZE] bytes, each block being prefixed by its number of records and its length,
+/// and optionally compressed as a whole. The file starts with a header identifying the format and the compression of the blocks.
+public final class RecordFileWriter<T> implements Closeable {
+    public enum Compression { NONE, DEFLATE }
+
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+
+    static final int MAGIC             = 0x44524543;
+    static final int VERSION           = 1;
+    static final int FILE_HEADER_SIZE  = Integer.BYTES + 2;
+    /// Number of records, length of the block once decompressed and length stored in the file
+    static final int BLOCK_HEADER_SIZE = 3 * Integer.BYTES;
+
+    private final FileChannel    channel;
+    private final RecordCodec<T> codec;
+    private final Compression    compression;
+    private final int            blockSize;
+    private final Deflater       deflater;
+
+    private final Block            block       = new Block();
+    private final DataOutputStream out         = new DataOutputStream(block);
+    private final ByteBuffer       blockHeader = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+    private byte[]                 compressed  = new byte[0];
+    private int                    records     = 0;
+    private boolean                closed      = false;
+
+    public RecordFileWriter(File file, RecordCodec<T> codec) throws IOException { this(file, codec, Compression.NONE); }
+
+    public RecordFileWriter(File file, RecordCodec<T> codec, Compression compression) throws IOException {
+        this(file, codec, compression, DEFAULT_BLOCK_SIZE);
+    }
+
+    public RecordFileWriter(File file, RecordCodec<T> codec, Compression compression, int blockSize) throws IOException {
+        this.codec       = notNull(codec);
+        this.compression = notNull(compression);
+        this.blockSize   = Check.isPositive(blockSize);
+        this.deflater    = compression == Compression.DEFLATE ? new Deflater(Deflater.BEST_SPEED) : null;
+        this.channel     = FileChannel.open(notNull(file).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).put((byte) VERSION).put((byte) compression.ordinal());
+        writeFully(header.flip());
+    }
+
+    public void write(T record) throws IOException {
+        if (closed) throw new IllegalStateException("This writer is already closed");
+        codec.write(record, out);
+        records++;
+        if (block.size() >= blockSize) flushBlock();
+    }
+
+    public void writeAll(Iterator<? extends T> records) throws IOException {
+        while (records.hasNext()) write(records.next());
+    }
+
+    private void flushBlock() throws IOException {
+        if (records == 0) return;
+
+        ByteBuffer payload;
+        if (deflater == null) payload = ByteBuffer.wrap(block.array(), 0, block.size());
+        else {
+            // deflate never expands its input by more than a few bytes per 16 kB block
+            int bound = block.size() + (block.size() >> 12) + 64;
+            if (compressed.length < bound) compressed = new byte[bound];
+
+            deflater.reset();
+            deflater.setInput(block.array(), 0, block.size());
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == compressed.length) compressed = Arrays.copyOf(compressed, 2 * length);
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+            payload = ByteBuffer.wrap(compressed, 0, length);
+        }
+
+        blockHeader.clear().putInt(records).putInt(block.size()).putInt(payload.remaining()).flip();
+        writeFully(blockHeader, payload);
+        block.reset();
+        records = 0;
+    }
+
+    private void writeFully(ByteBuffer... buffers) throws IOException {
+        while (buffers[buffers.length - 1].hasRemaining()) channel.write(buffers);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            flushBlock();
+        } finally {
+            if (deflater != null) deflater.end();
+            channel.close();
+        }
+    }
+
+    /// Exposes its internal array so that blocks are compressed and written without being copied
+    private static final class Block extends ByteArrayOutputStream {
+        Block() { super(DEFAULT_BLOCK_SIZE); }
+
+        byte[] array() { return buf; }
+    }
+}
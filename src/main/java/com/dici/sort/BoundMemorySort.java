@@ -1,96 +1,39 @@
 package com.dici.sort;
 
-import static com.dici.exceptions.ExceptionUtils.uncheckedConsumer;
-import static com.dici.exceptions.ExceptionUtils.uncheckExceptionsAndGet;
-import static com.dici.math.MathUtils.lowerOrEqual;
+import static com.dici.check.Check.notNull;
 
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Iterator;
-import java.util.Optional;
 
-import com.dici.collection.Arrays;
 import com.dici.collection.richIterator.RichIterator;
 import com.dici.collection.richIterator.RichIterators;
-
-import com.google.common.base.Throwables;
-
+import com.dici.collection.richIterator.SortOptions;
+import com.dici.io.RecordCodec;
+
+/**
+ * Sorts iterators which do not fit in memory with an external merge sort: chunks fitting in the memory budget are sorted and spilled to
+ * temporary files, which are then merged lazily as the result is consumed. See {@link RichIterator#sorted(java.util.Comparator, SortOptions)}.
+ * The temporary files are deleted once the result is exhausted or closed.
+ */
 public class BoundMemorySort<T extends Comparable<T> & Serializable> {
-	private final Class<T>	clazz;
-	private final T[]		buffer;
-	private int				filledTo;
-	private File			merged;
+	private final SortOptions<T> options;
 
-	public BoundMemorySort(Class<T> clazz, int bufferSize) {
-		this.buffer = Arrays.ofDim(clazz,bufferSize);
-		this.clazz  = clazz;
-		this.merged = tempMergeFile();
+	public BoundMemorySort(Class<T> clazz, int bufferSize) { this(bufferSize,RecordCodec.javaSerialization(clazz)); }
+	
+	/**
+	 * @param codec used to write the elements to the temporary files. Defaults to Java serialization, which is much slower and more verbose than a
+	 * dedicated codec.
+	 */
+	public BoundMemorySort(int bufferSize, RecordCodec<T> codec) {
+		this(SortOptions.<T>builder().codec(codec).maxElementsInMemory((long) bufferSize).build());
 	}
 	
+	/**
+	 * Allows setting a memory budget in bytes, sorting the chunks in parallel or compressing the temporary files
+	 */
+	public BoundMemorySort(SortOptions<T> options) { this.options = notNull(options); }
+	
 	public RichIterator<T> sort(Iterable<T> iterable) { return sort(iterable.iterator()); }
 	
-	public RichIterator<T> sort(Iterator<T> source) {
-		fillBuffer(source);
-		T[] sorted = sortBuffer();
-		merge(sorted);
-		return source.hasNext() ? sort(source) : RichIterators.fromSerializedRecords(merged,clazz);
-	}
-
-	private T[] sortBuffer() {
-		T[] toSort = filledTo < buffer.length ? java.util.Arrays.copyOfRange(buffer,0,filledTo) : buffer;
-		java.util.Arrays.sort(toSort);
-		return toSort;
-	}
-
-	private void merge(T[] toSort) {
-		File newMerged = tempMergeFile();
-		try (FileOutputStream fos = new FileOutputStream(newMerged) ; ObjectOutputStream oos = new ObjectOutputStream(fos)) {
-			Iterator<T> it0 = RichIterators.fromSerializedRecords(merged,clazz);
-			Iterator<T> it1 = java.util.Arrays.asList(toSort).iterator();
-			Optional<T> next0 = Optional.empty(), next1 = Optional.empty();
-			
-			while (hasNext(it0,next0) && hasNext(it1,next1)) {
-				T elt0 = next0.orElseGet(it0::next);
-				T elt1 = next1.orElseGet(it1::next);
-				if (lowerOrEqual(elt0,elt1)) {
-					oos.writeObject(elt0);
-					next0 = Optional.empty();
-					next1 = Optional.of(elt1);
-				} else {
-					oos.writeObject(elt1);
-					next0 = Optional.of(elt0);
-					next1 = Optional.empty();
-				}
-			}
-			
-			RichIterator<T> remaining =    hasNext(it0,next0) ? 
-					remaining(it0,next0) : hasNext(it1,next1) ? 
-					remaining(it1,next1) : RichIterators.emptyIterator();
-			remaining.forEach(uncheckedConsumer(oos::writeObject));
-			remaining.close();
-			
-			merged = newMerged;
-		} catch (Exception e) {
-			throw Throwables.propagate(e);
-		}
-	}
-
-	private RichIterator<T> remaining(Iterator<T> it, Optional<T> head) {
-		 return head.isPresent() ? RichIterators.prepend(head.get(),it) : RichIterators.wrap(it);
-	}
-
-	private File tempMergeFile() {
-		return uncheckExceptionsAndGet(() -> File.createTempFile("merge",null));
-	}
-
-	private boolean hasNext(Iterator<T> it0, Optional<T> next0) {
-		return next0.isPresent() || it0.hasNext();
-	}
-
-	private void fillBuffer(Iterator<T> source) {
-		filledTo = 0;
-		for (int i=0 ; i<buffer.length && source.hasNext() ; buffer[i++] = source.next(), filledTo++);
-	}
+	public RichIterator<T> sort(Iterator<T> source) { return RichIterators.wrap(source).sorted(null,options); }
 }
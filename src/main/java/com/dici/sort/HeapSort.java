@@ -0,0 +1,38 @@
+package com.dici.sort;
+
+import static com.dici.collection.Arrays.swap;
+
+public class HeapSort<T extends Comparable<T>> implements SortAlgorithm<T> {
+	@Override
+	public void sort(T[] arr) {
+		sortRange(arr,0,arr.length);
+	}
+	
+	/**
+	 * In-place heap sort of {@code arr[from, to)}, in O(n log n) whatever the input
+	 */
+	static <T extends Comparable<T>> void sortRange(T[] arr, int from, int to) {
+		int n = to - from;
+		for (int i=n / 2 - 1 ; i>=0 ; i--) siftDown(arr,from,i,n);
+		for (int end=n - 1 ; end>0 ; end--) {
+			swap(arr,from,from + end);
+			siftDown(arr,from,0,end);
+		}
+	}
+	
+	private static <T extends Comparable<T>> void siftDown(T[] arr, int offset, int i, int n) {
+		T root = arr[offset + i];
+		for (int child=2*i + 1 ; child<n ; child=2*i + 1) {
+			if (child + 1 < n && arr[offset + child + 1].compareTo(arr[offset + child]) > 0) child++;
+			if (arr[offset + child].compareTo(root) <= 0) break;
+			arr[offset + i] = arr[offset + child];
+			i = child;
+		}
+		arr[offset + i] = root;
+	}
+	
+	@Override
+	public String getName() {
+		return "Heap sort";
+	}
+}
@@ -27,6 +27,18 @@ public class InsertionSort<T extends Comparable<T>> implements SortAlgorithm<T>
 			arr[i] = (T) result[i];
 	}
 	
+	/**
+	 * In-place insertion sort of {@code arr[from, to)}, used by the divide-and-conquer algorithms to sort small ranges. Stable.
+	 */
+	static <T extends Comparable<T>> void sortRange(T[] arr, int from, int to) {
+		for (int i=from + 1 ; i<to ; i++) {
+			T   current = arr[i];
+			int j       = i - 1;
+			for (; j >= from && arr[j].compareTo(current) > 0 ; j--) arr[j + 1] = arr[j];
+			arr[j + 1] = current;
+		}
+	}
+	
 	@Override
 	public String getName() {
 		return "Insertion sort";
@@ -0,0 +1,110 @@
+package com.dici.sort;
+
+import static com.dici.collection.Arrays.swap;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.dici.check.Check;
+
+/**
+ * Dual-pivot quicksort running on a fork-join pool, in place and without allocation. Each partitioning step splits a range into three parts
+ * (lower than the first pivot, between the pivots and greater than the second pivot), which are sorted in parallel if they are larger than the
+ * sequential threshold. Like an introsort, ranges which were partitioned too many times fall back to a heap sort, which bounds the complexity to
+ * O(n log n) even for adversarial inputs. Not stable.
+ */
+public class ParallelDualPivotQuickSort<T extends Comparable<T>> implements SortAlgorithm<T> {
+	public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 1 << 13;
+	
+	private static final int INSERTION_SORT_THRESHOLD = 32;
+	
+	private final ForkJoinPool	pool;
+	private final int			sequentialThreshold;
+	
+	public ParallelDualPivotQuickSort() { this(ForkJoinPool.commonPool(),DEFAULT_SEQUENTIAL_THRESHOLD); }
+	
+	public ParallelDualPivotQuickSort(ForkJoinPool pool, int sequentialThreshold) {
+		this.pool                = Check.notNull(pool);
+		this.sequentialThreshold = Math.max(Check.isPositive(sequentialThreshold),INSERTION_SORT_THRESHOLD);
+	}
+	
+	@Override
+	public void sort(T[] arr) {
+		if (arr.length < 2) return;
+		int maxDepth = 2 * (32 - Integer.numberOfLeadingZeros(arr.length));
+		if (arr.length <= sequentialThreshold) sortSequentially(arr,0,arr.length,maxDepth);
+		else                                   pool.invoke(new SortTask(arr,0,arr.length,maxDepth));
+	}
+	
+	private void sortSequentially(T[] arr, int from, int to, int depth) {
+		while (to - from > INSERTION_SORT_THRESHOLD) {
+			if (depth-- == 0) {
+				HeapSort.sortRange(arr,from,to);
+				return;
+			}
+			long bounds = partition(arr,from,to);
+			int  lt     = (int) (bounds >>> 32), gt = (int) bounds;
+			sortSequentially(arr,from,lt,depth);
+			if (arr[lt].compareTo(arr[gt]) < 0) sortSequentially(arr,lt + 1,gt,depth);
+			// loops on the last part rather than recursing
+			from = gt + 1;
+		}
+		InsertionSort.sortRange(arr,from,to);
+	}
+	
+	/**
+	 * Partitions {@code arr[from, to)} around two pivots taken at its first and second tertiles, so that sorted inputs are split evenly
+	 * @return the final indices of the two pivots, packed in a long
+	 */
+	private long partition(T[] arr, int from, int to) {
+		int third = (to - from) / 3;
+		swap(arr,from,from + third);
+		swap(arr,to - 1,to - 1 - third);
+		if (arr[from].compareTo(arr[to - 1]) > 0) swap(arr,from,to - 1);
+		
+		T   p  = arr[from], q = arr[to - 1];
+		int lt = from + 1, gt = to - 2;
+		for (int i=lt ; i<=gt ; i++) {
+			if (arr[i].compareTo(p) < 0) swap(arr,i,lt++);
+			else if (arr[i].compareTo(q) > 0) {
+				while (i < gt && arr[gt].compareTo(q) > 0) gt--;
+				swap(arr,i,gt--);
+				if (arr[i].compareTo(p) < 0) swap(arr,i,lt++);
+			}
+		}
+		swap(arr,from,--lt);
+		swap(arr,to - 1,++gt);
+		return (long) lt << 32 | gt;
+	}
+	
+	@Override
+	public String getName() {
+		return "Parallel dual-pivot quicksort";
+	}
+	
+	private final class SortTask extends RecursiveAction {
+		private final T[]	arr;
+		private final int	from, to, depth;
+		
+		SortTask(T[] arr, int from, int to, int depth) {
+			this.arr   = arr;
+			this.from  = from;
+			this.to    = to;
+			this.depth = depth;
+		}
+		
+		@Override
+		protected void compute() {
+			if (to - from <= sequentialThreshold || depth == 0) {
+				sortSequentially(arr,from,to,depth);
+				return;
+			}
+			long bounds = partition(arr,from,to);
+			int  lt     = (int) (bounds >>> 32), gt = (int) bounds;
+			if (arr[lt].compareTo(arr[gt]) < 0) 
+				invokeAll(new SortTask(arr,from,lt,depth - 1),new SortTask(arr,lt + 1,gt,depth - 1),new SortTask(arr,gt + 1,to,depth - 1));
+			else
+				invokeAll(new SortTask(arr,from,lt,depth - 1),new SortTask(arr,gt + 1,to,depth - 1));
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.dici.sort;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.dici.check.Check;
+
+/**
+ * Stable merge sort running on a fork-join pool. Unlike {@link MergeSort}, it allocates a single scratch buffer for the whole sort, sorts small
+ * ranges with an insertion sort, and skips the merge of two halves which are already in order. Ranges smaller than the sequential threshold are
+ * sorted by the thread which reached them rather than being split into new tasks.
+ */
+public class ParallelMergeSort<T extends Comparable<T>> implements SortAlgorithm<T> {
+	public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 1 << 13;
+	
+	static final int INSERTION_SORT_THRESHOLD = 32;
+	
+	private final ForkJoinPool	pool;
+	private final int			sequentialThreshold;
+	
+	public ParallelMergeSort() { this(ForkJoinPool.commonPool(),DEFAULT_SEQUENTIAL_THRESHOLD); }
+	
+	public ParallelMergeSort(ForkJoinPool pool, int sequentialThreshold) {
+		this.pool                = Check.notNull(pool);
+		this.sequentialThreshold = Math.max(Check.isPositive(sequentialThreshold),INSERTION_SORT_THRESHOLD);
+	}
+	
+	@Override
+	public void sort(T[] arr) {
+		if (arr.length < 2) return;
+		// only the left halves are copied before being merged, at the same indices as in the array
+		T[] scratch = Arrays.copyOf(arr,arr.length / 2 + 1);
+		if (arr.length <= sequentialThreshold) sortSequentially(arr,scratch,0,arr.length);
+		else                                   pool.invoke(new SortTask(arr,scratch,0,arr.length));
+	}
+	
+	private void sortSequentially(T[] arr, T[] scratch, int from, int to) {
+		if (to - from <= INSERTION_SORT_THRESHOLD) {
+			InsertionSort.sortRange(arr,from,to);
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		sortSequentially(arr,scratch,from,mid);
+		sortSequentially(arr,scratch,mid,to);
+		merge(arr,scratch,from,mid,to);
+	}
+	
+	/**
+	 * Merges the sorted ranges {@code arr[from, mid)} and {@code arr[mid, to)}, using {@code scratch[from - offset, mid - offset)} to hold the left
+	 * range, with {@code offset} chosen so that concurrent merges of disjoint ranges use disjoint parts of the scratch buffer
+	 */
+	private void merge(T[] arr, T[] scratch, int from, int mid, int to) {
+		if (arr[mid - 1].compareTo(arr[mid]) <= 0) return;
+		
+		int offset = from - from / 2;
+		System.arraycopy(arr,from,scratch,from - offset,mid - from);
+		int l = from - offset, lEnd = mid - offset, r = mid, i = from;
+		while (l < lEnd && r < to) arr[i++] = arr[r].compareTo(scratch[l]) < 0 ? arr[r++] : scratch[l++];
+		// the remaining right elements are already in place
+		System.arraycopy(scratch,l,arr,i,lEnd - l);
+	}
+	
+	@Override
+	public String getName() {
+		return "Parallel merge sort";
+	}
+	
+	private final class SortTask extends RecursiveAction {
+		private final T[]	arr, scratch;
+		private final int	from, to;
+		
+		SortTask(T[] arr, T[] scratch, int from, int to) {
+			this.arr     = arr;
+			this.scratch = scratch;
+			this.from    = from;
+			this.to      = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if (to - from <= sequentialThreshold) {
+				sortSequentially(arr,scratch,from,to);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new SortTask(arr,scratch,from,mid),new SortTask(arr,scratch,mid,to));
+			merge(arr,scratch,from,mid,to);
+		}
+	}
+}
@@ -3,6 +3,7 @@ package com.dici.sort;
 import static com.dici.collection.Arrays.swap;
 import static com.dici.math.MathUtils.lowerThan;
 
+import java.util.Comparator;
 import java.util.Random;
 
 public class QuickSort<T extends Comparable<T>> implements SortAlgorithm<T> {
@@ -35,19 +36,14 @@ public class QuickSort<T extends Comparable<T>> implements SortAlgorithm<T> {
 		return pivot;
 	}
 	
+	/**
+	 * @param k 1-based rank of the element to select
+	 * @see Select#select(Object[], int, java.util.Comparator)
+	 */
 	public T kthElement(T[] arr, int k) {
-		return kthElement(arr,k,0,arr.length);
+		return Select.select(arr,k - 1,Comparator.naturalOrder());
 	}
 	
-	private T kthElement(T[] arr, int k, int min, int max) {
-		if (min < max - 1) {
-			int p = pivot(arr,min,max);
-			return p == k - 1 ? arr[p]                      : 
-				   p <  k - 1 ? kthElement(arr,k,p + 1,max) : kthElement(arr,k,min,p);
-		}
-		return arr[Math.min(min,max)];
- 	}
-	
 	@Override
 	public String getName() {
 		return "Quicksort";
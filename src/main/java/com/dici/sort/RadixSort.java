@@ -0,0 +1,195 @@
+package com.dici.sort;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import com.dici.check.Check;
+
+/**
+ * Least-significant-digit radix sorts, which sort primitive arrays or arrays of objects by a primitive key in O(n) passes over the data instead
+ * of O(n log n) comparisons. The keys are processed one byte at a time, and the bytes which are the same for all the keys are skipped, so that
+ * small values need fewer passes. All the sorts are stable, and order the floating-point values like {@link Arrays#sort(double[])}.
+ * <p>
+ * As a {@link SortAlgorithm}, sorts the objects by a {@code long} key which must be consistent with their natural order.
+ */
+public class RadixSort<T extends Comparable<T>> implements SortAlgorithm<T> {
+	/** Below this size, comparison-based sorts are faster than counting bytes */
+	static final int SMALL_ARRAY_THRESHOLD = 64;
+	
+	private static final int RADIX = 256;
+	
+	private final ToLongFunction<? super T> key;
+	
+	public RadixSort(ToLongFunction<? super T> key) { this.key = Check.notNull(key); }
+	
+	@Override
+	public void sort(T[] arr) {
+		int[] order  = argsortByLong(arr,key);
+		T[]   copy   = Arrays.copyOf(arr,arr.length);
+		for (int i=0 ; i<arr.length ; i++) arr[i] = copy[order[i]];
+	}
+	
+	@Override
+	public String getName() {
+		return "Radix sort";
+	}
+	
+	public static void sort(int[] arr) {
+		if (arr.length < SMALL_ARRAY_THRESHOLD) Arrays.sort(arr);
+		else                                    sortSigned(arr,null);
+	}
+	
+	public static void sort(long[] arr) {
+		if (arr.length < SMALL_ARRAY_THRESHOLD) Arrays.sort(arr);
+		else                                    sortSigned(arr,null);
+	}
+	
+	public static void sort(float[] arr) {
+		if (arr.length < SMALL_ARRAY_THRESHOLD) {
+			Arrays.sort(arr);
+			return;
+		}
+		int[] keys = new int[arr.length];
+		for (int i=0 ; i<arr.length ; i++) keys[i] = toSortableInt(arr[i]);
+		sortSigned(keys,null);
+		for (int i=0 ; i<arr.length ; i++) arr[i] = fromSortableInt(keys[i]);
+	}
+	
+	public static void sort(double[] arr) {
+		if (arr.length < SMALL_ARRAY_THRESHOLD) {
+			Arrays.sort(arr);
+			return;
+		}
+		long[] keys = new long[arr.length];
+		for (int i=0 ; i<arr.length ; i++) keys[i] = toSortableLong(arr[i]);
+		sortSigned(keys,null);
+		for (int i=0 ; i<arr.length ; i++) arr[i] = fromSortableLong(keys[i]);
+	}
+	
+	/**
+	 * @return the permutation which sorts {@code arr} by the extracted key, i.e. the indices of the elements of {@code arr} in sorted order.
+	 * Elements with equal keys keep their relative order.
+	 */
+	public static <T> int[] argsortByInt(T[] arr, ToIntFunction<? super T> key) {
+		int[] keys = new int[arr.length];
+		for (int i=0 ; i<arr.length ; i++) keys[i] = key.applyAsInt(arr[i]);
+		return argsort(keys);
+	}
+	
+	/** See {@link #argsortByInt(Object[], ToIntFunction)} */
+	public static <T> int[] argsortByLong(T[] arr, ToLongFunction<? super T> key) {
+		long[] keys = new long[arr.length];
+		for (int i=0 ; i<arr.length ; i++) keys[i] = key.applyAsLong(arr[i]);
+		return argsort(keys);
+	}
+	
+	/** See {@link #argsortByInt(Object[], ToIntFunction)} */
+	public static <T> int[] argsortByDouble(T[] arr, ToDoubleFunction<? super T> key) {
+		long[] keys = new long[arr.length];
+		for (int i=0 ; i<arr.length ; i++) keys[i] = toSortableLong(key.applyAsDouble(arr[i]));
+		return argsort(keys);
+	}
+	
+	/** @return the permutation which sorts the keys, which are left unmodified */
+	public static int[] argsort(int[] keys) {
+		int[] order = identity(keys.length);
+		sortSigned(keys.clone(),order);
+		return order;
+	}
+	
+	/** @return the permutation which sorts the keys, which are left unmodified */
+	public static int[] argsort(long[] keys) {
+		int[] order = identity(keys.length);
+		sortSigned(keys.clone(),order);
+		return order;
+	}
+	
+	private static int[] identity(int n) {
+		int[] order = new int[n];
+		for (int i=0 ; i<n ; i++) order[i] = i;
+		return order;
+	}
+	
+	/**
+	 * Sorts the keys as signed integers, and applies the same permutation to the payload if not null
+	 */
+	private static void sortSigned(int[] keys, int[] payload) {
+		int     n           = keys.length;
+		int[][] counts      = new int[Integer.BYTES][RADIX];
+		for (int key : keys) {
+			int unsigned = key ^ Integer.MIN_VALUE;
+			for (int d=0 ; d<Integer.BYTES ; d++) counts[d][(unsigned >>> 8 * d) & 0xFF]++;
+		}
+		
+		int[] src = keys, dst = new int[n];
+		int[] srcPayload = payload, dstPayload = payload == null ? null : new int[n];
+		for (int d=0 ; d<Integer.BYTES ; d++) {
+			int[] offsets = toOffsets(counts[d],n);
+			if (offsets == null) continue;
+			
+			int shift = 8 * d;
+			for (int i=0 ; i<n ; i++) {
+				int index = offsets[((src[i] ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++;
+				dst[index] = src[i];
+				if (payload != null) dstPayload[index] = srcPayload[i];
+			}
+			int[] tmp = src; src = dst; dst = tmp;
+			if (payload != null) { tmp = srcPayload; srcPayload = dstPayload; dstPayload = tmp; }
+		}
+		if (src != keys) System.arraycopy(src,0,keys,0,n);
+		if (payload != null && srcPayload != payload) System.arraycopy(srcPayload,0,payload,0,n);
+	}
+	
+	/** See {@link #sortSigned(int[], int[])} */
+	private static void sortSigned(long[] keys, int[] payload) {
+		int     n      = keys.length;
+		int[][] counts = new int[Long.BYTES][RADIX];
+		for (long key : keys) {
+			long unsigned = key ^ Long.MIN_VALUE;
+			for (int d=0 ; d<Long.BYTES ; d++) counts[d][(int) (unsigned >>> 8 * d) & 0xFF]++;
+		}
+		
+		long[] src = keys, dst = new long[n];
+		int[]  srcPayload = payload, dstPayload = payload == null ? null : new int[n];
+		for (int d=0 ; d<Long.BYTES ; d++) {
+			int[] offsets = toOffsets(counts[d],n);
+			if (offsets == null) continue;
+			
+			int shift = 8 * d;
+			for (int i=0 ; i<n ; i++) {
+				int index = offsets[(int) ((src[i] ^ Long.MIN_VALUE) >>> shift) & 0xFF]++;
+				dst[index] = src[i];
+				if (payload != null) dstPayload[index] = srcPayload[i];
+			}
+			long[] tmp = src; src = dst; dst = tmp;
+			if (payload != null) { int[] tmpPayload = srcPayload; srcPayload = dstPayload; dstPayload = tmpPayload; }
+		}
+		if (src != keys) System.arraycopy(src,0,keys,0,n);
+		if (payload != null && srcPayload != payload) System.arraycopy(srcPayload,0,payload,0,n);
+	}
+	
+	/**
+	 * Turns the counts of a digit into the index of the first key of each bucket, in place
+	 * @return the offsets, or null if all the keys have the same digit, in which case the pass can be skipped
+	 */
+	private static int[] toOffsets(int[] counts, int n) {
+		int offset = 0;
+		for (int b=0 ; b<RADIX ; b++) {
+			if (counts[b] == n) return null;
+			int count = counts[b];
+			counts[b] = offset;
+			offset   += count;
+		}
+		return counts;
+	}
+	
+	/** Maps the floats to ints which have the same order as signed integers, as per {@link Float#compare(float, float)} */
+	private static int   toSortableInt  (float f) { int bits = Float.floatToIntBits(f); return bits ^ (bits >> 31 & Integer.MAX_VALUE); }
+	private static float fromSortableInt(int key) { return Float.intBitsToFloat(key ^ (key >> 31 & Integer.MAX_VALUE))                ; }
+	
+	/** Maps the doubles to longs which have the same order as signed integers, as per {@link Double#compare(double, double)} */
+	private static long   toSortableLong  (double d) { long bits = Double.doubleToLongBits(d); return bits ^ (bits >> 63 & Long.MAX_VALUE); }
+	private static double fromSortableLong(long key) { return Double.longBitsToDouble(key ^ (key >> 63 & Long.MAX_VALUE))                 ; }
+}
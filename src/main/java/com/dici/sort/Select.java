@@ -0,0 +1,443 @@
+package com.dici.sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Selection of order statistics (the k-th smallest element of an array) in expected linear time and without randomness. Large ranges are
+ * narrowed down with the Floyd-Rivest algorithm, which selects recursively in a small sample to pick a pivot very close to the target rank, and
+ * small ranges are sorted by insertion. Like an introselect, if a selection takes more partitioning steps than expected, the pivots are then
+ * chosen by median of medians, which bounds the worst case to O(n).
+ * <p>
+ * Ranks are 0-based. The arrays are reordered in place, and no memory is allocated.
+ */
+@UtilityClass
+public class Select {
+	private static final int INSERTION_SORT_THRESHOLD = 16;
+	private static final int FLOYD_RIVEST_THRESHOLD   = 600;
+	
+	/** Number of partitioning steps allowed before falling back to median of medians */
+	private static int introspectionBudget(int n) { return 2 * (32 - Integer.numberOfLeadingZeros(n)) + 8; }
+	
+	private static int[] sortedRanks(int[] ks, int n) {
+		for (int k : ks) Objects.checkIndex(k,n);
+		return Arrays.stream(ks).sorted().distinct().toArray();
+	}
+	
+	/**
+	 * Rearranges the array so that {@code arr[k]} is the element which would be at index {@code k} if the array was sorted, all the elements before
+	 * it being lower or equal and all the elements after it being greater or equal
+	 * @return {@code arr[k]}
+	 */
+	public static int select(int[] arr, int k) { return select(arr,0,arr.length,k); }
+	
+	/**
+	 * Same as {@link #select(int[], int)}, restricted to {@code arr[from, to)}
+	 * @param k the index of the element to select, between {@code from} and {@code to}
+	 */
+	public static int select(int[] arr, int from, int to, int k) {
+		Objects.checkFromToIndex(from,to,arr.length);
+		Objects.checkIndex(k - from,to - from);
+		select(arr,from,to - 1,k,introspectionBudget(to - from));
+		return arr[k];
+	}
+	
+	/**
+	 * Selects several order statistics at once, by selecting the median rank first and then recursing on both sides, which costs O(n log m) for
+	 * m ranks. When the method returns, {@code arr[k]} is the element of rank {@code k} for each of the ranks, and the array is partitioned around
+	 * each of them.
+	 * @return the selected elements, in the same order as the ranks
+	 */
+	public static int[] selectAll(int[] arr, int[] ks) {
+		int[] sorted = sortedRanks(ks,arr.length);
+		selectAll(arr,0,arr.length - 1,sorted,0,sorted.length,introspectionBudget(arr.length));
+		
+		int[] res = new int[ks.length];
+		for (int i=0 ; i<ks.length ; i++) res[i] = arr[ks[i]];
+		return res;
+	}
+	
+	private static void selectAll(int[] arr, int left, int right, int[] ks, int from, int to, int budget) {
+		if (from >= to) return;
+		int mid = (from + to) >>> 1, k = ks[mid];
+		select(arr,left,right,k,budget);
+		selectAll(arr,left,k - 1,ks,from,mid,budget);
+		selectAll(arr,k + 1,right,ks,mid + 1,to,budget);
+	}
+	
+	private static void select(int[] arr, int left, int right, int k, int budget) {
+		while (right > left) {
+			if (right - left < INSERTION_SORT_THRESHOLD) {
+				insertionSort(arr,left,right);
+				return;
+			}
+			
+			if (budget-- <= 0) {
+				swap(arr,k,medianOfMedians(arr,left,right));
+			} else if (right - left > FLOYD_RIVEST_THRESHOLD) {
+				// selects recursively in a sample expected to contain the element of rank k, which makes arr[k] an excellent pivot
+				int    n  = right - left + 1, i = k - left + 1;
+				double z  = Math.log(n);
+				double s  = 0.5 * Math.exp(2 * z / 3);
+				double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * Math.signum(i - n / 2.0);
+				int    newLeft  = Math.max(left ,(int) (k - i * s / n + sd));
+				int    newRight = Math.min(right,(int) (k + (n - i) * s / n + sd));
+				select(arr,newLeft,newRight,k,budget);
+			}
+			
+			int j = partition(arr,left,right,k);
+			if (j <= k) left  = j + 1;
+			if (k <= j) right = j - 1;
+		}
+	}
+	
+	/**
+	 * Partitions {@code arr[left, right]} around {@code arr[k]}
+	 * @return the final index of the pivot
+	 */
+	private static int partition(int[] arr, int left, int right, int k) {
+		int t = arr[k];
+		swap(arr,left,k);
+		if (t < arr[right]) swap(arr,right,left);
+		
+		int i = left, j = right;
+		while (i < j) {
+			swap(arr,i++,j--);
+			while (arr[i] < t) i++;
+			while (t < arr[j]) j--;
+		}
+		if (arr[left] == t) swap(arr,left,j);
+		else                     swap(arr,++j,right);
+		return j;
+	}
+	
+	/**
+	 * @return the index of a pivot which is guaranteed to have at least 30% of the range on each side, found in linear time by selecting the
+	 * median of the medians of groups of five elements
+	 */
+	private static int medianOfMedians(int[] arr, int left, int right) {
+		int medians = left;
+		for (int from=left ; from<=right ; from+=5) {
+			int to = Math.min(from + 4,right);
+			insertionSort(arr,from,to);
+			swap(arr,medians++,(from + to) >>> 1);
+		}
+		int mid = (left + medians - 1) >>> 1;
+		select(arr,left,medians - 1,mid,0);
+		return mid;
+	}
+	
+	private static void insertionSort(int[] arr, int left, int right) {
+		for (int i=left + 1 ; i<=right ; i++) {
+			int current = arr[i];
+			int j = i - 1;
+			for (; j >= left && current < arr[j] ; j--) arr[j + 1] = arr[j];
+			arr[j + 1] = current;
+		}
+	}
+	
+	private static void swap(int[] arr, int i, int j) {
+		int tmp = arr[i];
+		arr[i] = arr[j];
+		arr[j] = tmp;
+	}
+
+	/** See {@link #select(int[], int)} */
+	public static long select(long[] arr, int k) { return select(arr,0,arr.length,k); }
+	
+	/** See {@link #select(int[], int, int, int)} */
+	public static long select(long[] arr, int from, int to, int k) {
+		Objects.checkFromToIndex(from,to,arr.length);
+		Objects.checkIndex(k - from,to - from);
+		select(arr,from,to - 1,k,introspectionBudget(to - from));
+		return arr[k];
+	}
+	
+	/** See {@link #selectAll(int[], int[])} */
+	public static long[] selectAll(long[] arr, int[] ks) {
+		int[] sorted = sortedRanks(ks,arr.length);
+		selectAll(arr,0,arr.length - 1,sorted,0,sorted.length,introspectionBudget(arr.length));
+		
+		long[] res = new long[ks.length];
+		for (int i=0 ; i<ks.length ; i++) res[i] = arr[ks[i]];
+		return res;
+	}
+	
+	private static void selectAll(long[] arr, int left, int right, int[] ks, int from, int to, int budget) {
+		if (from >= to) return;
+		int mid = (from + to) >>> 1, k = ks[mid];
+		select(arr,left,right,k,budget);
+		selectAll(arr,left,k - 1,ks,from,mid,budget);
+		selectAll(arr,k + 1,right,ks,mid + 1,to,budget);
+	}
+	
+	private static void select(long[] arr, int left, int right, int k, int budget) {
+		while (right > left) {
+			if (right - left < INSERTION_SORT_THRESHOLD) {
+				insertionSort(arr,left,right);
+				return;
+			}
+			
+			if (budget-- <= 0) {
+				swap(arr,k,medianOfMedians(arr,left,right));
+			} else if (right - left > FLOYD_RIVEST_THRESHOLD) {
+				int    n  = right - left + 1, i = k - left + 1;
+				double z  = Math.log(n);
+				double s  = 0.5 * Math.exp(2 * z / 3);
+				double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * Math.signum(i - n / 2.0);
+				int    newLeft  = Math.max(left ,(int) (k - i * s / n + sd));
+				int    newRight = Math.min(right,(int) (k + (n - i) * s / n + sd));
+				select(arr,newLeft,newRight,k,budget);
+			}
+			
+			int j = partition(arr,left,right,k);
+			if (j <= k) left  = j + 1;
+			if (k <= j) right = j - 1;
+		}
+	}
+	
+	private static int partition(long[] arr, int left, int right, int k) {
+		long t = arr[k];
+		swap(arr,left,k);
+		if (t < arr[right]) swap(arr,right,left);
+		
+		int i = left, j = right;
+		while (i < j) {
+			swap(arr,i++,j--);
+			while (arr[i] < t) i++;
+			while (t < arr[j]) j--;
+		}
+		if (arr[left] == t) swap(arr,left,j);
+		else                     swap(arr,++j,right);
+		return j;
+	}
+	
+	private static int medianOfMedians(long[] arr, int left, int right) {
+		int medians = left;
+		for (int from=left ; from<=right ; from+=5) {
+			int to = Math.min(from + 4,right);
+			insertionSort(arr,from,to);
+			swap(arr,medians++,(from + to) >>> 1);
+		}
+		int mid = (left + medians - 1) >>> 1;
+		select(arr,left,medians - 1,mid,0);
+		return mid;
+	}
+	
+	private static void insertionSort(long[] arr, int left, int right) {
+		for (int i=left + 1 ; i<=right ; i++) {
+			long current = arr[i];
+			int j = i - 1;
+			for (; j >= left && current < arr[j] ; j--) arr[j + 1] = arr[j];
+			arr[j + 1] = current;
+		}
+	}
+	
+	private static void swap(long[] arr, int i, int j) {
+		long tmp = arr[i];
+		arr[i] = arr[j];
+		arr[j] = tmp;
+	}
+
+	/** See {@link #select(int[], int)}. The doubles are ordered as by {@link Double#compare(double, double)}. */
+	public static double select(double[] arr, int k) { return select(arr,0,arr.length,k); }
+	
+	/** See {@link #select(int[], int, int, int)} */
+	public static double select(double[] arr, int from, int to, int k) {
+		Objects.checkFromToIndex(from,to,arr.length);
+		Objects.checkIndex(k - from,to - from);
+		select(arr,from,to - 1,k,introspectionBudget(to - from));
+		return arr[k];
+	}
+	
+	/** See {@link #selectAll(int[], int[])} */
+	public static double[] selectAll(double[] arr, int[] ks) {
+		int[] sorted = sortedRanks(ks,arr.length);
+		selectAll(arr,0,arr.length - 1,sorted,0,sorted.length,introspectionBudget(arr.length));
+		
+		double[] res = new double[ks.length];
+		for (int i=0 ; i<ks.length ; i++) res[i] = arr[ks[i]];
+		return res;
+	}
+	
+	private static void selectAll(double[] arr, int left, int right, int[] ks, int from, int to, int budget) {
+		if (from >= to) return;
+		int mid = (from + to) >>> 1, k = ks[mid];
+		select(arr,left,right,k,budget);
+		selectAll(arr,left,k - 1,ks,from,mid,budget);
+		selectAll(arr,k + 1,right,ks,mid + 1,to,budget);
+	}
+	
+	private static void select(double[] arr, int left, int right, int k, int budget) {
+		while (right > left) {
+			if (right - left < INSERTION_SORT_THRESHOLD) {
+				insertionSort(arr,left,right);
+				return;
+			}
+			
+			if (budget-- <= 0) {
+				swap(arr,k,medianOfMedians(arr,left,right));
+			} else if (right - left > FLOYD_RIVEST_THRESHOLD) {
+				int    n  = right - left + 1, i = k - left + 1;
+				double z  = Math.log(n);
+				double s  = 0.5 * Math.exp(2 * z / 3);
+				double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * Math.signum(i - n / 2.0);
+				int    newLeft  = Math.max(left ,(int) (k - i * s / n + sd));
+				int    newRight = Math.min(right,(int) (k + (n - i) * s / n + sd));
+				select(arr,newLeft,newRight,k,budget);
+			}
+			
+			int j = partition(arr,left,right,k);
+			if (j <= k) left  = j + 1;
+			if (k <= j) right = j - 1;
+		}
+	}
+	
+	private static int partition(double[] arr, int left, int right, int k) {
+		double t = arr[k];
+		swap(arr,left,k);
+		if (Double.compare(t,arr[right]) < 0) swap(arr,right,left);
+		
+		int i = left, j = right;
+		while (i < j) {
+			swap(arr,i++,j--);
+			while (Double.compare(arr[i],t) < 0) i++;
+			while (Double.compare(t,arr[j]) < 0) j--;
+		}
+		if (Double.compare(arr[left],t) == 0) swap(arr,left,j);
+		else                     swap(arr,++j,right);
+		return j;
+	}
+	
+	private static int medianOfMedians(double[] arr, int left, int right) {
+		int medians = left;
+		for (int from=left ; from<=right ; from+=5) {
+			int to = Math.min(from + 4,right);
+			insertionSort(arr,from,to);
+			swap(arr,medians++,(from + to) >>> 1);
+		}
+		int mid = (left + medians - 1) >>> 1;
+		select(arr,left,medians - 1,mid,0);
+		return mid;
+	}
+	
+	private static void insertionSort(double[] arr, int left, int right) {
+		for (int i=left + 1 ; i<=right ; i++) {
+			double current = arr[i];
+			int j = i - 1;
+			for (; j >= left && Double.compare(current,arr[j]) < 0 ; j--) arr[j + 1] = arr[j];
+			arr[j + 1] = current;
+		}
+	}
+	
+	private static void swap(double[] arr, int i, int j) {
+		double tmp = arr[i];
+		arr[i] = arr[j];
+		arr[j] = tmp;
+	}
+
+	/** See {@link #select(int[], int)} */
+	public static <T> T select(T[] arr, int k, Comparator<? super T> cmp) { return select(arr,0,arr.length,k,cmp); }
+	
+	/**
+	 * Same as {@link #select(Object[], int, Comparator)}, restricted to {@code arr[from, to)}
+	 * @param k the index of the element to select, between {@code from} and {@code to}
+	 */
+	public static <T> T select(T[] arr, int from, int to, int k, Comparator<? super T> cmp) {
+		Objects.requireNonNull(cmp);
+		Objects.checkFromToIndex(from,to,arr.length);
+		Objects.checkIndex(k - from,to - from);
+		select(arr,from,to - 1,k,introspectionBudget(to - from),cmp);
+		return arr[k];
+	}
+	
+	/** See {@link #selectAll(int[], int[])} */
+	public static <T> T[] selectAll(T[] arr, int[] ks, Comparator<? super T> cmp) {
+		Objects.requireNonNull(cmp);
+		int[] sorted = sortedRanks(ks,arr.length);
+		selectAll(arr,0,arr.length - 1,sorted,0,sorted.length,introspectionBudget(arr.length),cmp);
+		
+		T[] res = Arrays.copyOf(arr,ks.length);
+		for (int i=0 ; i<ks.length ; i++) res[i] = arr[ks[i]];
+		return res;
+	}
+	
+	private static <T> void selectAll(T[] arr, int left, int right, int[] ks, int from, int to, int budget, Comparator<? super T> cmp) {
+		if (from >= to) return;
+		int mid = (from + to) >>> 1, k = ks[mid];
+		select(arr,left,right,k,budget,cmp);
+		selectAll(arr,left,k - 1,ks,from,mid,budget,cmp);
+		selectAll(arr,k + 1,right,ks,mid + 1,to,budget,cmp);
+	}
+	
+	private static <T> void select(T[] arr, int left, int right, int k, int budget, Comparator<? super T> cmp) {
+		while (right > left) {
+			if (right - left < INSERTION_SORT_THRESHOLD) {
+				insertionSort(arr,left,right,cmp);
+				return;
+			}
+			
+			if (budget-- <= 0) {
+				swap(arr,k,medianOfMedians(arr,left,right,cmp));
+			} else if (right - left > FLOYD_RIVEST_THRESHOLD) {
+				int    n  = right - left + 1, i = k - left + 1;
+				double z  = Math.log(n);
+				double s  = 0.5 * Math.exp(2 * z / 3);
+				double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * Math.signum(i - n / 2.0);
+				int    newLeft  = Math.max(left ,(int) (k - i * s / n + sd));
+				int    newRight = Math.min(right,(int) (k + (n - i) * s / n + sd));
+				select(arr,newLeft,newRight,k,budget,cmp);
+			}
+			
+			int j = partition(arr,left,right,k,cmp);
+			if (j <= k) left  = j + 1;
+			if (k <= j) right = j - 1;
+		}
+	}
+	
+	private static <T> int partition(T[] arr, int left, int right, int k, Comparator<? super T> cmp) {
+		T t = arr[k];
+		swap(arr,left,k);
+		if (cmp.compare(t,arr[right]) < 0) swap(arr,right,left);
+		
+		int i = left, j = right;
+		while (i < j) {
+			swap(arr,i++,j--);
+			while (cmp.compare(arr[i],t) < 0) i++;
+			while (cmp.compare(t,arr[j]) < 0) j--;
+		}
+		if (cmp.compare(arr[left],t) == 0) swap(arr,left,j);
+		else                     swap(arr,++j,right);
+		return j;
+	}
+	
+	private static <T> int medianOfMedians(T[] arr, int left, int right, Comparator<? super T> cmp) {
+		int medians = left;
+		for (int from=left ; from<=right ; from+=5) {
+			int to = Math.min(from + 4,right);
+			insertionSort(arr,from,to,cmp);
+			swap(arr,medians++,(from + to) >>> 1);
+		}
+		int mid = (left + medians - 1) >>> 1;
+		select(arr,left,medians - 1,mid,0,cmp);
+		return mid;
+	}
+	
+	private static <T> void insertionSort(T[] arr, int left, int right, Comparator<? super T> cmp) {
+		for (int i=left + 1 ; i<=right ; i++) {
+			T current = arr[i];
+			int j = i - 1;
+			for (; j >= left && cmp.compare(current,arr[j]) < 0 ; j--) arr[j + 1] = arr[j];
+			arr[j + 1] = current;
+		}
+	}
+	
+	private static <T> void swap(T[] arr, int i, int j) {
+		T tmp = arr[i];
+		arr[i] = arr[j];
+		arr[j] = tmp;
+	}
+}
@@ -1,12 +1,8 @@
 package com.dici.collection
 
-import scala.util.Random
+import com.dici.sort.Select
 
 object QuickSelect {
-  import ScalaArrayUtils.swap
-
-  private val rd = new Random
-
   /**
     * Calculates the median value in an array. The returned value is such that the set elements which are lower or equal
     * to this value has the same cardinality as the set of elements which are greater or equal. In the case of arrays
@@ -21,28 +17,20 @@ object QuickSelect {
 
   def kthElement[T](arr: Array[T], k: Int)(implicit ordering: Ordering[T]): T = kthElement(arr, k, 0, arr.length)(ordering)
 
-  def kthElement[T](arr: Array[T], k: Int, min: Int, max: Int)(implicit ordering: Ordering[T]): T = {
-    if (min < max - 1) {
-      val p = pivot(arr, min, max)
-      return if (p == k - 1) arr(p)
-      else if (p < k - 1) kthElement(arr, k, p + 1, max)(ordering)
-      else kthElement(arr, k, min, p)(ordering)
-    }
-    arr(Math.min(min, max))
-  }
-
-  private def pivot[T](arr: Array[T], min: Int, max: Int)(implicit ordering: Ordering[T]) = {
-    var pivot = min + rd.nextInt(max - min)
-    swap(arr, pivot, max - 1)
-    pivot = min
-
-    for (i <- min until max) {
-      if (ordering.lt(arr(i), arr(max - 1))) {
-        swap(arr, i, pivot)
-        pivot += 1
-      }
-    }
-    swap(arr, max - 1, pivot)
-    pivot
+  /**
+    * Selects the element of 1-based rank k with [[Select]], which runs in linear time even in the worst case. Arrays of
+    * ints, longs and doubles are selected in place when the ordering is the default one for their type, and other arrays
+    * of primitives are boxed, as [[Select]] only supports the natural order of primitives.
+    */
+  def kthElement[T](arr: Array[T], k: Int, min: Int, max: Int)(implicit ordering: Ordering[T]): T = arr match {
+    case refs: Array[AnyRef] => Select.select(refs, min, max, k - 1, ordering.asInstanceOf[Ordering[AnyRef]]).asInstanceOf[T]
+    case ints: Array[Int] if ordering eq Ordering.Int => Select.select(ints, min, max, k - 1).asInstanceOf[T]
+    case longs: Array[Long] if ordering eq Ordering.Long => Select.select(longs, min, max, k - 1).asInstanceOf[T]
+    case doubles: Array[Double] if ordering eq Ordering.Double => Select.select(doubles, min, max, k - 1).asInstanceOf[T]
+    case _ =>
+      val boxed = Array.tabulate[AnyRef](max - min)(i => arr(min + i).asInstanceOf[AnyRef])
+      val res   = Select.select(boxed, k - 1 - min, ordering.asInstanceOf[Ordering[AnyRef]])
+      for (i <- boxed.indices) arr(min + i) = boxed(i).asInstanceOf[T]
+      res.asInstanceOf[T]
   }
 }
@@ -5,6 +5,8 @@ import com.dici.collection.BoundedBuffer.SizeExceededPolicy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 import static java.util.Arrays.asList;
@@ -67,4 +69,67 @@ public class BoundedBufferTest {
 		buffer.add(2);
 		assertThat(buffer.isFull(), is(true));
 	}
+
+	@Test
+	public void wrapsAroundTheArray() {
+		BoundedBuffer<Integer> buffer = new BoundedBuffer<>(4, SizeExceededPolicy.ERROR);
+		for (int i = 0; i < 100; i++) {
+			buffer.addLast(i);
+			if (buffer.isFull()) assertThat(buffer.pollFirst(), equalTo(i - 3));
+		}
+		buffer.addFirst(-1);
+		assertThat(new ArrayList<>(buffer), equalTo(asList(-1, 97, 98, 99)));
+		assertThat(buffer.removeLast(), equalTo(99));
+		assertThat(buffer.getLast(), equalTo(98));
+	}
+
+	@Test
+	public void growsUpToMaxSize() {
+		BoundedBuffer<Integer> buffer = new BoundedBuffer<>(100, SizeExceededPolicy.IGNORE);
+		for (int i = 0; i < 50; i++) buffer.addFirst(i);
+		for (int i = 50; i < 150; i++) buffer.addLast(i);
+
+		assertThat(buffer.size(), equalTo(100));
+		assertThat(buffer.getFirst(), equalTo(49));
+		assertThat(buffer.getLast(), equalTo(99));
+		assertThat(buffer.offerFirst(-1), is(false));
+	}
+
+	@Test
+	public void unboundedBufferDoesNotAllocateUpfront() {
+		BoundedBuffer<Integer> buffer = new BoundedBuffer<>(Integer.MAX_VALUE, SizeExceededPolicy.ERROR);
+		buffer.add(1);
+		assertThat(buffer.toArray(), equalTo(new Object[] { 1 }));
+	}
+
+	@Test
+	public void acceptsNulls() {
+		buffer.add(null);
+		assertThat(buffer.contains(null), is(true));
+		assertThat(buffer.pollLast(), equalTo(null));
+		assertThat(buffer.size(), equalTo(2));
+	}
+
+	@Test
+	public void iteratorsSupportRemoval() {
+		BoundedBuffer<Integer> buffer = new BoundedBuffer<>(10, asList(1, 2, 3, 4, 5, 6, 7), SizeExceededPolicy.ERROR);
+		buffer.removeIf(i -> i % 2 == 0);
+		assertThat(new ArrayList<>(buffer), equalTo(asList(1, 3, 5, 7)));
+
+		Iterator<Integer> it = buffer.descendingIterator();
+		assertThat(it.next(), equalTo(7));
+		assertThat(it.next(), equalTo(5));
+		it.remove();
+		assertThat(it.next(), equalTo(3));
+		assertThat(new ArrayList<>(buffer), equalTo(asList(1, 3, 7)));
+	}
+
+	@Test
+	public void removesOccurrences() {
+		BoundedBuffer<Integer> buffer = new BoundedBuffer<>(10, asList(1, 2, 1, 2, 1), SizeExceededPolicy.ERROR);
+		assertThat(buffer.removeLastOccurrence(1), is(true));
+		assertThat(buffer.removeFirstOccurrence(2), is(true));
+		assertThat(buffer.remove((Object) 3), is(false));
+		assertThat(buffer.toString(), equalTo("[1, 1, 2]"));
+	}
 }
@@ -0,0 +1,58 @@
+package com.dici.collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+import com.dici.collection.BoundedBuffer.SizeExceededException;
+import com.dici.collection.BoundedBuffer.SizeExceededPolicy;
+
+public class BoundedIntBufferTest {
+    @Test
+    public void behavesLikeADeque() {
+        BoundedIntBuffer buffer = new BoundedIntBuffer(3, SizeExceededPolicy.ERROR);
+        buffer.addLast(2);
+        buffer.addFirst(1);
+        buffer.addLast(3);
+
+        assertThat(buffer.toArray()).containsExactly(1, 2, 3);
+        assertThat(buffer.removeLast()).isEqualTo(3);
+        assertThat(buffer.removeFirst()).isEqualTo(1);
+        assertThat(buffer.getFirst()).isEqualTo(2);
+        assertThat(buffer.getLast()).isEqualTo(2);
+    }
+
+    @Test
+    public void throwsWhenEmpty() {
+        BoundedIntBuffer buffer = new BoundedIntBuffer(3, SizeExceededPolicy.ERROR);
+        assertThatThrownBy(buffer::removeFirst).isExactlyInstanceOf(NoSuchElementException.class);
+        buffer.addLast(1);
+        assertThatThrownBy(() -> buffer.get(1)).isExactlyInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void appliesTheSizeExceededPolicy() {
+        BoundedIntBuffer error = new BoundedIntBuffer(1, SizeExceededPolicy.ERROR);
+        error.addLast(1);
+        assertThatThrownBy(() -> error.addFirst(2)).isExactlyInstanceOf(SizeExceededException.class);
+
+        BoundedIntBuffer ignore = new BoundedIntBuffer(1, SizeExceededPolicy.IGNORE);
+        assertThat(ignore.offerLast(1)).isTrue();
+        assertThat(ignore.offerLast(2)).isFalse();
+        assertThat(ignore.toArray()).containsExactly(1);
+    }
+
+    @Test
+    public void slidesOverASeries() {
+        BoundedIntBuffer window = new BoundedIntBuffer(20, SizeExceededPolicy.ERROR);
+        long sum = 0;
+        for (int i = 0; i < 1000; i++) sum += i - window.slide(i, 0);
+
+        assertThat(sum).isEqualTo(window.iterator().sum());
+        assertThat(window.toArray()).startsWith(980).endsWith(999).hasSize(20);
+        assertThat(window.get(5)).isEqualTo(985);
+    }
+}
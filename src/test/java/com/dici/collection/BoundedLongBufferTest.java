@@ -0,0 +1,20 @@
+package com.dici.collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.dici.collection.BoundedBuffer.SizeExceededPolicy;
+
+public class BoundedLongBufferTest {
+    @Test
+    public void slidesOverASeries() {
+        BoundedLongBuffer window = new BoundedLongBuffer(20, SizeExceededPolicy.ERROR);
+        for (long i = 0; i < 1000; i++) assertThat(window.slide(Long.MAX_VALUE - i, -1)).isEqualTo(i < 20 ? -1 : Long.MAX_VALUE - i + 20);
+
+        assertThat(window.toArray()).startsWith(Long.MAX_VALUE - 980).endsWith(Long.MAX_VALUE - 999).hasSize(20);
+        assertThat(window.removeFirst()).isEqualTo(Long.MAX_VALUE - 980);
+        assertThat(window.removeLast()).isEqualTo(Long.MAX_VALUE - 999);
+        assertThat(window.iterator().count()).isEqualTo(18);
+    }
+}
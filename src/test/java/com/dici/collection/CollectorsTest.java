@@ -0,0 +1,34 @@
+package com.dici.collection;
+
+import static com.dici.collection.Collectors.scan;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class CollectorsTest {
+    @Test
+    void testScan() {
+        List<String> res = Stream.of(1, 2, 5).collect(scan((prev, next) -> String.valueOf(next - prev), toList()));
+        assertThat(res).containsExactly("1", "3");
+    }
+
+    @Test
+    void testScan_lessThanTwoElements() {
+        assertThat(Stream.of(1).collect(scan(Integer::sum, toList()))).isEmpty();
+        assertThat(Stream.<Integer>empty().collect(scan(Integer::sum, toList()))).isEmpty();
+    }
+
+    @Test
+    void testScan_parallelStreamCombinesTheSegmentBoundaries() {
+        List<Integer> expected = IntStream.range(1, 100_000).map(i -> 2 * i - 1).boxed().toList();
+        for (int i = 0; i < 10; i++) {
+            List<Integer> res = IntStream.range(0, 100_000).boxed().parallel().collect(scan(Integer::sum, toList()));
+            assertThat(res).isEqualTo(expected);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.dici.collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Named.named;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.dici.collection.BoundedBuffer.SizeExceededException;
+import com.dici.collection.BoundedBuffer.SizeExceededPolicy;
+
+public class ConcurrentBoundedQueueTest {
+    private static Stream<Named<BiFunction<Integer, SizeExceededPolicy, ConcurrentBoundedQueue<Integer>>>> queues() {
+        return Stream.of(named("SPSC", SpscBoundedQueue::new), named("MPMC", MpmcBoundedQueue::new));
+    }
+
+    @ParameterizedTest
+    @MethodSource("queues")
+    public void isFifoAndWrapsAround(BiFunction<Integer, SizeExceededPolicy, ConcurrentBoundedQueue<Integer>> factory) {
+        ConcurrentBoundedQueue<Integer> queue = factory.apply(4, SizeExceededPolicy.ERROR);
+        for (int i = 0; i < 100; i++) {
+            queue.add(i);
+            queue.add(i + 1000);
+            assertThat(queue.size()).isEqualTo(2);
+            assertThat(queue.poll()).isEqualTo(i);
+            assertThat(queue.poll()).isEqualTo(i + 1000);
+        }
+        assertThat(queue.poll()).isNull();
+        assertThat(queue.isEmpty()).isTrue();
+    }
+
+    @ParameterizedTest
+    @MethodSource("queues")
+    public void isBoundedByMaxSizeRatherThanCapacity(BiFunction<Integer, SizeExceededPolicy, ConcurrentBoundedQueue<Integer>> factory) {
+        ConcurrentBoundedQueue<Integer> error = factory.apply(5, SizeExceededPolicy.ERROR);
+        for (int i = 0; i < 5; i++) error.add(i);
+        assertThat(error.isFull()).isTrue();
+        assertThatThrownBy(() -> error.add(5)).isExactlyInstanceOf(SizeExceededException.class);
+
+        ConcurrentBoundedQueue<Integer> ignore = factory.apply(5, SizeExceededPolicy.IGNORE);
+        for (int i = 0; i < 5; i++) assertThat(ignore.offer(i)).isTrue();
+        assertThat(ignore.offer(5)).isFalse();
+        assertThat(ignore.poll()).isEqualTo(0);
+        assertThat(ignore.offer(5)).isTrue();
+    }
+
+    @ParameterizedTest
+    @MethodSource("queues")
+    public void rejectsNulls(BiFunction<Integer, SizeExceededPolicy, ConcurrentBoundedQueue<Integer>> factory) {
+        assertThatThrownBy(() -> factory.apply(1, SizeExceededPolicy.ERROR).offer(null)).isExactlyInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @MethodSource("queues")
+    public void timedOperationsGiveUpAfterTheTimeout(BiFunction<Integer, SizeExceededPolicy, ConcurrentBoundedQueue<Integer>> factory)
+            throws InterruptedException {
+        ConcurrentBoundedQueue<Integer> queue = factory.apply(1, SizeExceededPolicy.ERROR);
+        assertThat(queue.poll(10, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(queue.offer(1, 10, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(queue.offer(2, 10, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(queue.poll(10, TimeUnit.MILLISECONDS)).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @MethodSource("queues")
+    public void blockingTakeIsInterruptible(BiFunction<Integer, SizeExceededPolicy, ConcurrentBoundedQueue<Integer>> factory) throws Exception {
+        ConcurrentBoundedQueue<Integer> queue = factory.apply(1, SizeExceededPolicy.ERROR);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> taken = executor.submit(queue::take);
+            executor.shutdownNow();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+            assertThatThrownBy(taken::get).hasCauseExactlyInstanceOf(InterruptedException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void spscTransfersElementsInOrder() throws Exception {
+        ConcurrentBoundedQueue<Integer> queue = new SpscBoundedQueue<>(7, SizeExceededPolicy.ERROR);
+        int n = 200_000;
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> producer = executor.submit(() -> {
+                for (int i = 0; i < n; i++) queue.put(i);
+                return null;
+            });
+            for (int i = 0; i < n; i++) assertThat(queue.take()).isEqualTo(i);
+            producer.get();
+            assertThat(queue.poll()).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void mpmcTransfersEveryElementExactlyOnce() throws Exception {
+        ConcurrentBoundedQueue<Integer> queue = new MpmcBoundedQueue<>(10, SizeExceededPolicy.ERROR);
+        int producers = 4, consumers = 3, perProducer = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            for (int p = 0; p < producers; p++) {
+                int offset = p * perProducer;
+                executor.submit(() -> {
+                    for (int i = 0; i < perProducer; i++) queue.put(offset + i);
+                    return null;
+                });
+            }
+
+            int total = producers * perProducer;
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int c = 0; c < consumers; c++) {
+                int share = total / consumers + (c < total % consumers ? 1 : 0);
+                results.add(executor.submit(() -> {
+                    int[] counts = new int[total];
+                    for (int i = 0; i < share; i++) counts[queue.take()]++;
+                    return counts;
+                }));
+            }
+
+            int[] counts = new int[total];
+            for (Future<int[]> result : results) {
+                int[] partial = result.get(30, TimeUnit.SECONDS);
+                for (int i = 0; i < total; i++) counts[i] += partial[i];
+            }
+            for (int i = 0; i < total; i++) assertThat(counts[i]).as("number of times element %d was consumed", i).isEqualTo(1);
+            assertThat(queue.poll()).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.dici.collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.dici.collection.DoublyLinkedList.ListNode;
+import com.dici.collection.IndexedDoublyLinkedList.Cursor;
+
+public class IndexedDoublyLinkedListTest {
+    @Test
+    public void behavesLikeAnArrayListUnderRandomPositionalOperations() {
+        Random                           random   = new Random(42);
+        List<Integer>                    expected = new ArrayList<>();
+        IndexedDoublyLinkedList<Integer> list     = new IndexedDoublyLinkedList<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            int op = random.nextInt(10);
+            if (op < 5 || expected.isEmpty()) {
+                int index = random.nextInt(expected.size() + 1);
+                expected.add(index, i);
+                list.add(index, i);
+            } else if (op < 8) {
+                int index = random.nextInt(expected.size());
+                assertThat(list.remove(index)).isEqualTo(expected.remove(index));
+            } else {
+                int index = random.nextInt(expected.size());
+                assertThat(list.set(index, -i)).isEqualTo(expected.set(index, -i));
+            }
+            int index = random.nextInt(expected.size());
+            assertThat(list.get(index)).isEqualTo(expected.get(index));
+        }
+        assertThat(list).containsExactlyElementsOf(expected);
+        assertThat(list.size()).isEqualTo(expected.size());
+        assertThat(list.lastNode().data).isEqualTo(expected.get(expected.size() - 1));
+    }
+
+    @Test
+    public void exposesItsNodes() {
+        IndexedDoublyLinkedList<String> list = new IndexedDoublyLinkedList<>(List.of("a", "b", "c"));
+
+        ListNode<String> b = list.getNode(1);
+        assertThat(b.prev).isSameAs(list.firstNode());
+        assertThat(b.next).isSameAs(list.lastNode());
+
+        b.data = "x";
+        assertThat(list).containsExactly("a", "x", "c");
+    }
+
+    @Test
+    public void searchesFromBothEnds() {
+        IndexedDoublyLinkedList<Integer> list = new IndexedDoublyLinkedList<>(List.of(1, 2, 1, 3));
+        assertThat(list.indexOf(1)).isEqualTo(0);
+        assertThat(list.lastIndexOf(1)).isEqualTo(2);
+        assertThat(list.indexOf(4)).isEqualTo(-1);
+        assertThat(list.lastIndexOf(null)).isEqualTo(-1);
+
+        assertThat(list.remove((Integer) 1)).isTrue();
+        assertThat(list).containsExactly(2, 1, 3);
+    }
+
+    @Test
+    public void cursorModifiesTheListInPlace() {
+        IndexedDoublyLinkedList<Integer> list = new IndexedDoublyLinkedList<>(List.of(1, 2, 3, 4));
+
+        Cursor<Integer> cursor = list.listIterator(1);
+        assertThat(cursor.currentNode().data).isEqualTo(2);
+        assertThat(cursor.next()).isEqualTo(2);
+        cursor.remove();
+        cursor.add(5);
+        assertThat(cursor.next()).isEqualTo(3);
+        assertThat(cursor.previous()).isEqualTo(3);
+        cursor.remove();
+        assertThat(cursor.previous()).isEqualTo(5);
+        cursor.set(6);
+
+        assertThat(list).containsExactly(1, 6, 4);
+        assertThat(list.get(2)).isEqualTo(4);
+        assertThat(list.lastNode().data).isEqualTo(4);
+    }
+
+    @Test
+    public void cursorMatchesArrayListIteratorsWhenWalkingBackwards() {
+        IndexedDoublyLinkedList<Integer> list     = new IndexedDoublyLinkedList<>(List.of(1, 2, 3));
+        ListIterator<Integer>            expected = new ArrayList<>(List.of(1, 2, 3)).listIterator(3);
+        ListIterator<Integer>            actual   = list.listIterator(3);
+
+        while (expected.hasPrevious()) {
+            assertThat(actual.previousIndex()).isEqualTo(expected.previousIndex());
+            assertThat(actual.previous()).isEqualTo(expected.previous());
+        }
+        assertThat(actual.hasPrevious()).isFalse();
+        assertThat(actual.next()).isEqualTo(1);
+    }
+
+    @Test
+    public void cursorFailsFastOnConcurrentModifications() {
+        IndexedDoublyLinkedList<Integer> list   = new IndexedDoublyLinkedList<>(List.of(1, 2, 3));
+        Cursor<Integer>                  cursor = list.iterator();
+        list.add(0);
+        assertThatThrownBy(cursor::next).isExactlyInstanceOf(ConcurrentModificationException.class);
+    }
+
+    @Test
+    public void rejectsOutOfBoundsIndices() {
+        IndexedDoublyLinkedList<Integer> list = new IndexedDoublyLinkedList<>(List.of(1));
+        assertThatThrownBy(() -> list.get(1)).isExactlyInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.add(2, 0)).isExactlyInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.remove(-1)).isExactlyInstanceOf(IndexOutOfBoundsException.class);
+
+        list.clear();
+        assertThat(list).isEmpty();
+        assertThat(list.firstNode()).isNull();
+        list.add(0, 2);
+        assertThat(list).containsExactly(2);
+    }
+}
@@ -0,0 +1,165 @@
+package com.dici.collection;
+
+import static com.dici.testing.assertj.BetterAssertions.assertThatThrownBy;
+import static java.util.Collections.emptyIterator;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.dici.collection.PageIterator.Page;
+import com.dici.collection.PageIterator.PageFetcher;
+
+class PrefetchingPageIteratorTest {
+    @Test
+    void testIteration_multiplePagesWithEmptyPages() {
+        Map<Optional<String>, Page<String, String>> pages = Map.of(
+                Optional.empty()     , new Page<>(List.of("a", "b").iterator(), Optional.of("token1")),
+                Optional.of("token1"), new Page<>(emptyIterator()             , Optional.of("token2")),
+                Optional.of("token2"), new Page<>(List.of("c").iterator()     , Optional.empty()));
+
+        try (PrefetchingPageIterator<String, String> it = PrefetchingPageIterator.of(pages::get, Optional.empty(), 1)) {
+            assertThat(it).toIterable().containsExactly("a", "b", "c");
+            assertThat(it.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    void testIteration_noPage() {
+        PageFetcher<String, String> fetcher = token -> new Page<>(emptyIterator(), Optional.empty());
+        try (PrefetchingPageIterator<String, String> it = PrefetchingPageIterator.of(fetcher, Optional.empty(), 2)) {
+            assertThat(it.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    void testPrefetch_nextPageIsFetchedWhileTheCurrentOneIsConsumed() throws InterruptedException {
+        CountDownLatch secondPageFetched = new CountDownLatch(1);
+        PageFetcher<String, String> fetcher = token -> {
+            if (token.isEmpty()) return new Page<>(List.of("a").iterator(), Optional.of("token1"));
+            secondPageFetched.countDown();
+            return new Page<>(List.of("b").iterator(), Optional.empty());
+        };
+
+        try (PrefetchingPageIterator<String, String> it = PrefetchingPageIterator.of(fetcher, Optional.empty(), 1)) {
+            assertThat(it.next()).isEqualTo("a");
+            assertThat(secondPageFetched.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(it.next()).isEqualTo("b");
+        }
+    }
+
+    @Test
+    void testPrefetch_stopsAfterPrefetchDepthPages() throws InterruptedException {
+        AtomicInteger  fetched             = new AtomicInteger();
+        CountDownLatch bufferFull          = new CountDownLatch(4);
+        CountDownLatch nextPageAfterResume = new CountDownLatch(5);
+        PageFetcher<Integer, Integer> infinite = token -> {
+            int page = fetched.getAndIncrement();
+            bufferFull.countDown();
+            nextPageAfterResume.countDown();
+            return new Page<>(List.of(page).iterator(), Optional.of(page + 1));
+        };
+
+        try (PrefetchingPageIterator<Integer, Integer> it = PrefetchingPageIterator.of(infinite, Optional.empty(), 2)) {
+            assertThat(it.next()).isEqualTo(0);
+            // the consumed page, two pages in the queue, and one fetched page waiting for space
+            assertThat(bufferFull.await(10, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100);
+            assertThat(fetched.get()).isEqualTo(4);
+
+            assertThat(it.next()).isEqualTo(1);
+            assertThat(nextPageAfterResume.await(10, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100);
+            assertThat(fetched.get()).isEqualTo(5);
+        }
+    }
+
+    @Test
+    void testPrefetch_interruptedConsumer_stopsTheProducers() throws InterruptedException {
+        CountDownLatch fetching  = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        PageFetcher<String, String> blocking = token -> {
+            if (token.isEmpty()) return new Page<>(List.of("a").iterator(), Optional.of("token1"));
+            fetching.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("cancelled");
+        };
+
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        try (PrefetchingPageIterator<String, String> it = PrefetchingPageIterator.of(blocking, Optional.empty(), 1)) {
+            Thread consumer = Thread.ofVirtual().start(() -> {
+                try {
+                    it.forEachRemaining(x -> { });
+                } catch (Throwable t) {
+                    thrown.set(t);
+                }
+            });
+            assertThat(fetching.await(10, TimeUnit.SECONDS)).isTrue();
+            consumer.interrupt();
+            consumer.join();
+
+            assertThat(cancelled.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThatThrownBy(() -> { throw thrown.get(); })
+                    .isLike(new IllegalStateException("Interrupted while waiting for the next page", new InterruptedException()));
+        }
+    }
+
+    @Test
+    void testPartitions_mergesAllTheChainsAndKeepsTheOrderOfEachChain() {
+        List<PageFetcher<String, Integer>> partitions = new ArrayList<>();
+        for (String prefix : List.of("x", "y", "z")) {
+            partitions.add(token -> {
+                int page = token.orElse(0);
+                return new Page<>(List.of(prefix + (2 * page), prefix + (2 * page + 1)).iterator(), page < 9 ? Optional.of(page + 1) : Optional.empty());
+            });
+        }
+
+        List<String> res = new ArrayList<>();
+        try (PrefetchingPageIterator<String, Integer> it = PrefetchingPageIterator.ofPartitions(partitions, 2)) {
+            it.forEachRemaining(res::add);
+        }
+
+        assertThat(res).hasSize(60);
+        for (String prefix : List.of("x", "y", "z")) {
+            List<Integer> chain = res.stream().filter(s -> s.startsWith(prefix)).map(s -> Integer.parseInt(s.substring(1))).toList();
+            assertThat(chain).isSorted().hasSize(20);
+        }
+    }
+
+    @Test
+    void testFailure_isRethrownToTheConsumer() {
+        PageFetcher<String, String> fetcher = token -> {
+            if (token.isEmpty()) return new Page<>(List.of("a").iterator(), Optional.of("token1"));
+            throw new IllegalStateException("throttled");
+        };
+
+        try (PrefetchingPageIterator<String, String> it = PrefetchingPageIterator.of(fetcher, Optional.empty(), 1)) {
+            assertThat(it.next()).isEqualTo("a");
+            assertThatThrownBy(it::hasNext).isLike(new IllegalStateException("throttled"));
+            assertThat(it.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    void testClose_endsTheIteration() {
+        PageFetcher<Integer, Integer> infinite = token -> new Page<>(List.of(token.orElse(0)).iterator(), Optional.of(token.orElse(0) + 1));
+
+        PrefetchingPageIterator<Integer, Integer> it = PrefetchingPageIterator.of(infinite, Optional.empty(), 2);
+        assertThat(it.next()).isEqualTo(0);
+        it.close();
+        assertThat(it.hasNext()).isFalse();
+    }
+}
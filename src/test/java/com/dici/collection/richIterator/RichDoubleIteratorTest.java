@@ -0,0 +1,59 @@
+package com.dici.collection.richIterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.OptionalDouble;
+
+import org.junit.jupiter.api.Test;
+
+class RichDoubleIteratorTest {
+    @Test
+    void testMapAndFilter() {
+        assertThat(RichDoubleIterator.of(1.5, -2, 4).map(d -> d * 2).filter(d -> d > 0).toArray()).containsExactly(3, 8);
+    }
+
+    @Test
+    void testIterate() {
+        assertThat(RichDoubleIterator.iterate(1, d -> d / 2).take(4).toArray()).containsExactly(1, 0.5, 0.25, 0.125);
+    }
+
+    @Test
+    void testTakeWhileAndDrop() {
+        assertThat(RichDoubleIterator.iterate(0, d -> d + 1).drop(1).takeWhile(d -> d < 4).toArray()).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void testFold() {
+        assertThat(RichDoubleIterator.of(2, 3).fold(1, (d, acc) -> d * acc)).isEqualTo(6);
+    }
+
+    @Test
+    void testSum() {
+        assertThat(RichDoubleIterator.of(0.5, 0.25, 0.125).sum()).isEqualTo(0.875);
+    }
+
+    @Test
+    void testMinMax() {
+        assertThat(RichDoubleIterator.of(0.5, -3, 2).min()).isEqualTo(OptionalDouble.of(-3));
+        assertThat(RichDoubleIterator.of(0.5, -3, 2).max()).isEqualTo(OptionalDouble.of(2));
+        assertThat(RichDoubleIterator.of().min()).isEqualTo(OptionalDouble.empty());
+    }
+
+    @Test
+    void testZipWithIndex() {
+        RichDoubleIterator.Indexed it = RichDoubleIterator.of(0.1, 0.2).zipWithIndex();
+        assertThat(it.nextDouble()).isEqualTo(0.1);
+        assertThat(it.index()).isEqualTo(0);
+    }
+
+    @Test
+    void testBoxed() {
+        assertThat(RichDoubleIterator.of(1, 2).boxed().toList()).isEqualTo(List.of(1.0, 2.0));
+    }
+
+    @Test
+    void testConversions() {
+        assertThat(RichIterators.of("1.5", "2.5").mapToDouble(Double::parseDouble).mapToLong(Math::round).toArray()).containsExactly(2, 3);
+    }
+}
@@ -1,26 +1,123 @@
 package com.dici.collection.richIterator;
 
+import static com.dici.collection.richIterator.RichIteratorTestUtils.observable;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.OptionalInt;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 
+import com.dici.collection.richIterator.RichIteratorTestUtils.ObservableRichIterator;
+
 class RichIntIteratorTest {
     @Test
     void testRange() {
-        assertThat(RichIntIterator.range(0, 3).toList(), equalTo(List.of(0, 1, 2)));
+        assertThat(RichIntIterator.range(0, 3).boxed().toList(), equalTo(List.of(0, 1, 2)));
     }
 
     @Test
     void testRangeFailsIfEmptyRange() {
-        assertThrows(IllegalArgumentException.class, () -> RichIntIterator.range(0, 0).toList());
+        assertThrows(IllegalArgumentException.class, () -> RichIntIterator.range(0, 0).boxed().toList());
     }
 
     @Test
     void testClosedRange() {
-        assertThat(RichIntIterator.closedRange(0, 3).toList(), equalTo(List.of(0, 1, 2, 3)));
+        assertThat(RichIntIterator.closedRange(0, 3).boxed().toList(), equalTo(List.of(0, 1, 2, 3)));
+    }
+
+    @Test
+    void testClosedRange_upToMaxValue() {
+        assertThat(RichIntIterator.closedRange(Integer.MAX_VALUE - 1, Integer.MAX_VALUE).toArray(), equalTo(new int[] { Integer.MAX_VALUE - 1, Integer.MAX_VALUE }));
+    }
+
+    @Test
+    void testMapAndFilter() {
+        assertThat(RichIntIterator.range(0, 10).map(i -> i * 3).filter(i -> i % 2 == 0).toArray(), equalTo(new int[] { 0, 6, 12, 18, 24 }));
+    }
+
+    @Test
+    void testTakeAndDrop() {
+        assertThat(RichIntIterator.counter(5).drop(2).take(3).toArray(), equalTo(new int[] { 7, 8, 9 }));
+    }
+
+    @Test
+    void testTakeWhile() {
+        assertThat(RichIntIterator.counter().takeWhile(i -> i * i < 20).toArray(), equalTo(new int[] { 0, 1, 2, 3, 4 }));
+    }
+
+    @Test
+    void testFold() {
+        assertThat(RichIntIterator.of(1, 2, 3).fold(10, (i, acc) -> acc * 10 + i), equalTo(10123));
+    }
+
+    @Test
+    void testSum_doesNotOverflow() {
+        assertThat(RichIntIterator.of(Integer.MAX_VALUE, Integer.MAX_VALUE).sum(), equalTo(2L * Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testMinMax() {
+        assertThat(RichIntIterator.of(4, -1, 8).min(), equalTo(OptionalInt.of(-1)));
+        assertThat(RichIntIterator.of(4, -1, 8).max(), equalTo(OptionalInt.of(8)));
+        assertThat(RichIntIterator.of().max(), equalTo(OptionalInt.empty()));
+    }
+
+    @Test
+    void testToArray_growsBeyondInitialCapacity() {
+        assertThat(RichIntIterator.range(0, 100).toArray(), equalTo(IntStream.range(0, 100).toArray()));
+    }
+
+    @Test
+    void testZipWithIndex() {
+        RichIntIterator.Indexed it = RichIntIterator.of(7, 5, 9).zipWithIndex();
+        assertThat(it.index(), equalTo(-1L));
+        assertThat(it.nextInt(), equalTo(7));
+        assertThat(it.index(), equalTo(0L));
+        assertThat(it.nextInt(), equalTo(5));
+        assertThat(it.nextInt(), equalTo(9));
+        assertThat(it.index(), equalTo(2L));
+        assertThat(it.hasNext(), equalTo(false));
+    }
+
+    @Test
+    void testMapToObj() {
+        assertThat(RichIntIterator.range(0, 3).mapToObj(i -> "#" + i).toList(), equalTo(List.of("#0", "#1", "#2")));
+    }
+
+    @Test
+    void testFromRichIterator() {
+        assertThat(RichIterators.of("a", "bb", "ccc").mapToInt(String::length).sum(), equalTo(6L));
+    }
+
+    @Test
+    void testConversions() {
+        assertThat(RichIntIterator.of(1, 2).asLongIterator().map(l -> l << 32).toArray(), equalTo(new long[] { 1L << 32, 2L << 32 }));
+        assertThat(RichIntIterator.of(1, 2).asDoubleIterator().map(d -> d / 4).toArray(), equalTo(new double[] { 0.25, 0.5 }));
+    }
+
+    @Test
+    void testReleasesResourcesAndCallsOnClose() throws IOException {
+        ObservableRichIterator<Integer> source = observable(RichIterators.of(1, 2, 3));
+        List<Long> consumed = new ArrayList<>();
+        RichIntIterator it = source.mapToInt(i -> i).filter(i -> i > 1).onClose(consumed::add);
+
+        assertThat(it.sum(), equalTo(5L));
+        assertThat(source.getCloseCalls(), equalTo(1));
+
+        it.close();
+        assertThat(consumed, equalTo(List.of(2L)));
+    }
+
+    @Test
+    void testIterableOnce() {
+        RichIntIterator it = RichIntIterator.range(0, 3);
+        it.sum();
+        assertThrows(IllegalStateException.class, it::sum);
     }
 }
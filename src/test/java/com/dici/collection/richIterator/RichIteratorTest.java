@@ -7,20 +7,52 @@ import static com.dici.exceptions.ExceptionUtils.ThrowingFunction.identity;
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.dici.collection.richIterator.RichIteratorTestUtils.ObservableRichIterator;
+import com.dici.io.RecordCodec;
+import com.dici.io.RecordFileWriter.Compression;
+import com.google.common.base.Throwables;
+import com.google.common.hash.Funnel;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.PrimitiveSink;
 import javafx.util.Pair;
 
 public class RichIteratorTest {
@@ -52,6 +84,195 @@ public class RichIteratorTest {
         assertThat(it.filter(x -> x > 5).map(x -> -x), iteratorEqualTo(RichIterators.of(-8, -6, -7, -9, -15)));
     }
 
+    @Test
+    void testChaining_fusesStatelessStages() {
+        RichIterator<Integer> chain = it.map(x -> x + 1).filter(x -> x % 2 == 0).map(x -> -x);
+        assertThat(((FusedRichIterator<?, ?>) chain).it, sameInstance(it));
+        assertThat(chain, iteratorEqualTo(RichIterators.of(-4, -6, -8, -10, -2, -16)));
+    }
+
+    @Test
+    void testChaining_mapsAfterLastFilterAreLazy() {
+        AtomicInteger mapperCalls = new AtomicInteger();
+        RichIterator<Integer> chain = it.filter(x -> x > 5).map(x -> mapperCalls.incrementAndGet());
+
+        assertThat(chain.hasNext(), is(true));
+        assertThat(mapperCalls.get(), is(0));
+        assertThat(chain.next(), is(1));
+    }
+
+    @Test
+    void testChaining_doesNotFuseStageWithPeekedElement() {
+        RichIterator<Integer> filtered = it.filter(x -> x > 5);
+        assertThat(filtered.hasNext(), is(true));
+        assertThat(filtered.map(x -> -x), iteratorEqualTo(RichIterators.of(-8, -6, -7, -9, -15)));
+    }
+
+    @Test
+    void testChaining_fusedStageCanOnlyBeUsedOnce() {
+        RichIterator<Integer> mapped = it.map(x -> x);
+        mapped.map(x -> x).toList();
+        assertThrows(IllegalStateException.class, mapped::toList);
+    }
+
+    @Test
+    void testFilter_nullElements() {
+        assertThat(RichIterators.of(1, null, 2).filter(x -> x == null || x > 1), iteratorEqualTo(RichIterators.of(null, 2)));
+    }
+
+    @Test
+    void testNextBatch_array() {
+        Object[] batch = new Object[5];
+        assertThat(it.nextBatch(batch), is(5));
+        assertThat(List.of(batch), equalTo(List.of(3, 8, 5, 6, 7)));
+        assertThat(it.nextBatch(batch, 1, 4), is(3));
+        assertThat(List.of(batch), equalTo(List.of(3, 9, 1, 15, 7)));
+        assertThat(it.nextBatch(batch), is(0));
+    }
+
+    @Test
+    void testNextBatch_collection() {
+        Object[] batch = new Object[10];
+        assertThat(RichIterators.fromCollection(List.of(1, 2, 3)).nextBatch(batch), is(3));
+        assertThat(Arrays.asList(batch).subList(0, 3), equalTo(List.of(1, 2, 3)));
+    }
+
+    @Test
+    void testNextBatch_fusedStages() {
+        RichIterator<String> chain = it.filter(x -> x % 2 == 1).map(x -> x + 1).filter(x -> x > 2).map(String::valueOf);
+        Object[] batch = new Object[3];
+        assertThat(chain.nextBatch(batch), is(3));
+        assertThat(List.of(batch), equalTo(List.of("4", "6", "8")));
+        assertThat(chain.next(), is("10"));
+        assertThat(chain.nextBatch(batch), is(1));
+        assertThat(batch[0], is("16"));
+    }
+
+    @Test
+    void testNextBatch_typedArray() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> it.nextBatch(new Integer[3]));
+        assertThat(e.getMessage(), is("The batch should be an Object[], not a Integer[]"));
+        assertThat(it.next(), is(3));
+    }
+
+    @Test
+    void testNextBatch_afterPeek() {
+        RichIterator<Integer> filtered = it.filter(x -> x > 5);
+        assertThat(filtered.hasNext(), is(true));
+        Object[] batch = new Object[10];
+        assertThat(filtered.nextBatch(batch), is(5));
+        assertThat(Arrays.asList(batch).subList(0, 5), equalTo(List.of(8, 6, 7, 9, 15)));
+    }
+
+    @Test
+    void testNextBatch_fallsBackToElementByElement() throws IOException {
+        AtomicLong count = new AtomicLong();
+        RichIterator<Integer> taken = it.takeWhile(x -> x != 1).onClose(count::set);
+        Object[] batch = new Object[10];
+        assertThat(taken.nextBatch(batch), is(6));
+        assertThat(Arrays.asList(batch).subList(0, 6), equalTo(List.of(3, 8, 5, 6, 7, 9)));
+        assertThat(taken.hasNext(), is(false));
+
+        taken.close();
+        assertThat(count.get(), is(6L));
+    }
+
+    @Test
+    void testForeach_readsOneElementAtATime() {
+        ObservableRichIterator<Integer> it = observable(RichIntIterator.range(0, 2000).boxed());
+        List<Integer> nextCalls = new ArrayList<>();
+        it.map(x -> x + 1).foreach(x -> nextCalls.add(it.getNextCalls()));
+        assertThat(nextCalls, equalTo(RichIntIterator.range(1, 2001).boxed().toList()));
+    }
+
+    @Test
+    void testForeach_readInBatches_readsAhead() {
+        ObservableRichIterator<Integer> it = observable(RichIntIterator.range(0, 2000).boxed());
+        List<Integer> nextCalls = new ArrayList<>();
+        it.readInBatches().map(x -> x + 1).foreach(x -> nextCalls.add(it.getNextCalls()));
+        assertThat(nextCalls.get(0), is(RichIteratorSpliterator.BATCH_UNIT));
+        assertThat(nextCalls.get(nextCalls.size() - 1), is(2000));
+        assertThat(nextCalls.size(), is(2000));
+    }
+
+    @Test
+    void testForeach_consumerFailure_countsTheProcessedElements() throws IOException {
+        AtomicLong            count = new AtomicLong();
+        RichIterator<Integer> it    = observable(RichIntIterator.range(0, 2000).boxed()).onClose(count::set);
+        RuntimeException e = assertThrows(RuntimeException.class, () -> it.foreach(x -> { if (x == 10) throw new IllegalStateException("boom"); }));
+        assertThat(Throwables.getRootCause(e).getMessage(), is("boom"));
+        it.close();
+        assertThat(count.get(), is(11L));
+    }
+
+    @Test
+    void testStream_parallel() {
+        Integer[] elts = RichIntIterator.range(0, 100_000).boxed().toList().toArray(new Integer[0]);
+        assertThat(RichIterators.of(elts).stream().parallel().mapToLong(x -> x).sum(), equalTo(4_999_950_000L));
+        assertThat(RichIterators.of(elts).filter(x -> x % 2 == 0).stream().parallel().collect(toList()),
+                equalTo(RichIntIterator.range(0, 50_000).mapToObj(x -> 2 * x).toList()));
+    }
+
+    @Test
+    void testStream_sizedForInMemorySources() {
+        assertThat(it.map(x -> x + 1).stream().spliterator().getExactSizeIfKnown(), equalTo(8L));
+        assertThat(RichIterators.fromCollection(List.of(1, 2, 3)).stream().spliterator().getExactSizeIfKnown(), equalTo(3L));
+        assertThat(RichIterators.of(1, 2, 3).filter(x -> x > 1).stream().spliterator().getExactSizeIfKnown(), equalTo(-1L));
+        assertThat(RichIterators.wrap(List.of(1, 2, 3).iterator()).stream().spliterator().getExactSizeIfKnown(), equalTo(-1L));
+    }
+
+    @Test
+    void testCount_consumesSizedIterators() throws IOException {
+        AtomicLong count = new AtomicLong();
+        RichIterator<Integer> counted = it.onClose(count::set);
+        assertThat(counted.count(), equalTo(8L));
+        counted.close();
+        assertThat(count.get(), equalTo(8L));
+    }
+
+    @Test
+    void testParallel_map() {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        RichIterator<Integer> mapped = RichIntIterator.range(0, 10_000).boxed().parallel(4).map(x -> {
+            threads.add(Thread.currentThread());
+            return x + 1;
+        }).map(x -> 2 * x);
+
+        assertThat(((ParallelRichIterator<?, ?>) mapped).canFuse(), is(true));
+        assertThat(mapped.toList(), equalTo(RichIntIterator.range(0, 10_000).mapToObj(x -> 2 * (x + 1)).toList()));
+        assertThat(threads, not(hasItem(Thread.currentThread())));
+    }
+
+    @Test
+    void testParallel_sequentialAfterFilter() {
+        assertThat(it.parallel(2).map(x -> x + 1).filter(x -> x % 2 == 0).map(x -> -x), iteratorEqualTo(RichIterators.of(-4, -6, -8, -10, -2, -16)));
+    }
+
+    @Test
+    void testParallel_propagatesExceptions() {
+        RichIterator<Integer> mapped = it.parallel(2).map(x -> {
+            if (x == 9) throw new IOException("boom");
+            return x;
+        });
+        RuntimeException e = assertThrows(RuntimeException.class, mapped::toList);
+        assertThat(e.getCause(), instanceOf(IOException.class));
+    }
+
+    @Test
+    void testParallel_closeSemantics() throws IOException {
+        AtomicLong count = new AtomicLong();
+        RichIterator<Integer> mapped = it.parallel(2).map(x -> x * 2).onClose(count::set);
+        assertThat(List.of(mapped.next(), mapped.next(), mapped.next()), equalTo(List.of(6, 16, 10)));
+        mapped.close();
+        assertThat(count.get(), equalTo(3L));
+        assertThat(mapped.hasNext(), is(false));
+    }
+
+    @Test
+    void testParallel_invalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> it.parallel(0));
+    }
+
     @Test
     void testMapValue() {
         assertThat(it.filter(x -> x % 2 == 0).mapToPair(x -> "Number " + x, identity()).mapValues(x -> x - 1),
@@ -66,6 +287,162 @@ public class RichIteratorTest {
         assertThat(it.mapToPair(x -> x % 2 == 0 ? "Even" : "Odd", identity()).groupByKey().toMap(), Matchers.equalTo(map));
     }
 
+    @Test
+    void testGroupByKeySorted() {
+        PairRichIterator<Integer, List<Integer>> groups = it.sorted().mapToPair(x -> x / 5, identity()).groupByKeySorted();
+        assertThat(groups, iteratorEqualTo(RichIterators.of(
+                new Pair<>(0, List.of(1, 3)),
+                new Pair<>(1, List.of(5, 6, 7, 8, 9)),
+                new Pair<>(3, List.of(15)))));
+    }
+
+    @Test
+    void testGroupByKeySorted_isStreaming() {
+        ObservableRichIterator<Integer> observed = observable(RichIterators.of(1, 1, 2, 3, 3, 3));
+        PairRichIterator<Integer, List<Integer>> groups = observed.mapToPair(identity(), identity()).groupByKeySorted();
+        assertThat(groups.next(), equalTo(new Pair<>(1, List.of(1, 1))));
+        assertThat(observed.getNextCalls(), is(3));
+    }
+
+    @Test
+    void testAggregateByKey() {
+        Map<String, Integer> sums = it.mapToPair(x -> x % 2 == 0 ? "Even" : "Odd", identity()).aggregateByKey(() -> 0, Integer::sum).toMap();
+        assertThat(sums, equalTo(Map.of("Even", 14, "Odd", 40)));
+    }
+
+    @Test
+    void testAggregateByKey_inPlace() {
+        Map<Boolean, ArrayList<Integer>> lists = it.mapToPair(x -> x > 5, identity()).aggregateByKey(ArrayList<Integer>::new, (list, x) -> {
+            list.add(x);
+            return list;
+        }).toMap();
+        assertThat(lists, equalTo(Map.of(false, List.of(3, 5, 1), true, List.of(8, 6, 7, 9, 15))));
+    }
+
+    @Test
+    void testAggregateByKey_spills_partitionsExceedingTheBudget(@TempDir File tempDir) {
+        int maxKeysInMemory = 10;
+        List<WeakReference<long[]>> aggregates = new ArrayList<>();
+        RecordCodec<long[]> codec = new RecordCodec<>() {
+            @Override public void   write(long[] record, DataOutput out) throws IOException { out.writeLong(record[0]); }
+            @Override public long[] read (DataInput in)                 throws IOException { return track(aggregates, new long[] { in.readLong() }); }
+        };
+        AggregateOptions<Integer, long[]> options = AggregateOptions.<Integer, long[]>builder()
+                .keyCodec(RecordCodec.ints())
+                .aggregateCodec(codec)
+                .maxKeysInMemory(maxKeysInMemory)
+                .tempDirectory(tempDir)
+                .build();
+
+        // 1000 keys, so that each of the first level partitions has several times more keys than the budget
+        RichIterator<Pair<Integer, long[]>> it = RichIntIterator.range(0, 20_000).boxed()
+                .mapToPair(x -> x % 1_000, x -> (long) x)
+                .aggregateByKey(() -> track(aggregates, new long[1]), (sum, x) -> {
+                    if (x % 5_000 == 0) assertLiveAggregatesAtMost(aggregates, maxKeysInMemory + 2);
+                    sum[0] += x;
+                    return sum;
+                }, (sum1, sum2) -> {
+                    sum1[0] += sum2[0];
+                    return sum1;
+                }, options);
+
+        Map<Integer, Long> sums = new HashMap<>();
+        while (it.hasNext()) {
+            Pair<Integer, long[]> sum = it.next();
+            sums.put(sum.getKey(), sum.getValue()[0]);
+            if (sums.size() % 100 == 0) assertLiveAggregatesAtMost(aggregates, maxKeysInMemory + 2);
+        }
+
+        Map<Integer, Long> expected = new HashMap<>();
+        for (int x = 0; x < 20_000; x++) expected.merge(x % 1_000, (long) x, Long::sum);
+        assertThat(sums, equalTo(expected));
+        assertThat(tempDir.listFiles().length, is(0));
+    }
+
+    private static long[] track(List<WeakReference<long[]>> aggregates, long[] aggregate) {
+        aggregates.add(new WeakReference<>(aggregate));
+        return aggregate;
+    }
+
+    private static void assertLiveAggregatesAtMost(List<WeakReference<long[]>> aggregates, int max) {
+        for (int i = 0; i < 10 && live(aggregates) > max; i++) System.gc();
+        assertThat(live(aggregates) <= max, is(true));
+    }
+
+    private static long live(List<? extends WeakReference<?>> refs) {
+        return refs.stream().filter(ref -> ref.get() != null).count();
+    }
+
+    @Test
+    void testMergeSorted() {
+        RichIterator<Integer> merged = RichIterators.mergeSorted(null, List.of(RichIterators.of(1, 4, 9), emptyIterator(), RichIterators.of(2, 3, 10, 11)));
+        assertThat(merged, iteratorEqualTo(RichIterators.of(1, 2, 3, 4, 9, 10, 11)));
+    }
+
+    @Test
+    void testMergeSorted_isStable() {
+        Comparator<Pair<Integer, String>> byKey = Comparator.comparing(Pair::getKey);
+        RichIterator<Pair<Integer, String>> merged = RichIterators.mergeSorted(byKey, List.of(
+                RichIterators.of(new Pair<>(1, "a"), new Pair<>(2, "a")),
+                RichIterators.of(new Pair<>(1, "b"), new Pair<>(2, "b"))));
+        assertThat(merged.map(Pair::getValue).toList(), equalTo(List.of("a", "b", "a", "b")));
+    }
+
+    @Test
+    void testMergeSorted_isLazyAndReleasesSources() throws IOException {
+        ObservableRichIterator<Integer> first  = observable(RichIntIterator.range(0, 100).map(x -> 2 * x).boxed());
+        ObservableRichIterator<Integer> second = observable(RichIntIterator.range(0, 100).map(x -> 2 * x + 1).boxed());
+        RichIterator<Integer> merged = RichIterators.mergeSorted(Comparator.naturalOrder(), List.of(first, second));
+        assertThat(merged.next(), is(0));
+        assertThat(first.getNextCalls() + second.getNextCalls(), is(3));
+
+        merged.close();
+        assertThat(first.getCloseCalls() , is(1));
+        assertThat(second.getCloseCalls(), is(1));
+    }
+
+    @Test
+    void testInnerJoinSorted() {
+        PairRichIterator<Integer, String> left  = RichIterators.of(1, 2, 2, 4, 5).mapToPair(identity(), x -> "l" + x);
+        PairRichIterator<Integer, String> right = RichIterators.of(2, 2, 3, 5, 6).mapToPair(identity(), x -> "r" + x);
+        assertThat(left.innerJoinSorted(right, null).toList(), equalTo(List.of(
+                new Pair<>(2, new Pair<>("l2", "r2")),
+                new Pair<>(2, new Pair<>("l2", "r2")),
+                new Pair<>(2, new Pair<>("l2", "r2")),
+                new Pair<>(2, new Pair<>("l2", "r2")),
+                new Pair<>(5, new Pair<>("l5", "r5")))));
+    }
+
+    @Test
+    void testLeftJoinSorted() {
+        PairRichIterator<Integer, String> left  = RichIterators.of(1, 2, 4).mapToPair(identity(), x -> "l" + x);
+        PairRichIterator<Integer, String> right = RichIterators.of(2, 3).mapToPair(identity(), x -> "r" + x);
+        assertThat(left.leftJoinSorted(right, null).toList(), equalTo(List.of(
+                new Pair<>(1, new Pair<>("l1", null)),
+                new Pair<>(2, new Pair<>("l2", "r2")),
+                new Pair<>(4, new Pair<>("l4", null)))));
+    }
+
+    @Test
+    void testFullOuterJoinSorted_withComparator() {
+        PairRichIterator<Integer, String> left  = RichIterators.of(4, 2, 1).mapToPair(identity(), x -> "l" + x);
+        PairRichIterator<Integer, String> right = RichIterators.of(5, 2, 2).mapToPair(identity(), x -> "r" + x);
+        assertThat(left.fullOuterJoinSorted(right, Comparator.reverseOrder()).toList(), equalTo(List.of(
+                new Pair<>(5, new Pair<>(null, "r5")),
+                new Pair<>(4, new Pair<>("l4", null)),
+                new Pair<>(2, new Pair<>("l2", "r2")),
+                new Pair<>(2, new Pair<>("l2", "r2")),
+                new Pair<>(1, new Pair<>("l1", null)))));
+    }
+
+    @Test
+    void testJoinSorted_failsIfNotSorted() {
+        PairRichIterator<Integer, Integer> left  = RichIterators.of(1, 3, 2).mapToPair(identity(), identity());
+        PairRichIterator<Integer, Integer> right = RichIterators.of(1, 2, 3).mapToPair(identity(), identity());
+        RuntimeException e = assertThrows(RuntimeException.class, () -> left.innerJoinSorted(right, null).toList());
+        assertThat(Throwables.getRootCause(e), instanceOf(IllegalStateException.class));
+    }
+
     @Test
     void testReduce() {
         assertThat(it.filter(x -> x > 5).map(x -> -x).reduce((x, y) -> x + y).get(), Matchers.equalTo(-45));
@@ -92,6 +469,80 @@ public class RichIteratorTest {
         assertThat(it.map(i -> i % 3).distinct(), iteratorEqualTo(RichIterators.of(0, 2, 1)));
     }
 
+    @Test
+    void testDistinct_exactWithinBudgetPreservesOrder() {
+        assertThat(it.map(i -> i % 3).distinct(DistinctOptions.exact(RecordCodec.ints(), 5)), iteratorEqualTo(RichIterators.of(0, 2, 1)));
+    }
+
+    @Test
+    void testDistinct_exactSpillsPastBudget() {
+        List<Integer> input = RichIntIterator.range(0, 5000).map(i -> (i * 7919) % 1000).boxed().toList();
+        List<Integer> res   = RichIterators.fromCollection(input).distinct(DistinctOptions.exact(RecordCodec.ints(), 10)).toList();
+
+        assertThat(res.size(), is(1000));
+        assertThat(new HashSet<>(res), equalTo(new HashSet<>(input)));
+        assertThat(res.subList(0, 10), equalTo(input.subList(0, 10)));
+    }
+
+    @Test
+    void testDistinct_exactSpillsToTheTempDirectory(@TempDir File tempDir) {
+        List<Integer>         input    = RichIntIterator.range(0, 5000).map(i -> (i * 7919) % 1000).boxed().toList();
+        RichIterator<Integer> distinct = RichIterators.fromCollection(input)
+                .distinct(DistinctOptions.exact(RecordCodec.ints(), 10).withTempDirectory(tempDir));
+
+        List<Integer> res = new ArrayList<>();
+        for (int i = 0; i < 11; i++) res.add(distinct.next());
+        assertThat(tempDir.list().length > 0, is(true));
+
+        res.addAll(distinct.toList());
+        assertThat(new HashSet<>(res), equalTo(new HashSet<>(input)));
+        assertThat(tempDir.list().length, is(0));
+    }
+
+    @Test
+    void testDistinct_byKey() {
+        RichIterator<String> distinct = RichIterators.of("apple", "avocado", "banana", "blueberry", "cherry")
+                .distinct(DistinctOptions.<String>exact(RecordCodec.strings(), 1).byKey(s -> s.charAt(0)));
+        assertThat(distinct.toSet(), equalTo(Set.of("apple", "banana", "cherry")));
+    }
+
+    @Test
+    void testDistinct_approximate() {
+        List<Integer> res = RichIntIterator.range(0, 10_000).map(i -> i % 1000).boxed().distinct(DistinctOptions.approximate(1000, 0.01, Funnels.integerFunnel())).toList();
+        assertThat(new HashSet<>(res).size(), is(res.size()));
+        assertThat(res.size() > 950, is(true));
+    }
+
+    @Test
+    void testDistinct_approximate_collidingHashCodes() {
+        // all the keys have the same hash code, so only the funnel can tell them apart
+        RichIterator<List<Integer>> keys   = RichIntIterator.range(0, 100).mapToObj(a -> List.of(a, 31 * (100 - a)));
+        Funnel<List<Integer>>       funnel = (key, sink) -> key.forEach(sink::putInt);
+        assertThat(keys.distinct(DistinctOptions.approximate(100, 0.01, funnel)).toList().size() > 95, is(true));
+    }
+
+    @Test
+    void testDistinct_approximate_byKey() {
+        DistinctOptions<String, Character> options = DistinctOptions.<String>approximate(10, 0.01, Funnels.unencodedCharsFunnel())
+                .byKey(s -> s.charAt(0), (Character c, PrimitiveSink sink) -> sink.putChar(c));
+        RichIterator<String> distinct = RichIterators.of("apple", "avocado", "banana", "blueberry", "cherry").distinct(options);
+        assertThat(distinct.toList(), equalTo(List.of("apple", "banana", "cherry")));
+    }
+
+    @Test
+    void testDistinct_window() {
+        RichIterator<Integer> distinct = RichIterators.of(1, 2, 1, 3, 4, 1, 5, 2).distinct(DistinctOptions.window(2));
+        assertThat(distinct, iteratorEqualTo(RichIterators.of(1, 2, 3, 4, 1, 5, 2)));
+    }
+
+    @Test
+    void testDistinct_invalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> DistinctOptions.window(0));
+        assertThrows(IllegalArgumentException.class, () -> DistinctOptions.approximate(10, 1.5, Funnels.integerFunnel()));
+        assertThrows(IllegalArgumentException.class, () -> DistinctOptions.approximate(10, 0.01, Funnels.integerFunnel()).byKey(i -> i % 2));
+        assertThrows(IllegalArgumentException.class, () -> DistinctOptions.window(2).withTempDirectory(new File(".")));
+    }
+
     @Test
     void testSorted_throwsExceptionIfNotComparable() {
         assertThrows(ClassCastException.class, () -> RichIterators.fromCollection(List.of(new Object[]{1, "hey", new Object(), 2})).sorted().toList());
@@ -112,6 +563,73 @@ public class RichIteratorTest {
         assertThat(it.sorted(), iteratorEqualTo(RichIterators.of(1, 3, 5, 6, 7, 8, 9, 15)));
     }
 
+    @Test
+    void testSorted_externalSpillsAndMerges(@TempDir File tempDir) {
+        SortOptions<Integer> options = SortOptions.<Integer>builder().codec(RecordCodec.ints()).maxElementsInMemory(3L).tempDirectory(tempDir).build();
+        assertThat(it.sorted(Comparator.reverseOrder(), options), iteratorEqualTo(RichIterators.of(15, 9, 8, 7, 6, 5, 3, 1)));
+        assertThat(tempDir.listFiles().length, is(0));
+    }
+
+    @Test
+    void testSorted_externalMultiPassMerge(@TempDir File tempDir) {
+        List<Integer> shuffled = new ArrayList<>(RichIntIterator.range(0, 1000).boxed().toList());
+        Collections.shuffle(shuffled, new Random(0));
+        SortOptions<Integer> options = SortOptions.<Integer>builder()
+                .codec(RecordCodec.ints())
+                .maxElementsInMemory(7L)
+                .maxMergeFanIn(3)
+                .tempDirectory(tempDir)
+                .build();
+
+        assertThat(RichIterators.fromCollection(shuffled).sorted(null, options).toList(), equalTo(RichIntIterator.range(0, 1000).boxed().toList()));
+        assertThat(tempDir.listFiles().length, is(0));
+    }
+
+    @Test
+    void testSorted_externalParallelAndCompressed(@TempDir File tempDir) {
+        List<Integer> shuffled = new ArrayList<>(RichIntIterator.range(0, 10_000).boxed().toList());
+        Collections.shuffle(shuffled, new Random(0));
+        SortOptions<Integer> options = SortOptions.<Integer>builder()
+                .codec(RecordCodec.ints())
+                .maxElementsInMemory(400L)
+                .maxMergeFanIn(4)
+                .parallelism(4)
+                .compression(Compression.DEFLATE)
+                .tempDirectory(tempDir)
+                .build();
+
+        assertThat(RichIterators.fromCollection(shuffled).sorted(null, options).toList(), equalTo(RichIntIterator.range(0, 10_000).boxed().toList()));
+        assertThat(tempDir.listFiles().length, is(0));
+    }
+
+    @Test
+    void testSorted_externalIsStable(@TempDir File tempDir) {
+        SortOptions<String> options = SortOptions.<String>builder()
+                .codec(RecordCodec.strings())
+                .maxBytesInMemory(4L)
+                .sizeEstimator(String::length)
+                .tempDirectory(tempDir)
+                .build();
+        RichIterator<String> sorted = RichIterators.of("bb", "a1", "cc", "a2", "b", "a3").sorted(Comparator.comparing(s -> s.charAt(0)), options);
+        assertThat(sorted, iteratorEqualTo(RichIterators.of("a1", "a2", "a3", "bb", "b", "cc")));
+    }
+
+    @Test
+    void testSorted_externalDeletesFilesOnClose(@TempDir File tempDir) throws IOException {
+        SortOptions<Integer> options = SortOptions.<Integer>builder().codec(RecordCodec.ints()).maxElementsInMemory(2L).tempDirectory(tempDir).build();
+        RichIterator<Integer> sorted = it.sorted(null, options);
+        assertThat(sorted.next(), is(1));
+        assertThat(tempDir.listFiles().length, is(4));
+
+        sorted.close();
+        assertThat(tempDir.listFiles().length, is(0));
+    }
+
+    @Test
+    void testSortOptions_byteBudgetRequiresEstimator() {
+        assertThrows(IllegalArgumentException.class, () -> SortOptions.<Integer>builder().codec(RecordCodec.ints()).maxBytesInMemory(10L).build());
+    }
+
     @Test
     void testFindSomething() {
         assertThat(it.findFirst(i -> i > 150), Matchers.equalTo(Optional.empty()));
@@ -222,6 +740,173 @@ public class RichIteratorTest {
         assertThat(it.getCloseCalls(), is(1));
     }
     
+    @Test
+    void testPrefetch() {
+        assertThat(RichIterators.of(1, null, 3, 4, 5).prefetch(2), iteratorEqualTo(RichIterators.of(1, null, 3, 4, 5)));
+        assertThat(emptyIterator().prefetch(2), iteratorEqualTo(emptyIterator()));
+    }
+
+    @Test
+    void testPrefetch_readsAhead() throws InterruptedException {
+        ObservableRichIterator<Integer> it = observable(RichIntIterator.range(0, 100).boxed());
+        RichIterator<Integer> prefetched = it.prefetch(5);
+        assertThat(prefetched.next(), is(0));
+
+        // next() already looked one element ahead, then the producer fills the queue and blocks on the element which does not fit in it
+        for (int i = 0; i < 100 && it.getNextCalls() < 8; i++) Thread.sleep(10);
+        assertThat(it.getNextCalls(), is(8));
+    }
+
+    @Test
+    void testPrefetch_propagatesExceptions() {
+        RichIterator<Integer> prefetched = it.map(x -> {
+            if (x == 6) throw new IOException("boom");
+            return x;
+        }).prefetch(2);
+
+        assertThat(List.of(prefetched.next(), prefetched.next()), equalTo(List.of(3, 8)));
+        RuntimeException e = assertThrows(RuntimeException.class, prefetched::toList);
+        assertThat(Throwables.getRootCause(e), instanceOf(IOException.class));
+    }
+
+    @Test
+    void testPrefetch_closeCancelsProducer() throws IOException {
+        ObservableRichIterator<Integer> it = observable(RichIntIterator.counter().boxed());
+        RichIterator<Integer> prefetched = it.prefetch(3);
+        assertThat(prefetched.next(), is(0));
+
+        prefetched.close();
+        int nextCalls = it.getNextCalls();
+        assertThat(it.getCloseCalls(), is(1));
+        assertThat(it.getNextCalls(), is(nextCalls));
+        assertThat(prefetched.hasNext(), is(false));
+    }
+
+    @Test
+    @Timeout(30)
+    void testPrefetch_closeDoesNotWaitForAnUninterruptibleProducer() throws Exception {
+        CountDownLatch blocked  = new CountDownLatch(1);
+        AtomicBoolean  unblock  = new AtomicBoolean();
+        AtomicInteger  released = new AtomicInteger();
+        RichIterator<Integer> it = new RichIterator<>() {
+            @Override protected boolean hasNextInternal() { return true; }
+
+            @Override
+            protected Integer nextInternal() {
+                blocked.countDown();
+                // ignores interrupts, like some blocking network clients
+                while (!unblock.get()) LockSupport.parkNanos(1_000_000);
+                return 0;
+            }
+
+            @Override protected void closeInternal() { released.incrementAndGet(); }
+        };
+
+        RichIterator<Integer> prefetched = new PrefetchRichIterator<>(it, 1, Duration.ofMillis(50));
+        Thread consumer = Thread.ofVirtual().start(prefetched::hasNext);
+        blocked.await();
+        consumer.interrupt();
+        consumer.join();
+
+        long start = System.nanoTime();
+        prefetched.close();
+        assertThat(System.nanoTime() - start < Duration.ofSeconds(5).toNanos(), is(true));
+        assertThat(released.get(), is(0));
+
+        unblock.set(true);
+        for (int i = 0; i < 500 && released.get() == 0; i++) Thread.sleep(10);
+        assertThat(released.get(), is(1));
+    }
+
+    @Test
+    void testMapAsync_preservesOrder() {
+        RichIterator<Integer> mapped = RichIntIterator.range(0, 50).boxed().mapAsync(8, x -> {
+            Thread.sleep(50 - x);
+            return 2 * x;
+        });
+        assertThat(mapped.toList(), equalTo(RichIntIterator.range(0, 50).mapToObj(x -> 2 * x).toList()));
+    }
+
+    @Test
+    void testMapAsync_boundsInFlightCalls() {
+        AtomicInteger inFlight    = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        ObservableRichIterator<Integer> it = observable(RichIntIterator.range(0, 40).boxed());
+        RichIterator<Integer> mapped = it.mapAsync(4, x -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            inFlight.decrementAndGet();
+            return x;
+        });
+
+        assertThat(mapped.next(), is(0));
+        assertThat(it.getNextCalls(), is(5));
+        assertThat(mapped.toList(), equalTo(RichIntIterator.range(1, 40).boxed().toList()));
+        assertThat(maxInFlight.get() <= 4, is(true));
+    }
+
+    @Test
+    void testMapAsync_doesNotRetainConsumedResults() {
+        assertConsumedResultsAreReleased(it -> it.mapAsync(4, x -> new byte[4096]));
+    }
+
+    @Test
+    void testMapAsyncUnordered_doesNotRetainConsumedResults() {
+        assertConsumedResultsAreReleased(it -> it.mapAsyncUnordered(4, x -> new byte[4096]));
+    }
+
+    private static void assertConsumedResultsAreReleased(Function<RichIterator<Integer>, RichIterator<byte[]>> mapAsync) {
+        List<WeakReference<byte[]>> results = new ArrayList<>();
+        RichIterator<byte[]> mapped = mapAsync.apply(RichIntIterator.counter().boxed());
+        for (int i = 0; i < 1_000; i++) results.add(new WeakReference<>(mapped.next()));
+
+        // only the results in flight may be retained, the iterator being still open
+        for (int i = 0; i < 10 && results.stream().filter(ref -> ref.get() != null).count() > 4; i++) System.gc();
+        assertThat(results.stream().filter(ref -> ref.get() != null).count() <= 4, is(true));
+    }
+
+    @Test
+    void testMapAsyncUnordered() {
+        RichIterator<Integer> mapped = it.mapAsyncUnordered(8, x -> {
+            Thread.sleep(30 * x);
+            return x;
+        });
+        assertThat(mapped.toList(), equalTo(List.of(1, 3, 5, 6, 7, 8, 9, 15)));
+    }
+
+    @Test
+    void testMapAsync_propagatesExceptions() {
+        RichIterator<Integer> mapped = it.mapAsync(3, x -> {
+            if (x == 6) throw new IOException("boom");
+            return x;
+        });
+        RuntimeException e = assertThrows(RuntimeException.class, mapped::toList);
+        assertThat(e.getCause(), instanceOf(IOException.class));
+    }
+
+    @Test
+    void testMapAsync_closeCancelsPendingCalls() throws IOException, InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        RichIterator<Integer> mapped = RichIntIterator.counter().boxed().mapAsync(4, x -> {
+            if (x == 0) return x;
+            running.incrementAndGet();
+            try {
+                Thread.sleep(60_000);
+            } finally {
+                running.decrementAndGet();
+            }
+            return x;
+        });
+
+        assertThat(mapped.next(), is(0));
+        mapped.close();
+        assertThat(mapped.hasNext(), is(false));
+
+        // the calls which had started are interrupted, the others never start
+        for (int i = 0; i < 100 && running.get() > 0; i++) Thread.sleep(10);
+        assertThat(running.get(), is(0));
+    }
+
     @Test
     public void drop_emptyIterator() {
         assertThat(emptyIterator().drop(5), iteratorEqualTo(emptyIterator()));
@@ -304,6 +989,28 @@ public class RichIteratorTest {
         assertThat(res, equalTo(List.of(List.of(8))));
     }
     
+    @Test
+    void testScan() {
+        assertThat(RichIterators.of(1, 2, 5, 4).scan((prev, next) -> next - prev), iteratorEqualTo(RichIterators.of(1, 3, -1)));
+    }
+
+    @Test
+    void testScan_lessThanTwoElements() {
+        assertThat(RichIterators.of(1).scan(Integer::sum), iteratorEqualTo(emptyIterator()));
+        assertThat(RichIterators.<Integer>of().scan(Integer::sum), iteratorEqualTo(emptyIterator()));
+    }
+
+    @Test
+    void testScan_isLazy() {
+        RichIterator<Integer> scanned = RichIterators.wrap(Stream.iterate(0, i -> i + 1).iterator()).scan(Integer::sum);
+        assertThat(List.of(scanned.next(), scanned.next(), scanned.next()), equalTo(List.of(1, 3, 5)));
+    }
+
+    @Test
+    void testPairwise() {
+        assertThat(RichIterators.of("a", "b", "c").pairwise(), iteratorEqualTo(RichIterators.of(new Pair<>("a", "b"), new Pair<>("b", "c"))));
+    }
+
     @Test
     void testSliding_stepLowerThanWindow() {
         List<List<Integer>> res = RichIterators.of(1, 2, 3, 4, 5, 6, 7, 8).sliding(4, 2).map(RichIterator::toList).toList();
@@ -4,6 +4,8 @@ import static com.dici.collection.richIterator.RichIteratorMatcher.iteratorEqual
 import static com.dici.collection.richIterator.RichIterators.concatIterators;
 import static com.dici.collection.richIterator.RichIterators.emptyIterator;
 import static com.dici.collection.richIterator.RichIterators.prepend;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
@@ -12,11 +14,16 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 
+import com.dici.io.ByteSlice;
 import com.dici.util.TestUtils;
 
 class RichIteratorsTest {
@@ -52,6 +59,68 @@ class RichIteratorsTest {
 		assertThat(it.hasNext(),is(false));
 	}
 	
+	@Test
+	void testReadLinesIterator_nextBatch() throws IOException {
+		List<String> expected = IntStream.range(0, 1000).mapToObj(i -> "line " + i).toList();
+		File         tmp      = TestUtils.tempFileWithContent(String.join("\n", expected));
+		
+		RichIterator<String> it    = RichIterators.fromLines(tmp);
+		Object[]             batch = new Object[300];
+		assertThat(it.next(), is("line 0"));
+		assertThat(it.hasNext(), is(true));
+		
+		List<String> res = new ArrayList<>(List.of("line 0"));
+		for (int n; (n = it.nextBatch(batch)) > 0; ) {
+			for (int i = 0; i < n; i++) res.add((String) batch[i]);
+		}
+		assertThat(res, is(expected));
+		assertThat(it.hasNext(), is(false));
+	}
+	
+	@Test
+	void testMappedLines() throws IOException {
+		File tmp = TestUtils.tempFileWithContent("hey\r\nhow are you\n\nhéhé ?");
+		List<ByteSlice> lines = RichIterators.mappedLines(tmp).toList();
+		assertThat(lines.stream().map(line -> line.decode(UTF_8)).toList(), is(List.of("hey", "how are you", "", "héhé ?")));
+		assertThat(lines.get(1).subSequence(4, 7).toString(), is("are"));
+		assertThat(lines.get(1).charAt(0), is('h'));
+		
+		// one char per byte, consistently with charAt and length
+		ByteSlice nonAscii = lines.get(3);
+		assertThat(nonAscii.length(), is(8));
+		assertThat(nonAscii.toString(), is(new String("héhé ?".getBytes(UTF_8), ISO_8859_1)));
+		assertThat(nonAscii.toString().contentEquals(nonAscii), is(true));
+	}
+	
+	@Test
+	void testMappedLines_remapsWindows() throws IOException {
+		List<String> expected = IntStream.range(0, 200).mapToObj(i -> "x".repeat(i % 13)).toList();
+		File         tmp      = TestUtils.tempFileWithContent(String.join("\n", expected) + "\n");
+		try (FileChannel channel = FileChannel.open(tmp.toPath())) {
+			RichIterator<ByteSlice> it = new MappedLinesRichIterator(channel, 0, channel.size(), 4);
+			assertThat(it.map(ByteSlice::toString).toList(), is(expected));
+		}
+	}
+	
+	@Test
+	void testMappedLines_lineAlignedRanges() throws IOException {
+		List<String> expected = IntStream.range(0, 1000).mapToObj(i -> "line " + i).toList();
+		File         tmp      = TestUtils.tempFileWithContent(String.join("\n", expected));
+		
+		List<RichIterator<ByteSlice>> ranges = RichIterators.mappedLines(tmp, 7);
+		assertThat(ranges.size(), is(7));
+		
+		List<String> actual = ranges.stream().flatMap(range -> range.map(ByteSlice::toString).toList().stream()).toList();
+		assertThat(actual, is(expected));
+	}
+	
+	@Test
+	void testMappedLines_fewerLinesThanRanges() throws IOException {
+		File tmp = TestUtils.tempFileWithContent("a\nb\n");
+		List<RichIterator<ByteSlice>> ranges = RichIterators.mappedLines(tmp, 5);
+		assertThat(ranges.stream().map(range -> range.map(ByteSlice::toString).toList()).toList(), is(List.of(List.of("a"), List.of("b"))));
+	}
+	
 	@Test
 	void testArray2DIterator() {
 		Integer[][] arr = { { 1,2 },{ 3,4 } };
@@ -11,7 +11,7 @@ import org.junit.jupiter.api.Test;
 class RichLongIteratorTest {
 	@Test
 	void testRange() {
-		assertThat(RichLongIterator.range(0,3).toList(), Matchers.equalTo(Arrays.asList(0L,1L,2L)));
+		assertThat(RichLongIterator.range(0,3).boxed().toList(), Matchers.equalTo(Arrays.asList(0L,1L,2L)));
 	}
 	
 	@Test
@@ -21,6 +21,29 @@ class RichLongIteratorTest {
 	
 	@Test
 	void testClosedRange() {
-		assertThat(RichLongIterator.closedRange(0,3).toList(), Matchers.equalTo(Arrays.asList(0L,1L,2L,3L)));
+		assertThat(RichLongIterator.closedRange(0,3).boxed().toList(), Matchers.equalTo(Arrays.asList(0L,1L,2L,3L)));
+	}
+
+	@Test
+	void testClosedRange_upToMaxValue() {
+		assertThat(RichLongIterator.closedRange(Long.MAX_VALUE - 1, Long.MAX_VALUE).toArray(), Matchers.equalTo(new long[] { Long.MAX_VALUE - 1, Long.MAX_VALUE }));
+	}
+
+	@Test
+	void testPipeline() {
+		assertThat(RichLongIterator.counter(1).map(l -> l * l).filter(l -> l % 2 == 1).take(3).sum(), Matchers.equalTo(1L + 9L + 25L));
+	}
+
+	@Test
+	void testZipWithIndex() {
+		RichLongIterator.Indexed it = RichLongIterator.of(4L, 2L).zipWithIndex();
+		it.nextLong();
+		it.nextLong();
+		assertThat(it.index(), Matchers.equalTo(1L));
+	}
+
+	@Test
+	void testMapToInt() {
+		assertThat(RichLongIterator.of(1L << 32 | 3, 5L).mapToInt(l -> (int) l).toArray(), Matchers.equalTo(new int[] { 3, 5 }));
 	}
 }
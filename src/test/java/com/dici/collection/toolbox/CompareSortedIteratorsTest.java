@@ -1,11 +1,21 @@
 package com.dici.collection.toolbox;
 
+import com.dici.collection.richIterator.IteratorTransformation;
+import com.dici.collection.richIterator.RichIntIterator;
+import com.dici.collection.richIterator.RichIterator;
 import com.dici.collection.richIterator.RichIterators;
+import com.dici.collection.toolbox.CompareSortedIterators.DeepValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.dici.strings.StringUtils.lastChar;
 import static java.util.Arrays.asList;
@@ -13,6 +23,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 
 public class CompareSortedIteratorsTest {
 	private Iterator<String>	expected;
@@ -64,6 +75,88 @@ public class CompareSortedIteratorsTest {
 		assertThat(report.getEventCount(TextComparison.LAST_CHAR_EQUAL)   , is(1L));
 	}
 	
+	@Test
+	public void testVariousDiffs_parallel() {
+		Iterator<String> actual   = RichIterators.of("z", "b", "r", "t", "us", "is", "qa", "di", "xhtml", "emlfp");
+		Iterator<String> expected = RichIterators.of("Z", "a", "r", "T", "us", "is", "qi", "qi", "naa", "xhTml");
+		new TextComparison(3).compareFully(actual, expected, report);
+		assertReportEqualsTo(report, 2, 1, 1, 11, asList(new NotEqualDiff<>("b","a"), new NotEqualDiff<>("qa","qi"), new MissingElementDiff<>("naa"), new UnexpectedElementDiff<String>("emlfp")));
+		assertThat(report.getEventCount(TextComparison.EQUALS_IGNORE_CASE), is(3L));
+		assertThat(report.getEventCount(TextComparison.LAST_CHAR_EQUAL)   , is(1L));
+	}
+
+	@Test
+	public void testParallel_sameDiffsInTheSameOrderAsSequential() {
+		Random       random   = new Random(0);
+		List<String> actual   = new ArrayList<>();
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 2_000; i++) {
+			String key = String.format("%05d", random.nextInt(1_500));
+			if (random.nextInt(10) > 0) actual  .add(key + ":" + random.nextInt(3));
+			if (random.nextInt(10) > 0) expected.add(key + ":" + random.nextInt(3));
+		}
+		actual  .sort(Comparator.naturalOrder());
+		expected.sort(Comparator.naturalOrder());
+
+		Comparator<String> byKey       = Comparator.comparing(s -> s.substring(0, s.indexOf(':')));
+		AtomicInteger      inFlight    = new AtomicInteger();
+		AtomicInteger      maxInFlight = new AtomicInteger();
+		DeepValidator<String> slowValidator = (a, e, r) -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				// random delays so that the validations complete out of order
+				Thread.sleep(ThreadLocalRandom.current().nextInt(2));
+				boolean isValid = a.charAt(a.length() - 1) == '0';
+				if (isValid) r.reportEvent(TextComparison.LAST_CHAR_EQUAL);
+				return isValid;
+			} catch (InterruptedException ex) {
+				throw new IllegalStateException(ex);
+			} finally {
+				inFlight.decrementAndGet();
+			}
+		};
+
+		DiffReport<String> sequentialReport = new DiffReport<>();
+		List<Diff<String>> sequentialDiffs  = new CompareSortedIterators<>(byKey, slowValidator).compareFully(actual.iterator(), expected.iterator(), sequentialReport);
+		List<Diff<String>> parallelDiffs    = new CompareSortedIterators<>(byKey, IteratorTransformation.identity(), slowValidator, 8)
+				.compareFully(actual.iterator(), expected.iterator(), report);
+
+		assertThat(parallelDiffs, equalTo(sequentialDiffs));
+		assertReportEqualsTo(report, sequentialReport.getDiffCount(), sequentialReport.getMissingCount(), sequentialReport.getUnexpectedCount(),
+				sequentialReport.getTotalCount(), sequentialDiffs);
+		assertThat(report.getEventCount(TextComparison.LAST_CHAR_EQUAL), is(sequentialReport.getEventCount(TextComparison.LAST_CHAR_EQUAL)));
+		assertThat(maxInFlight.get(), lessThanOrEqualTo(8));
+	}
+
+	@Test
+	public void testParallel_doesNotRetainValidatedPairs() {
+		List<WeakReference<String>> actualElements = new ArrayList<>();
+		Iterator<String> actual   = RichIntIterator.range(0, 5_000).mapToObj(i -> {
+			String s = String.format("%05d", i);
+			actualElements.add(new WeakReference<>(s));
+			return s;
+		});
+		Iterator<String> expected = RichIntIterator.range(0, 5_000).mapToObj(i -> String.format("%05d", i));
+
+		RichIterator<Diff<String>> diffs = new CompareSortedIterators<String>(Comparator.naturalOrder(), IteratorTransformation.identity(),
+				DeepValidator.noDeepValidation(), 8).compareIterators(actual, expected, report);
+		assertThat(diffs.hasNext(), is(false));
+		assertThat(report.getTotalCount(), is(5_000));
+
+		// only the pairs in flight may still be referenced by the comparison
+		for (int i = 0; i < 10 && retained(actualElements) > 8; i++) System.gc();
+		assertThat(retained(actualElements), lessThanOrEqualTo(8L));
+	}
+
+	private static long retained(List<? extends WeakReference<?>> refs) {
+		return refs.stream().filter(ref -> ref.get() != null).count();
+	}
+
+	@Test
+	public void failsIfParallelismIsNotPositive() {
+		assertThatThrownBy(() -> new TextComparison(0)).isExactlyInstanceOf(IllegalArgumentException.class);
+	}
+
 	private static void assertReportEqualsTo(DiffReport<String> report, int diffCount, int missingCount, int unexpectedCount, int totalCount, List<Diff<String>> diffs) {
 		assertThat(report.getDiffCount      (), is(diffCount));
 		assertThat(report.getMissingCount   (), is(missingCount));
@@ -76,7 +169,11 @@ public class CompareSortedIteratorsTest {
 		private static final String EQUALS_IGNORE_CASE = "equals_ignore_case";
 		private static final String LAST_CHAR_EQUAL    = "last_char_equal";
 	
-		public TextComparison() { super((s0, s1) -> Integer.compare(s0.length(), s1.length()), TextComparison::deepCheckValidity); }
+		public TextComparison() { this(1); }
+
+		public TextComparison(int parallelism) {
+			super((s0, s1) -> Integer.compare(s0.length(), s1.length()), IteratorTransformation.identity(), TextComparison::deepCheckValidity, parallelism);
+		}
 	
 		private static boolean deepCheckValidity(String actual, String expected, DiffReport<String> report) { 
 			boolean isValid;
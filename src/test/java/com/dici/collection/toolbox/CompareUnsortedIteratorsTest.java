@@ -0,0 +1,150 @@
+package com.dici.collection.toolbox;
+
+import static com.dici.testing.assertj.BetterAssertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.dici.collection.toolbox.CompareSortedIterators.DeepValidator;
+import com.dici.io.RecordCodec;
+
+public class CompareUnsortedIteratorsTest {
+    private static final String SAME_KEY = "same_key";
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void testVariousDiffs() {
+        List<String> actual   = List.of("b:1", "a:1", "c:2", "d:1", "d:2", "e:1");
+        List<String> expected = List.of("a:1", "b:2", "c:1", "d:1", "f:1", "e:1");
+
+        DiffReport<String> report = new DiffReport<>();
+        List<Diff<String>> diffs  = new CompareUnsortedIterators<>(CompareUnsortedIteratorsTest::key, DeepValidator.noDeepValidation(),
+                HashDiffOptions.withCodec(RecordCodec.strings())).compareFully(actual.iterator(), expected.iterator(), report);
+
+        assertThat(diffs).containsExactlyInAnyOrder(new NotEqualDiff<>("b:1", "b:2"), new NotEqualDiff<>("c:2", "c:1"),
+                new UnexpectedElementDiff<>("d:2"), new MissingElementDiff<>("f:1"));
+        assertThat(report.getDiffs()).containsExactlyElementsOf(diffs);
+        assertThat(report.getDiffCount      ()).isEqualTo(2);
+        assertThat(report.getMissingCount   ()).isEqualTo(1);
+        assertThat(report.getUnexpectedCount()).isEqualTo(1);
+        assertThat(report.getTotalCount     ()).isEqualTo(7);
+    }
+
+    @Test
+    public void testSameReportAsTheSortedComparison_spillingAndParallel() {
+        HashDiffOptions<String> options = HashDiffOptions.<String>builder()
+                .codec(RecordCodec.strings())
+                .partitions(16)
+                .maxElementsInMemory(1_000L)
+                .tempDirectory(tempDir)
+                .parallelism(4)
+                .build();
+        assertSameReportAsTheSortedComparison(randomElements(0, 0), randomElements(1, 0), options);
+    }
+
+    @Test
+    public void testSameReportAsTheSortedComparison_bucketsLargerThanTheBudget() {
+        // a small budget, so that the buckets are split several times, and a key which can never be split
+        HashDiffOptions<String> options = HashDiffOptions.<String>builder()
+                .codec(RecordCodec.strings())
+                .partitions(16)
+                .maxElementsInMemory(200L)
+                .tempDirectory(tempDir)
+                .parallelism(2)
+                .build();
+        assertSameReportAsTheSortedComparison(randomElements(0, 3_000), randomElements(1, 2_500), options);
+    }
+
+    @Test
+    public void testCompareFully_failure_waitsForTheOtherBuckets() {
+        HashDiffOptions<String> options = HashDiffOptions.<String>builder()
+                .codec(RecordCodec.strings())
+                .partitions(16)
+                .tempDirectory(tempDir)
+                .parallelism(4)
+                .build();
+        List<String>  actual   = IntStream.range(0, 200).mapToObj(i -> i + ":1").toList();
+        List<String>  expected = IntStream.range(0, 200).mapToObj(i -> i + ":2").toList();
+        AtomicInteger running  = new AtomicInteger();
+        DeepValidator<String> validator = (a, e, report) -> {
+            running.incrementAndGet();
+            try {
+                if (key(a).equals("0")) throw new IllegalStateException("boom");
+                // ignores interrupts, like file I/O
+                long deadline = System.nanoTime() + 5_000_000;
+                while (System.nanoTime() < deadline) LockSupport.parkNanos(deadline - System.nanoTime());
+                return true;
+            } finally {
+                running.decrementAndGet();
+            }
+        };
+
+        CompareUnsortedIterators<String, String> comparison = new CompareUnsortedIterators<>(CompareUnsortedIteratorsTest::key, validator, options);
+        assertThatThrownBy(() -> comparison.compareFully(actual.iterator(), expected.iterator(), new DiffReport<>()))
+                .isLike(new IllegalStateException("boom"));
+        assertThat(running.get()).isZero();
+    }
+
+    private void assertSameReportAsTheSortedComparison(List<String> actual, List<String> expected, HashDiffOptions<String> options) {
+        DiffReport<String> unsortedReport = new DiffReport<>(100);
+        List<Diff<String>> unsortedDiffs  = new CompareUnsortedIterators<>(CompareUnsortedIteratorsTest::key, CompareUnsortedIteratorsTest::sameKeyEven, options)
+                .compareFully(actual.iterator(), expected.iterator(), unsortedReport);
+
+        // stable sorts keep the order of the elements sharing a key, which is how the unsorted comparison matches them
+        Comparator<String> byKey        = Comparator.comparing(CompareUnsortedIteratorsTest::key);
+        DiffReport<String> sortedReport = new DiffReport<>(100);
+        List<Diff<String>> sortedDiffs  = new CompareSortedIterators<>(byKey, CompareUnsortedIteratorsTest::sameKeyEven)
+                .compareFully(sorted(actual, byKey), sorted(expected, byKey), sortedReport);
+
+        assertThat(unsortedDiffs).containsExactlyInAnyOrderElementsOf(sortedDiffs);
+        assertThat(unsortedReport.getDiffs()).containsExactlyElementsOf(unsortedDiffs.subList(0, 100));
+        assertThat(unsortedReport.getDiffCount      ()).isEqualTo(sortedReport.getDiffCount      ());
+        assertThat(unsortedReport.getMissingCount   ()).isEqualTo(sortedReport.getMissingCount   ());
+        assertThat(unsortedReport.getUnexpectedCount()).isEqualTo(sortedReport.getUnexpectedCount());
+        assertThat(unsortedReport.getTotalCount     ()).isEqualTo(sortedReport.getTotalCount     ());
+        assertThat(unsortedReport.getEventCount(SAME_KEY)).isEqualTo(sortedReport.getEventCount(SAME_KEY));
+        assertThat(tempDir.list()).isEmpty();
+    }
+
+    /// About 18k elements with random keys, some of them missing, plus `hotKeyElements` elements sharing the same key, in random order
+    private static List<String> randomElements(long seed, int hotKeyElements) {
+        Random       random   = new Random(0);
+        Random       shuffler = new Random(seed);
+        List<String> elements = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            String key = String.valueOf(random.nextInt(15_000));
+            int    value = random.nextInt(3);
+            if (shuffler.nextInt(10) > 0) elements.add(key + ":" + (shuffler.nextInt(4) == 0 ? shuffler.nextInt(3) : value));
+        }
+        for (int i = 0; i < hotKeyElements; i++) elements.add("16000:" + shuffler.nextInt(3));
+        Collections.shuffle(elements, shuffler);
+        return elements;
+    }
+
+    private static String key(String s) { return s.substring(0, s.indexOf(':')); }
+
+    /// Considers as valid two elements with the same key when the key is even, so that events are reported from several buckets
+    private static boolean sameKeyEven(String actual, String expected, DiffReport<String> report) {
+        boolean isValid = Integer.parseInt(key(actual)) % 2 == 0;
+        if (isValid) report.reportEvent(SAME_KEY);
+        return isValid;
+    }
+
+    private static Iterator<String> sorted(List<String> list, Comparator<String> cmp) {
+        return list.stream().sorted(cmp).iterator();
+    }
+}
@@ -0,0 +1,126 @@
+package com.dici.collection.toolbox;
+
+import static com.dici.testing.assertj.BetterAssertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.dici.collection.richIterator.RichIterator;
+import com.dici.io.RecordCodec;
+import com.dici.io.RecordFileWriter.Compression;
+
+public class DiffReportTest {
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void testSpill_diffsAreReadBackInOrder() throws IOException {
+        List<Diff<String>> expected = new ArrayList<>();
+        try (DiffReport<String> report = new DiffReport<>(DiffReport.NO_LIMIT, spillOptions(3))) {
+            for (int i = 0; i < 10; i++) expected.add(reportSomething(report, i));
+
+            assertThat(tempDir.list()).hasSize(1);
+            try (RichIterator<Diff<String>> it = report.diffIterator()) {
+                assertThat(it.toList()).containsExactlyElementsOf(expected);
+            }
+
+            // the diffs reported after an iteration go to a new file, and both can be read again
+            for (int i = 10; i < 15; i++) expected.add(reportSomething(report, i));
+            assertThat(tempDir.list()).hasSize(2);
+            try (RichIterator<Diff<String>> it = report.diffIterator()) {
+                assertThat(it.toList()).containsExactlyElementsOf(expected);
+            }
+            assertThat(report.getDiffString()).startsWith("found: a0\nexpected: e0\n+a1\n-e2\n");
+            assertThat(report.getDiffCount() + report.getMissingCount() + report.getUnexpectedCount()).isEqualTo(15);
+        }
+        assertThat(tempDir.list()).isEmpty();
+    }
+
+    @Test
+    public void testSpill_limitIsEnforced() {
+        try (DiffReport<String> report = new DiffReport<>(5, spillOptions(2))) {
+            for (int i = 0; i < 20; i++) reportSomething(report, i);
+
+            assertThat(report.diffIterator().toList()).hasSize(5);
+            assertThat(report.getTotalCount()).isEqualTo(20);
+        }
+    }
+
+    @Test
+    public void testSpill_getDiffs() {
+        try (DiffReport<String> report = new DiffReport<>(DiffReport.NO_LIMIT, spillOptions(2))) {
+            for (int i = 0; i < 2; i++) reportSomething(report, i);
+            assertThat(report.getDiffs()).containsExactly(new NotEqualDiff<>("a0", "e0"), new UnexpectedElementDiff<>("a1"));
+
+            reportSomething(report, 2);
+            assertThatThrownBy(report::getDiffs)
+                    .isLike(new IllegalStateException("Some diffs have been spilled to disk, they can only be iterated lazily"));
+        }
+    }
+
+    @Test
+    public void testSpill_toString() {
+        try (DiffReport<String> report = new DiffReport<>(DiffReport.NO_LIMIT, spillOptions(2))) {
+            for (int i = 0; i < 5; i++) reportSomething(report, i);
+
+            assertThat(report.toString()).startsWith("""
+                    DiffReport [
+                    	diffs=
+                    		NotEqualDiff [actual=a0, expected=e0]
+                    		UnexpectedElementDiff [a1]
+                    		... 3 more spilled to disk
+                    """);
+            assertThat(tempDir.list()).hasSize(1);
+        }
+    }
+
+    @Test
+    public void testConcurrentReports() throws Exception {
+        int threads = 4, reportsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (DiffReport<String> report = new DiffReport<>(DiffReport.NO_LIMIT, spillOptions(1_000).toBuilder().compression(Compression.DEFLATE).build())) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < reportsPerThread; i++) {
+                        reportSomething(report, i);
+                        report.reportEqual();
+                        report.reportEvent("event");
+                    }
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+
+            int total = threads * reportsPerThread;
+            assertThat(report.getTotalCount()).isEqualTo(2 * total);
+            assertThat(report.getEventCount("event")).isEqualTo(total);
+            assertThat(report.getDiffCount() + report.getMissingCount() + report.getUnexpectedCount()).isEqualTo(total);
+            assertThat(report.diffIterator().toList()).hasSize(total);
+            assertThat(report.getTotalCountLong()).isEqualTo(2L * total);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(tempDir.list()).isEmpty();
+    }
+
+    private DiffSpillOptions<String> spillOptions(int maxDiffsInMemory) {
+        return DiffSpillOptions.<String>builder().codec(RecordCodec.strings()).maxDiffsInMemory(maxDiffsInMemory).tempDirectory(tempDir).build();
+    }
+
+    private static Diff<String> reportSomething(DiffReport<String> report, int i) {
+        return switch (i % 3) {
+            case 0  -> report.reportDifference("a" + i, "e" + i);
+            case 1  -> report.reportUnexpectedElement("a" + i);
+            default -> report.reportMissingElement("e" + i);
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.dici.io;
+
+import static com.dici.testing.assertj.BetterAssertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.dici.collection.richIterator.RichIterators;
+import com.dici.io.RecordFileWriter.Compression;
+
+class RecordFileTest {
+    @TempDir
+    File tempDir;
+
+    @Test
+    void testRoundTrip_uncompressed() throws IOException {
+        List<String> records = IntStream.range(0, 10_000).mapToObj(i -> "record-" + i).toList();
+        File         file    = write(records, Compression.NONE, 100);
+        assertThat(RichIterators.fromRecordFile(file, RecordCodec.strings()).toList()).containsExactlyElementsOf(records);
+    }
+
+    @Test
+    void testRoundTrip_deflate() throws IOException {
+        List<String> records = IntStream.range(0, 10_000).mapToObj(i -> "record-" + i).toList();
+        File         file    = write(records, Compression.DEFLATE, RecordFileWriter.DEFAULT_BLOCK_SIZE);
+        assertThat(RichIterators.fromRecordFile(file, RecordCodec.strings()).toList()).containsExactlyElementsOf(records);
+        assertThat(file.length()).isLessThan(write(records, Compression.NONE, RecordFileWriter.DEFAULT_BLOCK_SIZE).length());
+    }
+
+    @Test
+    void testRead_emptyFile() throws IOException {
+        File file = write(List.of(), Compression.DEFLATE, 10);
+        assertThat(RichIterators.fromRecordFile(file, RecordCodec.strings()).hasNext()).isFalse();
+    }
+
+    @Test
+    void testRead_truncatedFile() throws IOException {
+        File   file  = write(IntStream.range(0, 100).mapToObj(Integer::toString).toList(), Compression.NONE, 1 << 10);
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 3));
+        assertThatThrownBy(() -> RichIterators.fromRecordFile(file, RecordCodec.strings()).toList())
+                .isLike(new RuntimeException(new UncheckedIOException(new EOFException("Truncated record file"))));
+    }
+
+    @Test
+    void testRead_notARecordFile() throws IOException {
+        File file = new File(tempDir, "text");
+        Files.writeString(file.toPath(), "hello world");
+        assertThatThrownBy(() -> RichIterators.fromRecordFile(file, RecordCodec.strings()))
+                .isLike(new UncheckedIOException(new IOException(file + " is not a record file")));
+    }
+
+    private File write(List<String> records, Compression compression, int blockSize) throws IOException {
+        File file = File.createTempFile("records", null, tempDir);
+        try (RecordFileWriter<String> writer = new RecordFileWriter<>(file, RecordCodec.strings(), compression, blockSize)) {
+            writer.writeAll(records.iterator());
+        }
+        return file;
+    }
+}
@@ -3,14 +3,20 @@ package com.dici.sort;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 
 import com.dici.sort.BoundMemorySort;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.dici.collection.richIterator.SortOptions;
+import com.dici.io.RecordCodec;
 
 public class BoundMemorySortTest {
 	@Test
@@ -22,4 +28,21 @@ public class BoundMemorySortTest {
 		Collections.sort(list);
 		assertThat(res,equalTo(list));
 	}
+	
+	@Test
+	public void testByteBudgetInParallel(@TempDir File tempDir) {
+		SortOptions<Long> options = SortOptions.<Long>builder()
+				.codec(RecordCodec.longs())
+				.maxBytesInMemory(8_000L)
+				.sizeEstimator(x -> Long.BYTES)
+				.parallelism(3)
+				.tempDirectory(tempDir)
+				.build();
+		List<Long> list = new Random(0).longs(50_000).boxed().collect(Collectors.toList());
+		
+		List<Long> res = new BoundMemorySort<>(options).sort(list).toList();
+		Collections.sort(list);
+		assertThat(res,equalTo(list));
+		assertThat(tempDir.listFiles().length,equalTo(0));
+	}
 }
@@ -0,0 +1,136 @@
+package com.dici.sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntUnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+public class ParallelSortTest {
+	private static final ForkJoinPool POOL = new ForkJoinPool(4);
+	
+	private static final List<IntUnaryOperator> INPUTS = List.of(
+		i -> i,
+		i -> -i,
+		i -> i % 7,
+		i -> 42,
+		i -> i % 2 == 0 ? i : -i,
+		i -> i * 0x9E3779B9
+	);
+	
+	@Test
+	public void testSort_parallelMergeSort_variousInputs() {
+		checkAgainstParallelSort(new ParallelMergeSort<>(POOL,100));
+	}
+	
+	@Test
+	public void testSort_parallelDualPivotQuickSort_variousInputs() {
+		checkAgainstParallelSort(new ParallelDualPivotQuickSort<>(POOL,100));
+	}
+	
+	@Test
+	public void testSort_heapSort_variousInputs() {
+		checkAgainstParallelSort(new HeapSort<>());
+	}
+	
+	@Test
+	public void testSort_parallelMergeSort_isStable() {
+		Random       rd  = new Random(0);
+		StableItem[] arr = new StableItem[50_000];
+		for (int i=0 ; i<arr.length ; i++) arr[i] = new StableItem(rd.nextInt(100),i);
+		
+		new ParallelMergeSort<StableItem>(POOL,100).sort(arr);
+		assertThat(arr).isSortedAccordingTo(Comparator.comparingInt(StableItem::key).thenComparingInt(StableItem::index));
+	}
+	
+	/**
+	 * Builds a quicksort killer with an adversary in the style of McIlroy's, which decides the order of the elements lazily so that both pivots
+	 * of every partitioning step are the lowest elements of their range. Replaying the same input must reach the heap sort fallback, or the sort
+	 * would need a quadratic number of comparisons.
+	 */
+	@Test
+	public void testSort_parallelDualPivotQuickSort_adversarialInput_fallsBackToHeapSort() {
+		int n = 20_000;
+		ParallelDualPivotQuickSort<Adversarial> algorithm = new ParallelDualPivotQuickSort<>(POOL,n);
+		
+		Adversary     adversary = new Adversary(n);
+		Adversarial[] killer    = new Adversarial[n];
+		for (int i=0 ; i<n ; i++) killer[i] = new Adversarial(i,adversary);
+		algorithm.sort(killer);
+		adversary.freezeAll();
+		
+		Adversary     replay = new Adversary(adversary.values);
+		Adversarial[] arr    = new Adversarial[n];
+		for (int i=0 ; i<n ; i++) arr[i] = new Adversarial(i,replay);
+		algorithm.sort(arr);
+		
+		int[] expected = replay.values.clone();
+		Arrays.sort(expected);
+		assertThat(Arrays.stream(arr).mapToInt(x -> replay.values[x.index]).toArray()).containsExactly(expected);
+		assertThat(replay.comparisons).isEqualTo(adversary.comparisons).isLessThan(8L * n * (32 - Integer.numberOfLeadingZeros(n)));
+	}
+	
+	private static void checkAgainstParallelSort(SortAlgorithm<Integer> algorithm) {
+		for (int size : new int[] { 0,1,2,31,33,1000,100_000 }) {
+			for (IntUnaryOperator input : INPUTS) {
+				Integer[] arr = new Integer[size];
+				for (int i=0 ; i<size ; i++) arr[i] = input.applyAsInt(i);
+				
+				Integer[] expected = Arrays.copyOf(arr,size);
+				Arrays.parallelSort(expected);
+				algorithm.sort(arr);
+				assertThat(arr).as(algorithm.getName()).containsExactly(expected);
+			}
+		}
+	}
+	
+	private record StableItem(int key, int index) implements Comparable<StableItem> {
+		@Override
+		public int compareTo(StableItem that) { return Integer.compare(key,that.key); }
+	}
+	
+	/**
+	 * All the values start as "gas", greater than any frozen value. When two gas values are compared, the argument of {@link Comparable#compareTo}
+	 * is frozen to the next lowest value, since the partitioning loop always passes the pivot as argument.
+	 */
+	private static final class Adversary {
+		private final int[] values;
+		private final int   gas;
+		private int         frozen = 0;
+		private long        comparisons;
+		
+		Adversary(int n) {
+			this.values = new int[n];
+			this.gas    = n;
+			Arrays.fill(values,gas);
+		}
+		
+		/** Replays already frozen values */
+		Adversary(int[] values) {
+			this.values = values;
+			this.gas    = values.length;
+		}
+		
+		int compare(int i, int j) {
+			comparisons++;
+			if (values[i] == gas && values[j] == gas) values[j] = frozen++;
+			return Integer.compare(values[i],values[j]);
+		}
+		
+		void freezeAll() {
+			for (int i=0 ; i<values.length ; i++) {
+				if (values[i] == gas) values[i] = frozen++;
+			}
+		}
+	}
+	
+	private record Adversarial(int index, Adversary adversary) implements Comparable<Adversarial> {
+		@Override
+		public int compareTo(Adversarial that) { return adversary.compare(index,that.index); }
+	}
+}
@@ -0,0 +1,94 @@
+package com.dici.sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class RadixSortTest {
+	private static final int[] SIZES = { 0,1,63,64,1000,100_000 };
+	
+	@Test
+	public void testSort_ints_randomAndExtremeValues() {
+		Random rd = new Random(0);
+		for (int size : SIZES) {
+			int[] arr = rd.ints(size).toArray();
+			if (size > 2) { arr[0] = Integer.MIN_VALUE; arr[1] = Integer.MAX_VALUE; }
+			checkInts(arr);
+			checkInts(rd.ints(size,0,100).toArray());
+		}
+	}
+	
+	@Test
+	public void testSort_longs_randomAndExtremeValues() {
+		Random rd = new Random(0);
+		for (int size : SIZES) {
+			long[] arr = rd.longs(size).toArray();
+			if (size > 2) { arr[0] = Long.MIN_VALUE; arr[1] = Long.MAX_VALUE; }
+			long[] expected = arr.clone();
+			Arrays.sort(expected);
+			RadixSort.sort(arr);
+			assertThat(arr).containsExactly(expected);
+		}
+	}
+	
+	@Test
+	public void testSort_doubles_specialValues() {
+		Random   rd      = new Random(0);
+		double[] special = { Double.NaN,-0d,0d,Double.NEGATIVE_INFINITY,Double.POSITIVE_INFINITY,Double.MIN_VALUE,-Double.MAX_VALUE };
+		for (int size : SIZES) {
+			double[] arr = rd.doubles(size,-1e6,1e6).toArray();
+			for (int i=0 ; i<Math.min(size,special.length) ; i++) arr[i] = special[i];
+			double[] expected = arr.clone();
+			Arrays.sort(expected);
+			RadixSort.sort(arr);
+			assertThat(arr).containsExactly(expected);
+		}
+	}
+	
+	@Test
+	public void testSort_floats_specialValues() {
+		Random  rd      = new Random(0);
+		float[] special = { Float.NaN,-0f,0f,Float.NEGATIVE_INFINITY,Float.POSITIVE_INFINITY,Float.MIN_VALUE,-Float.MAX_VALUE };
+		for (int size : SIZES) {
+			float[] arr = new float[size];
+			for (int i=0 ; i<size ; i++) arr[i] = i < special.length ? special[i] : (rd.nextFloat() - 0.5f) * 1e6f;
+			float[] expected = arr.clone();
+			Arrays.sort(expected);
+			RadixSort.sort(arr);
+			assertThat(arr).containsExactly(expected);
+		}
+	}
+	
+	@Test
+	public void testArgsortByInt_isStable() {
+		String[] arr   = { "bb","a","ccc","dd","e","fff" };
+		int[]    order = RadixSort.argsortByInt(arr,String::length);
+		assertThat(order).containsExactly(1,4,0,3,2,5);
+	}
+	
+	@Test
+	public void testArgsortByDouble_nanLast() {
+		Double[] arr   = { 3.5,-1.0,Double.NaN,0.0,-7.25 };
+		int[]    order = RadixSort.argsortByDouble(arr,Double::doubleValue);
+		assertThat(order).containsExactly(4,1,3,0,2);
+	}
+	
+	@Test
+	public void testSort_asSortAlgorithm_boxedInts() {
+		Integer[] arr      = new Random(0).ints(10_000).boxed().toArray(Integer[]::new);
+		Integer[] expected = arr.clone();
+		Arrays.sort(expected);
+		new RadixSort<Integer>(Integer::longValue).sort(arr);
+		assertThat(arr).containsExactly(expected);
+	}
+	
+	private static void checkInts(int[] arr) {
+		int[] expected = arr.clone();
+		Arrays.sort(expected);
+		RadixSort.sort(arr);
+		assertThat(arr).containsExactly(expected);
+	}
+}
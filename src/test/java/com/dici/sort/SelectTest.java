@@ -0,0 +1,120 @@
+package com.dici.sort;
+
+import static com.dici.testing.assertj.BetterAssertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+public class SelectTest {
+	private static final List<IntUnaryOperator> INPUTS = List.of(
+		i -> i,
+		i -> -i,
+		i -> i % 3,
+		i -> 42,
+		i -> i * 0x9E3779B9,
+		// median-of-3 killer-like sequence
+		i -> i % 2 == 0 ? i : Integer.MAX_VALUE - i
+	);
+	
+	@Test
+	public void testSelect_ints_variousInputs() {
+		Random rd = new Random(0);
+		for (int size : new int[] { 1,2,17,601,10_000 }) {
+			for (IntUnaryOperator input : INPUTS) {
+				int[] arr = new int[size];
+				for (int i=0 ; i<size ; i++) arr[i] = input.applyAsInt(i);
+				int[] sorted = arr.clone();
+				Arrays.sort(sorted);
+				
+				for (int trial=0 ; trial<5 ; trial++) {
+					int   k    = rd.nextInt(size);
+					int[] copy = arr.clone();
+					assertThat(Select.select(copy,k)).isEqualTo(sorted[k]);
+					checkPartitioned(copy,k);
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void testSelect_longsAndDoubles() {
+		Random   rd      = new Random(0);
+		long[]   longs   = rd.longs(5_000).toArray();
+		double[] doubles = rd.doubles(5_000).toArray();
+		doubles[0] = Double.NaN;
+		doubles[1] = -0d;
+		
+		long[]   sortedLongs   = longs.clone();
+		double[] sortedDoubles = doubles.clone();
+		Arrays.sort(sortedLongs);
+		Arrays.sort(sortedDoubles);
+		for (int k : new int[] { 0,1,2_500,4_999 }) {
+			assertThat(Select.select(longs.clone(),k)).isEqualTo(sortedLongs[k]);
+			assertThat(Select.select(doubles.clone(),k)).isEqualTo(Double.valueOf(sortedDoubles[k]));
+		}
+	}
+	
+	@Test
+	public void testSelect_range_onlyReordersTheRange() {
+		int[]    ints    = { 9,8,7,6,5,4,3,2,1,0 };
+		long[]   longs   = { 9,8,7,6,5,4,3,2,1,0 };
+		double[] doubles = { 9,8,7,6,5,4,3,2,1,0 };
+		
+		assertThat(Select.select(ints,2,8,3)).isEqualTo(3);
+		assertThat(Select.select(longs,2,8,3)).isEqualTo(3L);
+		assertThat(Select.select(doubles,2,8,3)).isEqualTo(3d);
+		for (int[] arr : new int[][] { ints,Arrays.stream(longs).mapToInt(x -> (int) x).toArray(),Arrays.stream(doubles).mapToInt(x -> (int) x).toArray() }) {
+			assertThat(Arrays.copyOfRange(arr,0,2)).containsExactly(9,8);
+			assertThat(Arrays.copyOfRange(arr,8,10)).containsExactly(1,0);
+			assertThat(Arrays.copyOfRange(arr,2,8)).containsExactlyInAnyOrder(7,6,5,4,3,2);
+			assertThat(Arrays.stream(arr,2,3)).allMatch(x -> x < 3);
+			assertThat(Arrays.stream(arr,4,8)).allMatch(x -> x > 3);
+		}
+	}
+	
+	@Test
+	public void testSelect_withComparator() {
+		String[] arr = { "ccc","a","bb","dddd","" };
+		assertThat(Select.select(arr,1,Comparator.comparing(String::length).reversed())).isEqualTo("ccc");
+	}
+	
+	@Test
+	public void testSelectAll_ints() {
+		int[] arr    = new Random(0).ints(100_000).toArray();
+		int[] sorted = arr.clone();
+		Arrays.sort(sorted);
+		
+		int[] ks  = { 99_999,50_000,0,25_000,75_000,50_000 };
+		int[] res = Select.selectAll(arr,ks);
+		for (int i=0 ; i<ks.length ; i++) {
+			assertThat(res[i]).isEqualTo(sorted[ks[i]]);
+			checkPartitioned(arr,ks[i]);
+		}
+	}
+	
+	@Test
+	public void testSelect_invalidRank() {
+		assertThatThrownBy(() -> Select.select(new int[3],3)).isLike(new IndexOutOfBoundsException("Index 3 out of bounds for length 3"));
+		assertThatThrownBy(() -> Select.select(new long[5],1,4,4)).isLike(new IndexOutOfBoundsException("Index 3 out of bounds for length 3"));
+		assertThatThrownBy(() -> Select.select(new double[5],1,6,2)).isLike(new IndexOutOfBoundsException("Range [1, 6) out of bounds for length 5"));
+		assertThatThrownBy(() -> Select.selectAll(new int[3],new int[] { -1 })).isLike(new IndexOutOfBoundsException("Index -1 out of bounds for length 3"));
+	}
+	
+	@Test
+	public void testKthElement_quickSort() {
+		Integer[] arr = { 5,1,4,2,3 };
+		assertThat(new QuickSort<Integer>().kthElement(arr,2)).isEqualTo(2);
+	}
+	
+	private static void checkPartitioned(int[] arr, int k) {
+		int pivot = arr[k];
+		assertThat(Arrays.stream(arr,0,k)).allMatch(x -> x <= pivot);
+		assertThat(Arrays.stream(arr,k + 1,arr.length)).allMatch(x -> x >= pivot);
+	}
+}
@@ -27,6 +27,24 @@ class QuickSelect$Test extends FunSuite with Matchers {
     }
   }
 
+  test("testKthElement_primitives_defaultAndCustomOrderings") {
+    val values = Random.shuffle((0 until 100).toList)
+
+    QuickSelect.kthElement(values.toArray, 10) should equal(9)
+    QuickSelect.kthElement(values.map(_.toLong).toArray, 10) should equal(9L)
+    QuickSelect.kthElement(values.map(_.toDouble).toArray, 10) should equal(9d)
+    QuickSelect.kthElement(values.map(_.toShort).toArray, 10) should equal(9.toShort)
+    QuickSelect.kthElement(values.toArray, 10)(Ordering.Int.reverse) should equal(90)
+  }
+
+  test("testKthElement_range_onlyReordersTheRange") {
+    val arr = (9 to 0 by -1).toArray
+    QuickSelect.kthElement(arr, 4, 2, 8) should equal(3)
+    arr.take(2) should equal(Array(9, 8))
+    arr.drop(8) should equal(Array(1, 0))
+    arr.slice(2, 8).sorted should equal(Array(2, 3, 4, 5, 6, 7))
+  }
+
   private def assertMedianIs(seq: Seq[Int], expected: Int) = {
     println("Testing with " + seq)
     QuickSelect.median(seq.toArray) should equal(expected)